@@ -0,0 +1,40 @@
+package de.svenkubiak.jpushover.apis;
+
+import de.svenkubiak.jpushover.JPushover;
+import de.svenkubiak.jpushover.enums.Priority;
+import de.svenkubiak.jpushover.enums.Sound;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageBenchmark {
+
+    @Benchmark
+    public Message build() {
+        return JPushover.messageAPI()
+                .withToken("azGDORePK8gMaC0QOYAMyEEuzJnyUi")
+                .withUser("uQiRzpo4DXghDmr9QzzfQu27cmVRsG")
+                .withTitle("Disk space")
+                .withMessage("Disk /var is 95% full")
+                .withPriority(Priority.HIGH)
+                .withSound(Sound.SIREN)
+                .withUrl("https://example.com/disks")
+                .withUrlTitle("Dashboard");
+    }
+
+    @Benchmark
+    public MessageTemplate toTemplate() {
+        return build().toTemplate();
+    }
+}
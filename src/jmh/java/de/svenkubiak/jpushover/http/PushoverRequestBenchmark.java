@@ -0,0 +1,85 @@
+package de.svenkubiak.jpushover.http;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization and the send path against an in-process stub server
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PushoverRequestBenchmark {
+    private static final byte[] RESPONSE = "{\"status\":1,\"request\":\"647d2300-702c-4b38-8b2f-d56326ae460b\"}".getBytes(StandardCharsets.UTF_8);
+    private final Map<Param, String> body = new EnumMap<>(Param.class);
+    private HttpServer server;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        body.put(Param.TOKEN, "azGDORePK8gMaC0QOYAMyEEuzJnyUi");
+        body.put(Param.USER, "uQiRzpo4DXghDmr9QzzfQu27cmVRsG");
+        body.put(Param.TITLE, "Disk space");
+        body.put(Param.MESSAGE, "Disk /var is 95% full \"now\"");
+        body.put(Param.PRIORITY, "1");
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("X-Limit-App-Limit", "10000000");
+            exchange.getResponseHeaders().add("X-Limit-App-Remaining", "9999999");
+            exchange.getResponseHeaders().add("X-Limit-App-Reset", "4102444800");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            exchange.getResponseBody().write(RESPONSE);
+            exchange.close();
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/1/messages.json";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        HttpClientPool.getInstance().close();
+    }
+
+    @Benchmark
+    public byte[] toJson() {
+        return new PushoverRequest().toJson(body);
+    }
+
+    @Benchmark
+    public PushoverResponse push() throws JPushoverException {
+        return new PushoverRequest().push(url, body, null, 0);
+    }
+
+    @Benchmark
+    public PushoverResponse pushAsync() {
+        return new PushoverRequest().pushAsync(url, body, null, 0).join();
+    }
+}
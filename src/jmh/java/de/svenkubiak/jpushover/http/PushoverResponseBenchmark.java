@@ -0,0 +1,82 @@
+package de.svenkubiak.jpushover.http;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of a PushoverResponse including the rate limit header parsing
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PushoverResponseBenchmark {
+    private final PushoverRequest pushoverRequest = new PushoverRequest();
+    private final HttpResponse<String> httpResponse = new StubResponse(HttpHeaders.of(Map.of(
+            "Content-Type", List.of("application/json; charset=utf-8"),
+            "X-Limit-App-Limit", List.of("10000"),
+            "X-Limit-App-Remaining", List.of("7496"),
+            "X-Limit-App-Reset", List.of("1393653600")), (name, value) -> true));
+
+    @Benchmark
+    public PushoverResponse toPushoverResponse() {
+        return pushoverRequest.toPushoverResponse(httpResponse);
+    }
+
+    private record StubResponse(HttpHeaders headers) implements HttpResponse<String> {
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return null;
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public String body() {
+            return "{\"status\":1,\"request\":\"647d2300-702c-4b38-8b2f-d56326ae460b\"}";
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI.create("https://api.pushover.net/1/messages.json");
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
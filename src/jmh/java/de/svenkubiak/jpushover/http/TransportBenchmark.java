@@ -0,0 +1,125 @@
+package de.svenkubiak.jpushover.http;
+
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.io.Content;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares HTTP/1.1 and HTTP/2 for bursts of concurrent sends against an in-process
+ * Jetty server speaking HTTP/1.1 and cleartext HTTP/2. The pool keeps its default of
+ * 64 concurrent requests. Reports the number of opened connections per burst as
+ * secondary result.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class TransportBenchmark {
+    private static final AtomicLong OPENED = new AtomicLong();
+    private final Map<de.svenkubiak.jpushover.enums.Param, String> body = new EnumMap<>(de.svenkubiak.jpushover.enums.Param.class);
+    private Server server;
+    private String url;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    public Version version;
+
+    @Param({"100", "1000"})
+    public int concurrency;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Connections {
+        public long connections;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        body.put(de.svenkubiak.jpushover.enums.Param.TOKEN, "azGDORePK8gMaC0QOYAMyEEuzJnyUi");
+        body.put(de.svenkubiak.jpushover.enums.Param.USER, "uQiRzpo4DXghDmr9QzzfQu27cmVRsG");
+        body.put(de.svenkubiak.jpushover.enums.Param.MESSAGE, "Disk /var is 95% full");
+
+        var threadPool = new QueuedThreadPool();
+        threadPool.setDaemon(true);
+        server = new Server(threadPool);
+        var httpConfiguration = new HttpConfiguration();
+        var connector = new ServerConnector(server, new HttpConnectionFactory(httpConfiguration), new HTTP2CServerConnectionFactory(httpConfiguration));
+        connector.setAcceptQueueSize(2048);
+        connector.addEventListener(new Connection.Listener() {
+            @Override
+            public void onOpened(Connection connection) {
+                OPENED.incrementAndGet();
+            }
+        });
+        server.addConnector(connector);
+        server.setHandler(new Handler.Abstract() {
+            @Override
+            public boolean handle(Request request, Response response, Callback callback) throws Exception {
+                Content.Source.consumeAll(request);
+                response.setStatus(200);
+                Content.Sink.write(response, true, "{\"status\":1,\"request\":\"647d2300-702c-4b38-8b2f-d56326ae460b\"}", callback);
+                return true;
+            }
+        });
+        server.start();
+        url = "http://localhost:" + connector.getLocalPort() + "/1/messages.json";
+
+        HttpClientPool.getInstance().withVersion(version);
+
+        // cleartext HTTP/2 is negotiated with an upgrade, which the JDK client only attempts for requests without body
+        var upgrade = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        HttpClientPool.getInstance().send(upgrade, HttpResponse.BodyHandlers.discarding(), null, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        HttpClientPool.getInstance().withVersion(Version.HTTP_1_1).close();
+        server.stop();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void burst(Connections connections) {
+        var opened = OPENED.get();
+        var futures = new CompletableFuture[concurrency];
+        for (var i = 0; i < concurrency; i++) {
+            futures[i] = new PushoverRequest().pushAsync(url, body, null, 0);
+        }
+        CompletableFuture.allOf(futures).join();
+        connections.connections += OPENED.get() - opened;
+    }
+}
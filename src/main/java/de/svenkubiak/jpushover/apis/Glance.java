@@ -5,17 +5,15 @@ import de.svenkubiak.jpushover.enums.Url;
 import de.svenkubiak.jpushover.exceptions.JPushoverException;
 import de.svenkubiak.jpushover.http.PushoverRequest;
 import de.svenkubiak.jpushover.http.PushoverResponse;
-import de.svenkubiak.jpushover.services.AsyncExecutor;
 import de.svenkubiak.jpushover.services.AsyncService;
 import de.svenkubiak.jpushover.utils.Validate;
 
-import java.util.NavigableMap;
+import java.util.EnumMap;
 import java.util.Objects;
-import java.util.TreeMap;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
 
 public class Glance implements API {
-    private final NavigableMap<String, String> body = new TreeMap<>();
+    private final EnumMap<Param, String> body = new EnumMap<>(Param.class);
     private String proxyHost;
     private int proxyPort;
     
@@ -32,7 +30,7 @@ public class Glance implements API {
     public Glance withToken(String token) {
         Objects.requireNonNull(token, "token can not be null");
         
-        body.put(Param.TOKEN.toString(), token);
+        body.put(Param.TOKEN, token);
         return this;
     }
     
@@ -47,7 +45,7 @@ public class Glance implements API {
     public Glance withUser(String user) {
         Objects.requireNonNull(user, "user can not be null");
         
-        body.put(Param.USER.toString(), user);
+        body.put(Param.USER, user);
         return this;
     }
     
@@ -62,7 +60,7 @@ public class Glance implements API {
     public Glance withDevice(String device) {
         Objects.requireNonNull(device, "device can not be null");
         
-        body.put(Param.DEVICE.toString(), device);
+        body.put(Param.DEVICE, device);
         return this;
     }
     
@@ -76,7 +74,7 @@ public class Glance implements API {
         Objects.requireNonNull(title, "title can not be null");
         Validate.checkArgument(title.length() <= 100, "Title must not exceed a length of 100 characters");
         
-        body.put(Param.TITLE.toString(), title);
+        body.put(Param.TITLE, title);
         return this;
     }
     
@@ -90,7 +88,7 @@ public class Glance implements API {
         Objects.requireNonNull(text, "text can not be null");
         Validate.checkArgument(text.length() <= 100, "Text must not exceed a length of 100 characters");
         
-        body.put(Param.TEXT.toString(), text);
+        body.put(Param.TEXT, text);
         return this;
     }
     
@@ -104,7 +102,7 @@ public class Glance implements API {
         Objects.requireNonNull(subtext, "subtext can not be null");
         Validate.checkArgument(subtext.length() <= 100, "Subtext must not exceed a length of 100 characters");
 
-        body.put(Param.SUBTEXT.toString(), subtext);
+        body.put(Param.SUBTEXT, subtext);
         return this;
     }
     
@@ -115,7 +113,7 @@ public class Glance implements API {
      * @return Glance instance
      */
     public Glance withCount(int count) {
-        body.put(Param.COUNT.toString(), String.valueOf(count));
+        body.put(Param.COUNT, String.valueOf(count));
         return this;
     }
     
@@ -126,7 +124,7 @@ public class Glance implements API {
      * @return GLance instance
      */
     public Glance withPercent(int percent) {
-        body.put(Param.PERCENT.toString(), String.valueOf(percent));
+        body.put(Param.PERCENT, String.valueOf(percent));
         return this;
     }
 
@@ -148,6 +146,20 @@ public class Glance implements API {
         return this;
     }
     
+    /**
+     * Creates an independent copy of this glance including proxy settings
+     *
+     * @return Glance instance
+     */
+    public Glance copy() {
+        var glance = new Glance();
+        glance.body.putAll(body);
+        glance.proxyHost = this.proxyHost;
+        glance.proxyPort = this.proxyPort;
+
+        return glance;
+    }
+    
     /**
      * Sends a glance to pushover
      *
@@ -157,25 +169,50 @@ public class Glance implements API {
      */
     @Override
     public PushoverResponse push() throws JPushoverException {
-        Objects.requireNonNull(body.get(Param.TOKEN.toString()), "Token is required for a glance");
-        Objects.requireNonNull(body.get(Param.USER.toString()), "User is required for a glance");
+        Objects.requireNonNull(body.get(Param.TOKEN), "Token is required for a glance");
+        Objects.requireNonNull(body.get(Param.USER), "User is required for a glance");
         
         return new PushoverRequest().push(Url.GLANCES.toString(), body, this.proxyHost, this.proxyPort);
     }
     
     /**
-     * Sends a glance to pushover asynchronously
+     * Sends a glance to pushover asynchronously without blocking a thread while
+     * the request is in flight. Validation errors and failures complete the
+     * returned future exceptionally.
      *
-     * @return PushoverResponse instance
+     * @return CompletableFuture with the PushoverResponse
      */
-    @SuppressWarnings({ "rawtypes", "unchecked" })
-    public Future<PushoverResponse> pushAsync() {
-        return AsyncService.getInstance().execute(new AsyncExecutor(this));
+    public CompletableFuture<PushoverResponse> pushAsync() {
+        EnumMap<Param, String> fields;
+        try {
+            Objects.requireNonNull(body.get(Param.TOKEN), "Token is required for a glance");
+            Objects.requireNonNull(body.get(Param.USER), "User is required for a glance");
+            fields = new EnumMap<>(body);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return AsyncService.getInstance().executeAsync(() -> new PushoverRequest().pushAsync(Url.GLANCES.toString(), fields, this.proxyHost, this.proxyPort));
     }
     
+    /**
+     * @param param The name of the parameter
+     * @return The value of the parameter or null if not set
+     */
     public String getValue(String param) {
         Objects.requireNonNull(param, "param can not be null");
         
+        var key = Param.fromString(param);
+        return key != null ? body.get(key) : null;
+    }
+
+    /**
+     * @param param The parameter
+     * @return The value of the parameter or null if not set
+     */
+    public String getValue(Param param) {
+        Objects.requireNonNull(param, "param can not be null");
+
         return body.get(param);
     }
 }
\ No newline at end of file
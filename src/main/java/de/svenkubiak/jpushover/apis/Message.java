@@ -5,22 +5,27 @@ import de.svenkubiak.jpushover.enums.Priority;
 import de.svenkubiak.jpushover.enums.Sound;
 import de.svenkubiak.jpushover.enums.Url;
 import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.BatchResponse;
 import de.svenkubiak.jpushover.http.PushoverRequest;
 import de.svenkubiak.jpushover.http.PushoverResponse;
-import de.svenkubiak.jpushover.services.AsyncExecutor;
 import de.svenkubiak.jpushover.services.AsyncService;
+import de.svenkubiak.jpushover.services.Outbox;
 import de.svenkubiak.jpushover.utils.Validate;
 
-import java.util.NavigableMap;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Objects;
-import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 public class Message implements API {
-    private final NavigableMap<String, String> body = new TreeMap<>();
+    private static final int DEFAULT_CONCURRENCY = 16;
+    static final String DEFAULT_RETRY = "60";
+    static final String DEFAULT_EXPIRE = "3600";
+    private final EnumMap<Param, String> body = new EnumMap<>(Param.class);
     private String proxyHost;
     private int proxyPort;
+    private Outbox outbox;
     
     public Message() {
         this.withPriority(Priority.NORMAL);
@@ -35,7 +40,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withToken(String token) {
-        body.put(Param.TOKEN.toString(), token);
+        body.put(Param.TOKEN, token);
         return this;
     }
 
@@ -48,7 +53,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withUser(String user) {
-        body.put(Param.USER.toString(), user);
+        body.put(Param.USER, user);
         return this;
     }
 
@@ -61,7 +66,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withRetry(int retry) {
-        body.put(Param.RETRY.toString(), String.valueOf(retry));
+        body.put(Param.RETRY, String.valueOf(retry));
         return this;
     }
 
@@ -74,7 +79,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withExpire(int expire) {
-        body.put(Param.EXPIRE.toString(), String.valueOf(expire));
+        body.put(Param.EXPIRE, String.valueOf(expire));
         return this;
     }
 
@@ -86,7 +91,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withMessage(String message) {
-        body.put(Param.MESSAGE.toString(), message);
+        body.put(Param.MESSAGE, message);
         return this;
     }
 
@@ -99,7 +104,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withDevice(String device) {
-        body.put(Param.DEVICE.toString(), device);
+        body.put(Param.DEVICE, device);
         return this;
     }
 
@@ -111,7 +116,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withTitle(String title) {
-        body.put(Param.TITLE.toString(), title);
+        body.put(Param.TITLE, title);
         return this;
     }
 
@@ -123,8 +128,8 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withUrl(String url) {
-        body.put(Param.URL.toString(), url);
-        body.put(Param.URL_TITLE.toString(), url);
+        body.put(Param.URL, url);
+        body.put(Param.URL_TITLE, url);
         return this;
     }
     
@@ -136,8 +141,8 @@ public class Message implements API {
      * @return Message instance
      */
     public Message enableMonospace() {
-        body.put(Param.MONOSPACE.toString(), "1");
-        body.put(Param.HTML.toString(), "0");
+        body.put(Param.MONOSPACE, "1");
+        body.put(Param.HTML, "0");
         return this;
     }
     
@@ -149,8 +154,8 @@ public class Message implements API {
      * @return Message instance
      */
     public Message enableHtml() {
-        body.put(Param.MONOSPACE.toString(), "0");
-        body.put(Param.HTML.toString(), "1");
+        body.put(Param.MONOSPACE, "0");
+        body.put(Param.HTML, "1");
         return this;
     }
 
@@ -162,7 +167,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withUrlTitle(String urlTitle) {
-        body.put(Param.URL_TITLE.toString(), urlTitle);
+        body.put(Param.URL_TITLE, urlTitle);
         return this;
     }
 
@@ -175,7 +180,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withTimestamp(int timestamp) {
-        body.put(Param.TIMESTAMP.toString(), String.valueOf(timestamp));
+        body.put(Param.TIMESTAMP, String.valueOf(timestamp));
         return this;
     }
 
@@ -187,7 +192,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withPriority(Priority priority) {
-        body.put(Param.PRIORITY.toString(), priority.toString());
+        body.put(Param.PRIORITY, priority.toString());
         return this;
     }
 
@@ -200,7 +205,7 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withSound(Sound sound) {
-        body.put(Param.SOUND.toString(), sound.toString());
+        body.put(Param.SOUND, sound.toString());
         return this;
     }
 
@@ -215,7 +220,22 @@ public class Message implements API {
      * @return Message instance
      */
     public Message withCallback(String callback) {
-        body.put(Param.CALLBACK.toString(), callback);
+        body.put(Param.CALLBACK, callback);
+        return this;
+    }
+
+    /**
+     * Adds tags to an emergency message, which allow to cancel the retries
+     * of all messages with the same tag at once
+     *
+     * @param tags The tags of the message
+     * @return Message instance
+     */
+    public Message withTags(String... tags) {
+        Objects.requireNonNull(tags, "tags can not be null");
+        Validate.checkArgument(tags.length > 0, "tags can not be empty");
+
+        body.put(Param.TAGS, String.join(",", tags));
         return this;
     }
 
@@ -228,7 +248,7 @@ public class Message implements API {
     public Message withTTL(int ttl) {
         Validate.checkArgument(ttl > 0, "TTL must be a positive value");
         
-        body.put(Param.TTL.toString(), String.valueOf(ttl));
+        body.put(Param.TTL, String.valueOf(ttl));
         return this;
     }
 
@@ -250,6 +270,22 @@ public class Message implements API {
         return this;
     }
 
+    /**
+     * Writes the message to the given outbox before it is sent with push() or pushAsync();
+     * pushAsync() writes it once the message is taken from the queue of the AsyncService.
+     * If sending fails the message stays in the outbox and can be sent again with
+     * {@link Outbox#replay()}. pushAll() does not use the outbox.
+     *
+     * @param outbox the opened outbox
+     * @return Message instance
+     */
+    public Message withOutbox(Outbox outbox) {
+        Objects.requireNonNull(outbox, "outbox can not be null");
+
+        this.outbox = outbox;
+        return this;
+    }
+
     /**
      * Sends a validation request to pushover ensuring that the token and user
      * is correct, that there is at least one active device on the account.
@@ -263,20 +299,12 @@ public class Message implements API {
      * @throws JPushoverException on failure
      */
     public boolean validate() throws JPushoverException {
-        Objects.requireNonNull(body.get(Param.TOKEN.toString()), "Token is required for validation");
-        Objects.requireNonNull(body.get(Param.USER.toString()), "User is required for validation");
+        Objects.requireNonNull(body.get(Param.TOKEN), "Token is required for validation");
+        Objects.requireNonNull(body.get(Param.USER), "User is required for validation");
 
         var pushoverResponse = new PushoverRequest().push(Url.VALIDATE.toString(), body, this.proxyHost, this.proxyPort);
         
-        var valid = false;
-        if (pushoverResponse.getHttpStatus() == 200) {
-            var response = pushoverResponse.getResponse();
-            if (response != null && response.contains("\"status\":1")) {
-                valid = true;
-            }
-        }
-
-        return valid;
+        return pushoverResponse.getHttpStatus() == 200 && pushoverResponse.getStatus() == 1;
     }
 
     /**
@@ -288,47 +316,164 @@ public class Message implements API {
      */
     @Override
     public PushoverResponse push() throws JPushoverException {
-        Objects.requireNonNull(body.get(Param.TOKEN.toString()), "Token is required for a message");
-        Objects.requireNonNull(body.get(Param.USER.toString()), "User is required for a message");
-        Objects.requireNonNull(body.get(Param.MESSAGE.toString()), "Message is required for a message");
-        Validate.checkArgument(body.get(Param.MESSAGE.toString()).length() <= 1024, "Message can not exceed more than 1024 characters");
-        
-        if (Priority.EMERGENCY.toString().equals(body.get(Param.PRIORITY.toString()))) {
-            body.putIfAbsent(Param.RETRY.toString(), "60");
-            body.putIfAbsent(Param.EXPIRE.toString(), "3600");
+        Objects.requireNonNull(body.get(Param.TOKEN), "Token is required for a message");
+        Objects.requireNonNull(body.get(Param.USER), "User is required for a message");
+        checkMessage();
+
+        if (outbox != null) {
+            var json = new PushoverRequest().toJson(withDefaults());
+            return outbox.push(Url.MESSAGES.toString(), body.get(Param.TOKEN), json, this.proxyHost, this.proxyPort);
         }
-        
-        if (body.get(Param.TITLE.toString()) != null) {
-            Validate.checkArgument(body.get(Param.TITLE.toString()).length() <= 250, "Title can not exceed more than 250 characters");
+
+        return new PushoverRequest().push(Url.MESSAGES.toString(), withDefaults(), this.proxyHost, this.proxyPort);
+    }
+
+    /**
+     * Sends this message to each of the given users; the message is validated
+     * and serialized once, a user set on the message is ignored and the
+     * outbox is not used
+     *
+     * @param users The user/group keys of the recipients
+     * @return BatchResponse instance with the PushoverResponse per recipient
+     *
+     * @throws JPushoverException on failure
+     */
+    public BatchResponse pushAll(Collection<String> users) throws JPushoverException {
+        return pushAll(users, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Sends this message to each of the given users; the message is validated
+     * and serialized once, a user set on the message is ignored and the
+     * outbox is not used
+     *
+     * @param users The user/group keys of the recipients
+     * @param concurrency The maximum number of concurrent requests
+     * @return BatchResponse instance with the PushoverResponse per recipient
+     *
+     * @throws JPushoverException on failure
+     */
+    public BatchResponse pushAll(Collection<String> users, int concurrency) throws JPushoverException {
+        Objects.requireNonNull(body.get(Param.TOKEN), "Token is required for a message");
+        Objects.requireNonNull(users, "users can not be null");
+        checkMessage();
+
+        return new PushoverRequest().pushAll(Url.MESSAGES.toString(), withDefaults(), users, concurrency, this.proxyHost, this.proxyPort);
+    }
+
+    /**
+     * Creates an immutable, pre-validated and pre-serialized template of this message
+     * which can be shared between threads and sent repeatedly with per-send overrides.
+     * Later changes to this message do not affect the template.
+     *
+     * @return MessageTemplate instance
+     */
+    public MessageTemplate toTemplate() {
+        Objects.requireNonNull(body.get(Param.TOKEN), "Token is required for a message");
+        body.forEach(Message::checkLength);
+
+        return new MessageTemplate(withDefaults(), this.proxyHost, this.proxyPort);
+    }
+
+    /**
+     * Creates an independent copy of this message including proxy and outbox settings
+     *
+     * @return Message instance
+     */
+    public Message copy() {
+        var message = new Message();
+        message.body.putAll(body);
+        message.proxyHost = this.proxyHost;
+        message.proxyPort = this.proxyPort;
+        message.outbox = this.outbox;
+
+        return message;
+    }
+
+    private void checkMessage() {
+        Objects.requireNonNull(body.get(Param.MESSAGE), "Message is required for a message");
+        body.forEach(Message::checkLength);
+    }
+
+    /**
+     * @return The body including the retry and expire defaults required for emergency priority;
+     * a copy if defaults are added, as the body itself is never changed while sending
+     */
+    private EnumMap<Param, String> withDefaults() {
+        if (Priority.EMERGENCY.toString().equals(body.get(Param.PRIORITY))
+                && (body.get(Param.RETRY) == null || body.get(Param.EXPIRE) == null)) {
+            var fields = new EnumMap<>(body);
+            fields.putIfAbsent(Param.RETRY, DEFAULT_RETRY);
+            fields.putIfAbsent(Param.EXPIRE, DEFAULT_EXPIRE);
+
+            return fields;
         }
-        
-        if (body.get(Param.URL.toString()) != null) {
-            Validate.checkArgument(body.get(Param.URL.toString()).length() <= 512, "URL can not exceed more than 512 characters");
+
+        return body;
+    }
+
+    static void checkLength(Param param, String value) {
+        if (value == null) {
+            return;
         }
-        
-        if (body.get(Param.URL_TITLE.toString()) != null) {
-            Validate.checkArgument(body.get(Param.URL_TITLE.toString()).length() <= 100, "URL Title can not exceed more than 100 characters");
+
+        switch (param) {
+            case MESSAGE -> Validate.checkArgument(value.length() <= 1024, "Message can not exceed more than 1024 characters");
+            case TITLE -> Validate.checkArgument(value.length() <= 250, "Title can not exceed more than 250 characters");
+            case URL -> Validate.checkArgument(value.length() <= 512, "URL can not exceed more than 512 characters");
+            case URL_TITLE -> Validate.checkArgument(value.length() <= 100, "URL Title can not exceed more than 100 characters");
+            default -> {
+                // no length limit
+            }
         }
-        
-        return new PushoverRequest().push(Url.MESSAGES.toString(), body, this.proxyHost, this.proxyPort);
     }
     
     /**
-     * Sends a message to pushover asynchronously
+     * Sends a message to pushover asynchronously without blocking a thread while
+     * the request is in flight. Validation errors and failures complete the
+     * returned future exceptionally.
      *
-     * @return PushoverResponse instance
+     * @return CompletableFuture with the PushoverResponse
      *
-     * @throws InterruptedException if sending the message fails
-     * @throws ExecutionException if sending the message fails
+     * @throws InterruptedException never thrown, kept for source compatibility
+     * @throws ExecutionException never thrown, kept for source compatibility
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    public Future<PushoverResponse> pushAsync() throws InterruptedException, ExecutionException {
-        return AsyncService.getInstance().execute(new AsyncExecutor(this));
+    public CompletableFuture<PushoverResponse> pushAsync() throws InterruptedException, ExecutionException {
+        EnumMap<Param, String> fields;
+        try {
+            Objects.requireNonNull(body.get(Param.TOKEN), "Token is required for a message");
+            Objects.requireNonNull(body.get(Param.USER), "User is required for a message");
+            checkMessage();
+            fields = new EnumMap<>(withDefaults());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        var priority = Objects.requireNonNullElse(Priority.fromString(fields.get(Param.PRIORITY)), Priority.NORMAL);
+        return AsyncService.getInstance().executeAsync(priority, fields.get(Param.TOKEN),
+                () -> outbox != null
+                        ? outbox.pushAsync(Url.MESSAGES.toString(), fields.get(Param.TOKEN), new PushoverRequest().toJson(fields), this.proxyHost, this.proxyPort)
+                        : new PushoverRequest().pushAsync(Url.MESSAGES.toString(), fields, this.proxyHost, this.proxyPort));
     }
     
+    /**
+     * @param param The name of the parameter
+     * @return The value of the parameter or null if not set
+     */
     public String getValue(String param) {
         Objects.requireNonNull(param, "param can not be null");
         
+        var key = Param.fromString(param);
+        return key != null ? body.get(key) : null;
+    }
+
+    /**
+     * @param param The parameter
+     * @return The value of the parameter or null if not set
+     */
+    public String getValue(Param param) {
+        Objects.requireNonNull(param, "param can not be null");
+
         return body.get(param);
     }
 }
\ No newline at end of file
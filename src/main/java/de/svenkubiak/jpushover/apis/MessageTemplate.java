@@ -0,0 +1,149 @@
+package de.svenkubiak.jpushover.apis;
+
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.enums.Priority;
+import de.svenkubiak.jpushover.enums.Url;
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.PushoverRequest;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.utils.JsonWriter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, thread-safe snapshot of a Message created by {@link Message#toTemplate()}.
+ * Every field is validated and encoded once; sending only encodes the overridden fields.
+ */
+public final class MessageTemplate implements API {
+    private static final Param[] PARAMS = Param.values();
+    private final EnumMap<Param, String> body;
+    private final byte[][] fields = new byte[PARAMS.length][];
+    private final byte[] json;
+    private final String proxyHost;
+    private final int proxyPort;
+
+    MessageTemplate(Map<Param, String> body, String proxyHost, int proxyPort) {
+        this.body = new EnumMap<>(Param.class);
+        this.body.putAll(body);
+        this.proxyHost = proxyHost;
+        this.proxyPort = proxyPort;
+
+        this.body.forEach((param, value) -> {
+            if (value != null) {
+                fields[param.ordinal()] = JsonWriter.get().field(param.toString(), value).toByteArray();
+            }
+        });
+
+        var jsonWriter = JsonWriter.get().beginObject();
+        for (byte[] field : fields) {
+            if (field != null) {
+                jsonWriter.fields(field);
+            }
+        }
+        this.json = jsonWriter.endObject().toByteArray();
+    }
+
+    /**
+     * Sends the message of this template as it is
+     *
+     * @return PushoverResponse instance
+     *
+     * @throws JPushoverException on failure
+     */
+    @Override
+    public PushoverResponse push() throws JPushoverException {
+        Objects.requireNonNull(body.get(Param.USER), "User is required for a message");
+        Objects.requireNonNull(body.get(Param.MESSAGE), "Message is required for a message");
+
+        return new PushoverRequest().push(Url.MESSAGES.toString(), body.get(Param.TOKEN), json, this.proxyHost, this.proxyPort);
+    }
+
+    /**
+     * Sends the message of this template to the given user with the given message text
+     *
+     * @param user The user/group key of the recipient
+     * @param message The message to sent
+     * @return PushoverResponse instance
+     *
+     * @throws JPushoverException on failure
+     */
+    public PushoverResponse push(String user, String message) throws JPushoverException {
+        Objects.requireNonNull(user, "user can not be null");
+        Objects.requireNonNull(message, "message can not be null");
+
+        var overrides = new EnumMap<Param, String>(Param.class);
+        overrides.put(Param.USER, user);
+        overrides.put(Param.MESSAGE, message);
+
+        return push(overrides);
+    }
+
+    /**
+     * Sends the message of this template with the given fields replaced;
+     * a null value removes the field. If the message becomes an emergency
+     * message, missing retry and expire fields get the same defaults as in
+     * {@link Message#push()}.
+     *
+     * @param overrides The fields to replace
+     * @return PushoverResponse instance
+     *
+     * @throws JPushoverException on failure
+     */
+    public PushoverResponse push(Map<Param, String> overrides) throws JPushoverException {
+        Objects.requireNonNull(overrides, "overrides can not be null");
+        overrides.forEach(Message::checkLength);
+
+        Objects.requireNonNull(resolve(overrides, Param.TOKEN), "Token is required for a message");
+        Objects.requireNonNull(resolve(overrides, Param.USER), "User is required for a message");
+        Objects.requireNonNull(resolve(overrides, Param.MESSAGE), "Message is required for a message");
+        overrides = withDefaults(overrides);
+
+        var jsonWriter = JsonWriter.get().beginObject();
+        for (Param param : PARAMS) {
+            if (overrides.containsKey(param)) {
+                var value = overrides.get(param);
+                if (value != null) {
+                    jsonWriter.field(param.toString(), value);
+                }
+            } else if (fields[param.ordinal()] != null) {
+                jsonWriter.fields(fields[param.ordinal()]);
+            }
+        }
+
+        return new PushoverRequest().push(Url.MESSAGES.toString(), resolve(overrides, Param.TOKEN), jsonWriter.endObject().toByteArray(), this.proxyHost, this.proxyPort);
+    }
+
+    /**
+     * @param param The parameter
+     * @return The value of the parameter or null if not set
+     */
+    public String getValue(Param param) {
+        Objects.requireNonNull(param, "param can not be null");
+
+        return body.get(param);
+    }
+
+    private Map<Param, String> withDefaults(Map<Param, String> overrides) {
+        if (Priority.EMERGENCY.toString().equals(resolve(overrides, Param.PRIORITY))
+                && (resolve(overrides, Param.RETRY) == null || resolve(overrides, Param.EXPIRE) == null)) {
+            var fields = new EnumMap<Param, String>(Param.class);
+            fields.putAll(overrides);
+            if (resolve(overrides, Param.RETRY) == null) {
+                fields.put(Param.RETRY, Message.DEFAULT_RETRY);
+            }
+            if (resolve(overrides, Param.EXPIRE) == null) {
+                fields.put(Param.EXPIRE, Message.DEFAULT_EXPIRE);
+            }
+
+            return fields;
+        }
+
+        return overrides;
+    }
+
+    private String resolve(Map<Param, String> overrides, Param param) {
+        return overrides.containsKey(param) ? overrides.get(param) : body.get(param);
+    }
+}
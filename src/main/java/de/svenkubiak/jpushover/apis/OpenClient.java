@@ -2,11 +2,15 @@ package de.svenkubiak.jpushover.apis;
 
 import de.svenkubiak.jpushover.enums.Url;
 import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.PushoverMessage;
 import de.svenkubiak.jpushover.http.PushoverResponse;
-import de.svenkubiak.jpushover.listener.MessageListener;
+import de.svenkubiak.jpushover.http.Transports;
+import de.svenkubiak.jpushover.listener.OpenClientListener;
 import de.svenkubiak.jpushover.listener.WebSocketListener;
+import de.svenkubiak.jpushover.utils.JsonStreamReader;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -14,6 +18,7 @@ import java.net.http.HttpResponse;
 import java.net.http.WebSocket;
 import java.time.Duration;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 public class OpenClient {
     private final HttpClient client = HttpClient.newHttpClient();
@@ -61,7 +66,7 @@ public class OpenClient {
         
         var pushoverResponse = PushoverResponse.create().isSuccessful(false);
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = Transports.getDefault().send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
             pushoverResponse
                 .httpStatus(response.statusCode())
                 .response(response.body())
@@ -105,7 +110,7 @@ public class OpenClient {
                 .append("=")
                 .append(secret)
                 .append("&")
-                .append("deviceId")
+                .append("device_id")
                 .append("=")
                 .append(deviceId); 
         
@@ -117,7 +122,7 @@ public class OpenClient {
         
         String messages = null;
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = Transports.getDefault().send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
             messages = response.body();
         } catch (IOException | InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -127,6 +132,54 @@ public class OpenClient {
         return messages;
     }
     
+    /**
+     * Retrieves all available messages for the given deviceId and passes them one by one to
+     * the consumer while the response is read, without buffering the whole response
+     * 
+     * @param secret Your Pushover secret retrieved after login
+     * @param deviceId The deviceId from whom to get the messages
+     * @param consumer The consumer of the messages, called in order of the response
+     * 
+     * @return The number of messages or -1 if the response contained no messages
+     * @throws JPushoverException if something went wrong with the HTTP request or the HTTP status is not 200
+     */
+    public int messages(String secret, String deviceId, Consumer<PushoverMessage> consumer) throws JPushoverException {
+        Objects.requireNonNull(secret, "secret can not be null");
+        Objects.requireNonNull(deviceId, "deviceId can not be null");
+        Objects.requireNonNull(consumer, "consumer can not be null");
+        
+        StringBuilder params = new StringBuilder()
+                .append("?secret")
+                .append("=")
+                .append(secret)
+                .append("&")
+                .append("device_id")
+                .append("=")
+                .append(deviceId); 
+        
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(Url.MESSAGES.toString() + params.toString()))
+                .timeout(TIMEOUT)
+                .header(CONTENT_TYPE, APPLICATION_JSON)
+                .build();
+        
+        try {
+            HttpResponse<InputStream> response = Transports.getDefault().send(request, HttpResponse.BodyHandlers.ofInputStream(), null, 0);
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new JPushoverException("Failed to get messages, HTTP status " + response.statusCode());
+                }
+
+                return JsonStreamReader.of(body).forEach("messages", element -> consumer.accept(PushoverMessage.of(element)));
+            }
+        } catch (IOException e) {
+            throw new JPushoverException("Failed to get messages", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JPushoverException("Failed to get messages", e);
+        }
+    }
+    
     /**
      * Deletes all messages after (and including) a given messagesId
      * 
@@ -160,7 +213,7 @@ public class OpenClient {
 
         var pushoverResponse = PushoverResponse.create().isSuccessful(false);
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = Transports.getDefault().send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
             pushoverResponse
                 .httpStatus(response.statusCode())
                 .response(response.body())
@@ -178,17 +231,17 @@ public class OpenClient {
      * 
      * @param secret Your Pushover secret retrieved after login
      * @param deviceId The deviceId from whom to get the messages
-     * @param messageListener Your instance of a MessagesListener
+     * @param listener Your instance of an OpenClientListener or MessageListener
      * 
      * @return True if the connection was established successfully
      */
-    public boolean open(String secret, String deviceId, MessageListener messageListener) {
+    public boolean open(String secret, String deviceId, OpenClientListener listener) {
         Objects.requireNonNull(secret, "secret can not be null");
         Objects.requireNonNull(deviceId, "deviceId name can not be null");
-        Objects.requireNonNull(messageListener, "messageListener can not be null");
+        Objects.requireNonNull(listener, "listener can not be null");
         
         webSocket = client.newWebSocketBuilder()
-                .buildAsync(URI.create(Url.WEBSOCKET.toString()), new WebSocketListener(messageListener))
+                .buildAsync(URI.create(Url.WEBSOCKET.toString()), new WebSocketListener(listener))
                 .join();
         
         StringBuilder params = new StringBuilder()
@@ -204,6 +257,29 @@ public class OpenClient {
         return !webSocket.isInputClosed();
     }
     
+    /**
+     * Creates a session which keeps a WebSocket connection open, reconnecting on its own
+     * when the connection drops. The session shares the HTTP client of this OpenClient.
+     *
+     * @param secret Your Pushover secret retrieved after login
+     * @param deviceId The deviceId from whom to get the messages
+     * @param listener Your instance of an OpenClientListener or MessageListener
+     *
+     * @return OpenClientSession instance, not yet opened
+     */
+    public OpenClientSession session(String secret, String deviceId, OpenClientListener listener) {
+        return OpenClientSession.create(secret, deviceId, listener).withHttpClient(client);
+    }
+    
+    /**
+     * Creates a hub for the sessions of many devices which shares the HTTP client of this OpenClient
+     *
+     * @return OpenClientHub instance without any sessions
+     */
+    public OpenClientHub hub() {
+        return OpenClientHub.create().withHttpClient(client);
+    }
+
     /**
      * Registers a new device at Pushover
      * 
@@ -234,7 +310,7 @@ public class OpenClient {
 
         var pushoverResponse = PushoverResponse.create().isSuccessful(false);
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = Transports.getDefault().send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
             pushoverResponse
                 .httpStatus(response.statusCode())
                 .response(response.body())
@@ -0,0 +1,280 @@
+package de.svenkubiak.jpushover.apis;
+
+import de.svenkubiak.jpushover.enums.Url;
+import de.svenkubiak.jpushover.listener.OpenClientListener;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Manages the OpenClientSessions of many devices on shared resources: all sessions use
+ * one HttpClient, and with it one selector thread, and reconnect on the shared
+ * SchedulerService.
+ *
+ * Listener calls do not run on the WebSocket threads but are dispatched on virtual
+ * threads. Calls for the same device are delivered one at a time and in order, so a slow
+ * listener only delays its own device. A new message notification or keep-alive is
+ * dropped while an earlier one of the same device is still waiting to be delivered, as
+ * both carry the same information.
+ */
+public final class OpenClientHub implements AutoCloseable {
+    private final Map<String, OpenClientSession> sessions = new HashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpClient client;
+    private HttpClient ownedClient;
+    private String url = Url.WEBSOCKET.toString();
+    private Duration keepAliveTimeout;
+    private Duration minBackoff;
+    private Duration maxBackoff;
+    private boolean closed;
+
+    private OpenClientHub() {
+    }
+
+    /**
+     * Creates a new hub without any sessions
+     *
+     * @return OpenClientHub instance
+     */
+    public static OpenClientHub create() {
+        return new OpenClientHub();
+    }
+
+    /**
+     * Sets the client shared by all sessions opened afterwards. The client is not closed by
+     * the hub. Without a client, the hub creates its own and shuts it down when closed.
+     *
+     * @param client the HttpClient
+     * @return OpenClientHub instance
+     */
+    public synchronized OpenClientHub withHttpClient(HttpClient client) {
+        Objects.requireNonNull(client, "client can not be null");
+
+        this.client = client;
+        return this;
+    }
+
+    /**
+     * Sets the WebSocket URL of all sessions opened afterwards; defaults to the Pushover WebSocket server
+     *
+     * @param url the WebSocket URL
+     * @return OpenClientHub instance
+     */
+    public synchronized OpenClientHub withUrl(String url) {
+        Objects.requireNonNull(url, "url can not be null");
+
+        this.url = url;
+        return this;
+    }
+
+    /**
+     * Sets the keep-alive timeout of all sessions opened afterwards
+     *
+     * @param keepAliveTimeout the keep-alive timeout
+     * @return OpenClientHub instance
+     * @see OpenClientSession#withKeepAliveTimeout(Duration)
+     */
+    public synchronized OpenClientHub withKeepAliveTimeout(Duration keepAliveTimeout) {
+        Objects.requireNonNull(keepAliveTimeout, "keepAliveTimeout can not be null");
+        Validate.checkArgument(!keepAliveTimeout.isNegative() && !keepAliveTimeout.isZero(), "keepAliveTimeout must be positive");
+
+        this.keepAliveTimeout = keepAliveTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the reconnect backoff of all sessions opened afterwards
+     *
+     * @param minBackoff the minimum delay
+     * @param maxBackoff the maximum delay
+     * @return OpenClientHub instance
+     * @see OpenClientSession#withBackoff(Duration, Duration)
+     */
+    public synchronized OpenClientHub withBackoff(Duration minBackoff, Duration maxBackoff) {
+        Objects.requireNonNull(minBackoff, "minBackoff can not be null");
+        Objects.requireNonNull(maxBackoff, "maxBackoff can not be null");
+        Validate.checkArgument(!minBackoff.isNegative() && !minBackoff.isZero(), "minBackoff must be positive");
+        Validate.checkArgument(maxBackoff.compareTo(minBackoff) >= 0, "maxBackoff can not be less than minBackoff");
+
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    /**
+     * Opens a session for the given device
+     *
+     * @param secret Your Pushover secret retrieved after login
+     * @param deviceId The deviceId from whom to get the messages
+     * @param listener Your instance of an OpenClientListener or MessageListener
+     *
+     * @return The opened OpenClientSession
+     */
+    public synchronized OpenClientSession open(String secret, String deviceId, OpenClientListener listener) {
+        Objects.requireNonNull(secret, "secret can not be null");
+        Objects.requireNonNull(deviceId, "deviceId can not be null");
+        Objects.requireNonNull(listener, "listener can not be null");
+        Validate.checkArgument(!closed, "OpenClientHub is closed");
+        Validate.checkArgument(!sessions.containsKey(deviceId), "device already has a session");
+
+        if (client == null && ownedClient == null) {
+            ownedClient = HttpClient.newHttpClient();
+        }
+
+        var session = OpenClientSession.create(secret, deviceId, new Lane(listener))
+                .withHttpClient(client != null ? client : ownedClient)
+                .withUrl(url);
+        if (keepAliveTimeout != null) {
+            session.withKeepAliveTimeout(keepAliveTimeout);
+        }
+        if (minBackoff != null) {
+            session.withBackoff(minBackoff, maxBackoff);
+        }
+
+        sessions.put(deviceId, session);
+        session.open();
+
+        return session;
+    }
+
+    /**
+     * Closes the session of the given device
+     *
+     * @param deviceId The deviceId
+     * @return true if the device had a session, false otherwise
+     */
+    public synchronized boolean close(String deviceId) {
+        Objects.requireNonNull(deviceId, "deviceId can not be null");
+
+        var session = sessions.remove(deviceId);
+        if (session == null) {
+            return false;
+        }
+
+        session.close();
+        return true;
+    }
+
+    /**
+     * @param deviceId The deviceId
+     * @return The session of the given device or empty if the device has no session
+     */
+    public synchronized Optional<OpenClientSession> getSession(String deviceId) {
+        return Optional.ofNullable(sessions.get(deviceId));
+    }
+
+    /**
+     * @return The number of sessions
+     */
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Closes all sessions; listener calls which are already dispatched are still delivered
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (OpenClientSession session : sessions.values()) {
+            session.close();
+        }
+        sessions.clear();
+        if (ownedClient != null) {
+            ownedClient.shutdown();
+            ownedClient = null;
+        }
+
+        executor.shutdown();
+    }
+
+    private final class Lane implements OpenClientListener, Runnable {
+        private final Queue<Runnable> events = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean messagePending = new AtomicBoolean();
+        private final AtomicBoolean keepAlivePending = new AtomicBoolean();
+        private final OpenClientListener listener;
+
+        private Lane(OpenClientListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onKeepAlive() {
+            if (keepAlivePending.compareAndSet(false, true)) {
+                dispatch(() -> {
+                    keepAlivePending.set(false);
+                    listener.onKeepAlive();
+                });
+            }
+        }
+
+        @Override
+        public void onNewMessage() {
+            if (messagePending.compareAndSet(false, true)) {
+                dispatch(() -> {
+                    messagePending.set(false);
+                    listener.onNewMessage();
+                });
+            }
+        }
+
+        @Override
+        public void onError() {
+            dispatch(listener::onError);
+        }
+
+        @Override
+        public void onSessionReplaced() {
+            dispatch(listener::onSessionReplaced);
+        }
+
+        @Override
+        public void onConnectionError(Throwable error) {
+            dispatch(() -> listener.onConnectionError(error));
+        }
+
+        private void dispatch(Runnable event) {
+            events.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    events.clear();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Runnable event;
+            while ((event = events.poll()) != null) {
+                try {
+                    event.run();
+                } catch (RuntimeException e) {
+                    // a failing listener must not stop the delivery of later events
+                }
+            }
+
+            scheduled.set(false);
+            if (!events.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package de.svenkubiak.jpushover.apis;
+
+import de.svenkubiak.jpushover.enums.FrameType;
+import de.svenkubiak.jpushover.enums.SessionState;
+import de.svenkubiak.jpushover.enums.Url;
+import de.svenkubiak.jpushover.listener.MessageListener;
+import de.svenkubiak.jpushover.listener.OpenClientListener;
+import de.svenkubiak.jpushover.listener.SessionListener;
+import de.svenkubiak.jpushover.listener.WebSocketListener;
+import de.svenkubiak.jpushover.services.SchedulerService;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Long-lived WebSocket session of the Open Client API which stays connected on its own.
+ *
+ * The session reconnects when Pushover asks for a reload, when the connection drops
+ * and when no frame, including the keep-alive frame, was received within the keep-alive
+ * timeout. Reconnects wait for a randomized, growing backoff, so many devices dropped at
+ * the same time do not reconnect at the same time. A permanent error reported by Pushover
+ * moves the session to FAILED and calls {@link OpenClientListener#onError()}, or
+ * {@link OpenClientListener#onSessionReplaced()} if another session logged in with the
+ * same device; a new login is required then. A failed connection is reported to
+ * {@link OpenClientListener#onConnectionError(Throwable)} before the session reconnects,
+ * which a {@link MessageListener} receives as onError(). Reloads are handled by the
+ * session and not reported to the listener.
+ */
+public final class OpenClientSession implements AutoCloseable {
+    private static final Duration DEFAULT_KEEP_ALIVE_TIMEOUT = Duration.ofSeconds(90);
+    private static final Duration DEFAULT_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final SessionListener NOOP = (previous, current) -> { };
+    private final String secret;
+    private final String deviceId;
+    private final OpenClientListener listener;
+    private HttpClient client;
+    private HttpClient ownedClient;
+    private URI uri = URI.create(Url.WEBSOCKET.toString());
+    private SessionListener sessionListener = NOOP;
+    private long keepAliveTimeout = DEFAULT_KEEP_ALIVE_TIMEOUT.toNanos();
+    private long minBackoff = DEFAULT_MIN_BACKOFF.toNanos();
+    private long maxBackoff = DEFAULT_MAX_BACKOFF.toNanos();
+    private SessionState state = SessionState.NEW;
+    private WebSocket webSocket;
+    private ScheduledFuture<?> timer;
+    private int generation;
+    private long lastFrame;
+    private long backoff;
+    private long reconnects;
+
+    private OpenClientSession(String secret, String deviceId, OpenClientListener listener) {
+        this.secret = secret;
+        this.deviceId = deviceId;
+        this.listener = listener;
+    }
+
+    /**
+     * Creates a new session for the given device; the session connects once opened
+     *
+     * @param secret Your Pushover secret retrieved after login
+     * @param deviceId The deviceId from whom to get the messages
+     * @param listener Your instance of an OpenClientListener or MessageListener
+     *
+     * @return OpenClientSession instance
+     */
+    public static OpenClientSession create(String secret, String deviceId, OpenClientListener listener) {
+        Objects.requireNonNull(secret, "secret can not be null");
+        Objects.requireNonNull(deviceId, "deviceId can not be null");
+        Objects.requireNonNull(listener, "listener can not be null");
+
+        return new OpenClientSession(secret, deviceId, listener);
+    }
+
+    /**
+     * Sets the client used for the WebSocket connection, e.g. to share one client between sessions.
+     * The client is not closed by the session. Without a client, the session creates its own
+     * when opened and shuts it down when closed.
+     *
+     * @param client the HttpClient
+     * @return OpenClientSession instance
+     */
+    public synchronized OpenClientSession withHttpClient(HttpClient client) {
+        Objects.requireNonNull(client, "client can not be null");
+
+        this.client = client;
+        return this;
+    }
+
+    /**
+     * Sets the WebSocket URL; defaults to the Pushover WebSocket server
+     *
+     * @param url the WebSocket URL
+     * @return OpenClientSession instance
+     */
+    public synchronized OpenClientSession withUrl(String url) {
+        Objects.requireNonNull(url, "url can not be null");
+
+        this.uri = URI.create(url);
+        return this;
+    }
+
+    /**
+     * Sets the listener notified about state changes of the session
+     *
+     * @param sessionListener the SessionListener
+     * @return OpenClientSession instance
+     */
+    public synchronized OpenClientSession withSessionListener(SessionListener sessionListener) {
+        Objects.requireNonNull(sessionListener, "sessionListener can not be null");
+
+        this.sessionListener = sessionListener;
+        return this;
+    }
+
+    /**
+     * Sets the time without any frame after which the connection is considered dead and replaced
+     *
+     * @param keepAliveTimeout the keep-alive timeout
+     * @return OpenClientSession instance
+     */
+    public synchronized OpenClientSession withKeepAliveTimeout(Duration keepAliveTimeout) {
+        Objects.requireNonNull(keepAliveTimeout, "keepAliveTimeout can not be null");
+        Validate.checkArgument(!keepAliveTimeout.isNegative() && !keepAliveTimeout.isZero(), "keepAliveTimeout must be positive");
+
+        this.keepAliveTimeout = keepAliveTimeout.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets the range of the randomized delay before a reconnect. The delay grows with
+     * every failed attempt and starts over once a connection received a frame.
+     *
+     * @param minBackoff the minimum delay
+     * @param maxBackoff the maximum delay
+     * @return OpenClientSession instance
+     */
+    public synchronized OpenClientSession withBackoff(Duration minBackoff, Duration maxBackoff) {
+        Objects.requireNonNull(minBackoff, "minBackoff can not be null");
+        Objects.requireNonNull(maxBackoff, "maxBackoff can not be null");
+        Validate.checkArgument(!minBackoff.isNegative() && !minBackoff.isZero(), "minBackoff must be positive");
+        Validate.checkArgument(maxBackoff.compareTo(minBackoff) >= 0, "maxBackoff can not be less than minBackoff");
+
+        this.minBackoff = minBackoff.toNanos();
+        this.maxBackoff = maxBackoff.toNanos();
+        return this;
+    }
+
+    /**
+     * Connects the session; a session which is FAILED or CLOSED can be opened again
+     */
+    public synchronized void open() {
+        Validate.checkArgument(state == SessionState.NEW || state == SessionState.FAILED || state == SessionState.CLOSED, "session is already open");
+
+        if (client == null && ownedClient == null) {
+            ownedClient = HttpClient.newHttpClient();
+        }
+        backoff = 0;
+        connect(++generation);
+    }
+
+    /**
+     * Closes the WebSocket connection and stops reconnecting
+     */
+    @Override
+    public synchronized void close() {
+        generation++;
+        cancelTimer();
+        disconnect(true);
+        if (ownedClient != null) {
+            ownedClient.shutdown();
+            ownedClient = null;
+        }
+        transition(SessionState.CLOSED);
+    }
+
+    /**
+     * @return The current state of the session
+     */
+    public synchronized SessionState getState() {
+        return state;
+    }
+
+    /**
+     * @return The number of reconnects since the session was created
+     */
+    public synchronized long getReconnects() {
+        return reconnects;
+    }
+
+    private void connect(int connection) {
+        if (connection != generation) {
+            return;
+        }
+
+        transition(SessionState.CONNECTING);
+        (client != null ? client : ownedClient).newWebSocketBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .buildAsync(uri, new Listener(connection))
+                .whenComplete((socket, throwable) -> connected(connection, socket, throwable));
+    }
+
+    private void connected(int connection, WebSocket socket, Throwable throwable) {
+        synchronized (this) {
+            if (connection != generation || state != SessionState.CONNECTING) {
+                if (socket != null) {
+                    socket.abort();
+                }
+                return;
+            }
+
+            if (throwable == null) {
+                webSocket = socket;
+                webSocket.sendText("login:" + deviceId + ":" + secret + "\n", true);
+                lastFrame = System.nanoTime();
+                transition(SessionState.CONNECTED);
+                watch(connection, keepAliveTimeout);
+                return;
+            }
+
+            reconnect(connection, false);
+        }
+
+        connectionError(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+    }
+
+    private void reconnect(int connection, boolean reload) {
+        if (connection != generation) {
+            return;
+        }
+
+        var next = ++generation;
+        cancelTimer();
+        disconnect(false);
+        transition(SessionState.RECONNECTING);
+
+        if (reload) {
+            backoff = 0;
+        }
+        backoff = Math.min(maxBackoff, ThreadLocalRandom.current().nextLong(minBackoff, Math.max(minBackoff + 1, backoff * 3)));
+        reconnects++;
+        timer = SchedulerService.getInstance().schedule(() -> {
+            synchronized (this) {
+                connect(next);
+            }
+        }, Duration.ofNanos(backoff));
+    }
+
+    private void watch(int connection, long delay) {
+        timer = SchedulerService.getInstance().schedule(() -> {
+            synchronized (this) {
+                if (connection != generation || state != SessionState.CONNECTED) {
+                    return;
+                }
+
+                var idle = System.nanoTime() - lastFrame;
+                if (idle >= keepAliveTimeout) {
+                    reconnect(connection, false);
+                } else {
+                    watch(connection, keepAliveTimeout - idle);
+                }
+            }
+        }, Duration.ofNanos(delay));
+    }
+
+    private void onFrame(int connection, FrameType frameType) {
+        synchronized (this) {
+            if (connection != generation) {
+                return;
+            }
+
+            lastFrame = System.nanoTime();
+            switch (frameType) {
+                case KEEP_ALIVE -> backoff = 0;
+                case RELOAD -> reconnect(connection, true);
+                case ERROR, SESSION_REPLACED -> {
+                    generation++;
+                    cancelTimer();
+                    disconnect(false);
+                    transition(SessionState.FAILED);
+                }
+                default -> {
+                    // nothing to do for the session
+                }
+            }
+        }
+
+        switch (frameType) {
+            case KEEP_ALIVE -> listener.onKeepAlive();
+            case NEW_MESSAGE -> listener.onNewMessage();
+            case ERROR -> listener.onError();
+            case SESSION_REPLACED -> listener.onSessionReplaced();
+            default -> {
+                // reloads are handled by the session
+            }
+        }
+    }
+
+    private synchronized void onSignOfLife(int connection) {
+        if (connection == generation) {
+            lastFrame = System.nanoTime();
+        }
+    }
+
+    private synchronized void onDisconnect(int connection) {
+        reconnect(connection, false);
+    }
+
+    private synchronized boolean isCurrent(int connection) {
+        return connection == generation;
+    }
+
+    private void connectionError(Throwable error) {
+        try {
+            listener.onConnectionError(error);
+        } catch (RuntimeException e) {
+            // a failing listener must not stop the reconnect
+        }
+    }
+
+    private void disconnect(boolean graceful) {
+        if (webSocket != null) {
+            if (graceful) {
+                webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "ok");
+            } else {
+                webSocket.abort();
+            }
+            webSocket = null;
+        }
+    }
+
+    private void cancelTimer() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+
+    private void transition(SessionState next) {
+        var previous = state;
+        if (previous == next) {
+            return;
+        }
+
+        state = next;
+        try {
+            sessionListener.onStateChange(previous, next);
+        } catch (RuntimeException e) {
+            // a failing listener must not break the session
+        }
+    }
+
+    private final class Listener extends WebSocketListener {
+        private final int connection;
+
+        private Listener(int connection) {
+            super(listener);
+            this.connection = connection;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket socket, ByteBuffer data, boolean last) {
+            onSignOfLife(connection);
+            return super.onBinary(socket, data, last);
+        }
+
+        @Override
+        protected void onFrame(WebSocket socket, FrameType frameType) {
+            OpenClientSession.this.onFrame(connection, frameType);
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket socket, int statusCode, String reason) {
+            onDisconnect(connection);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket socket, Throwable error) {
+            if (isCurrent(connection)) {
+                connectionError(error);
+            }
+            onDisconnect(connection);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package de.svenkubiak.jpushover.enums;
+
+public enum Backpressure {
+    BLOCK,
+    DROP_OLDEST,
+    REJECT
+}
@@ -0,0 +1,6 @@
+package de.svenkubiak.jpushover.enums;
+
+public enum DigestFormat {
+    HTML,
+    MONOSPACE
+}
@@ -0,0 +1,42 @@
+package de.svenkubiak.jpushover.enums;
+
+/**
+ * Frames sent by the Pushover WebSocket server, each a single byte: a keep-alive, a
+ * notification about new messages, a request to reconnect, a permanent error and the
+ * notice that another session logged in with the same device.
+ */
+public enum FrameType {
+    KEEP_ALIVE((byte) '#'),
+    NEW_MESSAGE((byte) '!'),
+    RELOAD((byte) 'R'),
+    ERROR((byte) 'E'),
+    SESSION_REPLACED((byte) 'A');
+
+    private final byte value;
+
+    FrameType (byte value) {
+        this.value = value;
+    }
+
+    /**
+     * @param value The frame as sent by the Pushover WebSocket server, e.g. '!'
+     * @return The matching FrameType or null if there is none
+     */
+    public static FrameType of(byte value) {
+        return switch (value) {
+            case '#' -> KEEP_ALIVE;
+            case '!' -> NEW_MESSAGE;
+            case 'R' -> RELOAD;
+            case 'E' -> ERROR;
+            case 'A' -> SESSION_REPLACED;
+            default -> null;
+        };
+    }
+
+    /**
+     * @return The frame as sent by the Pushover WebSocket server
+     */
+    public byte toByte() {
+        return value;
+    }
+}
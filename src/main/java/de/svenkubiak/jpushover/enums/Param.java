@@ -1,5 +1,8 @@
 package de.svenkubiak.jpushover.enums;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum Param {
     CALLBACK("callback"),
     COUNT("count"),
@@ -13,6 +16,7 @@ public enum Param {
     RETRY("retry"),
     SOUND("sound"),
     SUBTEXT("subtext"),
+    TAGS("tags"),
     TEXT("text"),
     TIMESTAMP("timestamp"),
     TITLE("title"),
@@ -22,12 +26,27 @@ public enum Param {
     USER("user"),
     TTL("ttl");
 
+    private static final Map<String, Param> VALUES = new HashMap<>();
     private final String value;
 
+    static {
+        for (Param param : values()) {
+            VALUES.put(param.value, param);
+        }
+    }
+
     Param (String value) {
         this.value = value;
     }
 
+    /**
+     * @param value The name of the parameter as used by the Pushover API
+     * @return The matching Param or null if there is none
+     */
+    public static Param fromString(String value) {
+        return VALUES.get(value);
+    }
+
     @Override
     public String toString() {
         return this.value;
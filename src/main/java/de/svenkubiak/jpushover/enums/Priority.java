@@ -1,5 +1,8 @@
 package de.svenkubiak.jpushover.enums;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum Priority {
     EMERGENCY("2"),
     HIGH("1"),
@@ -7,12 +10,34 @@ public enum Priority {
     LOWEST("-2"),
     NORMAL("0");
     
+    private static final Map<String, Priority> VALUES = new HashMap<>();
     private final String value;
 
+    static {
+        for (Priority priority : values()) {
+            VALUES.put(priority.value, priority);
+        }
+    }
+
     Priority (String value) {
         this.value = value;
     }
-    
+
+    /**
+     * @param value The priority as used by the Pushover API, e.g. "-1"
+     * @return The matching Priority or null if there is none
+     */
+    public static Priority fromString(String value) {
+        return VALUES.get(value);
+    }
+
+    /**
+     * @return The priority as number, from -2 (lowest) to 2 (emergency)
+     */
+    public int toInt() {
+        return Integer.parseInt(value);
+    }
+
     @Override
     public String toString() {
         return this.value;
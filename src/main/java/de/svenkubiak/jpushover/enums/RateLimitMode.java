@@ -0,0 +1,6 @@
+package de.svenkubiak.jpushover.enums;
+
+public enum RateLimitMode {
+    FAIL,
+    QUEUE
+}
@@ -0,0 +1,16 @@
+package de.svenkubiak.jpushover.enums;
+
+/**
+ * States of an OpenClientSession: NEW until opened, CONNECTING while the WebSocket is
+ * established, CONNECTED once logged in, RECONNECTING while waiting for the next attempt
+ * after a dropped connection, FAILED after a permanent error which requires a new login
+ * and CLOSED after the session was closed.
+ */
+public enum SessionState {
+    NEW,
+    CONNECTING,
+    CONNECTED,
+    RECONNECTING,
+    FAILED,
+    CLOSED
+}
@@ -1,18 +1,48 @@
 package de.svenkubiak.jpushover.enums;
 
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
 public enum Url {
     DELETE("https://api.pushover.net/1/devices/###DEVICE_ID###/update_highest_message.json"),
     DEVICE("https://api.pushover.net/1/devices.json"),
     GLANCES("https://api.pushover.net/1/glances.json"),
     LOGIN("https://api.pushover.net/1/users/login.json"),
     MESSAGES("https://api.pushover.net/1/messages.json"),
+    RECEIPT("https://api.pushover.net/1/receipts/###RECEIPT###.json"),
+    RECEIPT_CANCEL("https://api.pushover.net/1/receipts/###RECEIPT###/cancel.json"),
+    RECEIPT_CANCEL_BY_TAG("https://api.pushover.net/1/receipts/cancel_by_tag/###TAG###.json"),
     VALIDATE("https://api.pushover.net/1/users/validate.json"),
     WEBSOCKET("wss://client.pushover.net/push");    
     
     private final String value;
+    private final Pattern pattern;
 
     Url (String value) {
         this.value = value;
+        this.pattern = Pattern.compile(Arrays.stream(value.split("###[A-Z_]+###", -1))
+                .map(Pattern::quote)
+                .collect(Collectors.joining("[^/]+")));
+    }
+
+    /**
+     * Maps a request URL to the endpoint it belongs to, without query and ids, e.g. for
+     * keeping metrics per endpoint
+     *
+     * @param url The request URL, possibly including ids and a query
+     * @return The template of the matching Url, e.g. with ###RECEIPT###, or the URL without query if none matches
+     */
+    public static String toEndpoint(String url) {
+        var query = url.indexOf('?');
+        var path = query >= 0 ? url.substring(0, query) : url;
+        for (Url endpoint : values()) {
+            if (endpoint.pattern.matcher(path).matches()) {
+                return endpoint.value;
+            }
+        }
+
+        return path;
     }
 
     @Override
@@ -6,6 +6,10 @@ public class JPushoverException extends Exception{
     @Serial
     private static final long serialVersionUID = 7468682477047138171L;
 
+    public JPushoverException(String message) {
+        super(message);
+    }
+
     public JPushoverException(String message, Exception e) {
         super(message, e);
     }
@@ -0,0 +1,21 @@
+package de.svenkubiak.jpushover.exceptions;
+
+import java.io.Serial;
+
+public class RateLimitException extends JPushoverException {
+    @Serial
+    private static final long serialVersionUID = -2361093873527484104L;
+    private final long reset;
+
+    public RateLimitException(String message, long reset) {
+        super(message);
+        this.reset = reset;
+    }
+
+    /**
+     * @return The API rate limit reset timestamp
+     */
+    public long getReset() {
+        return reset;
+    }
+}
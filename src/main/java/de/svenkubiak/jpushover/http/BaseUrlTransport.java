@@ -0,0 +1,91 @@
+package de.svenkubiak.jpushover.http;
+
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends all requests to another base URL, e.g. a staging proxy or a local stub server.
+ * Scheme, host and port of every request are replaced by those of the base URL and
+ * the path of the base URL is prepended to the request path; the query is kept.
+ */
+public final class BaseUrlTransport implements Transport {
+    private final Transport delegate;
+    private final URI baseUrl;
+
+    private BaseUrlTransport(String baseUrl, Transport delegate) {
+        var uri = URI.create(baseUrl);
+        Validate.checkArgument(uri.getScheme() != null && uri.getHost() != null, "baseUrl must be an absolute URL");
+
+        this.baseUrl = uri;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Creates a transport sending all requests with the shared HttpClientPool to the given base URL
+     *
+     * @param baseUrl the base URL, e.g. http://localhost:8080
+     * @return BaseUrlTransport instance
+     */
+    public static BaseUrlTransport create(String baseUrl) {
+        return create(baseUrl, HttpClientPool.getInstance());
+    }
+
+    /**
+     * Creates a transport sending all requests with the given transport to the given base URL
+     *
+     * @param baseUrl the base URL, e.g. http://localhost:8080
+     * @param delegate the transport sending the rewritten requests
+     * @return BaseUrlTransport instance
+     */
+    public static BaseUrlTransport create(String baseUrl, Transport delegate) {
+        Objects.requireNonNull(baseUrl, "baseUrl can not be null");
+        Objects.requireNonNull(delegate, "delegate can not be null");
+
+        return new BaseUrlTransport(baseUrl, delegate);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String proxyHost, int proxyPort) throws IOException, InterruptedException {
+        return delegate.send(rewrite(request), bodyHandler, proxyHost, proxyPort);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String proxyHost, int proxyPort) {
+        return delegate.sendAsync(rewrite(request), bodyHandler, proxyHost, proxyPort);
+    }
+
+    /**
+     * @param uri the original URI
+     * @return The URI pointing to the base URL
+     */
+    public URI rewrite(URI uri) {
+        Objects.requireNonNull(uri, "uri can not be null");
+
+        var basePath = baseUrl.getRawPath() == null ? "" : baseUrl.getRawPath();
+        if (basePath.endsWith("/")) {
+            basePath = basePath.substring(0, basePath.length() - 1);
+        }
+
+        var target = new StringBuilder()
+                .append(baseUrl.getScheme()).append("://").append(baseUrl.getRawAuthority())
+                .append(basePath)
+                .append(uri.getRawPath() == null ? "" : uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            target.append('?').append(uri.getRawQuery());
+        }
+
+        return URI.create(target.toString());
+    }
+
+    private HttpRequest rewrite(HttpRequest request) {
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+                .uri(rewrite(request.uri()))
+                .build();
+    }
+}
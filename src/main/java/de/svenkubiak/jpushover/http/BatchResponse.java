@@ -0,0 +1,69 @@
+package de.svenkubiak.jpushover.http;
+
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class BatchResponse {
+    private final Map<String, PushoverResponse> responses = new LinkedHashMap<>();
+    private final Map<String, JPushoverException> failures = new LinkedHashMap<>();
+
+    public static BatchResponse create() {
+        return new BatchResponse();
+    }
+
+    public synchronized BatchResponse response(String user, PushoverResponse response) {
+        Objects.requireNonNull(user, "user can not be null");
+        Objects.requireNonNull(response, "response can not be null");
+
+        responses.put(user, response);
+        return this;
+    }
+
+    public synchronized BatchResponse failure(String user, JPushoverException exception) {
+        Objects.requireNonNull(user, "user can not be null");
+        Objects.requireNonNull(exception, "exception can not be null");
+
+        failures.put(user, exception);
+        return this;
+    }
+
+    /**
+     * @return The pushover responses by recipient
+     */
+    public synchronized Map<String, PushoverResponse> getResponses() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(responses));
+    }
+
+    /**
+     * @return The exceptions by recipient for requests which could not be executed
+     */
+    public synchronized Map<String, JPushoverException> getFailures() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    /**
+     * @param user The user/group key of the recipient
+     * @return The pushover response for the given recipient or null if none is available
+     */
+    public synchronized PushoverResponse getResponse(String user) {
+        return responses.get(user);
+    }
+
+    /**
+     * @return The number of recipients for which the API returned a HTTP status code 200
+     */
+    public synchronized int getSuccessful() {
+        return (int) responses.values().stream().filter(PushoverResponse::isSuccessful).count();
+    }
+
+    /**
+     * @return true if the API returned a HTTP status code 200 for all recipients, false otherwise
+     */
+    public synchronized boolean isSuccessful() {
+        return failures.isEmpty() && getSuccessful() == responses.size();
+    }
+}
@@ -0,0 +1,270 @@
+package de.svenkubiak.jpushover.http;
+
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe registry of shared HttpClient instances, one per proxy configuration.
+ * Reusing a client keeps its connections alive between requests, so consecutive
+ * pushes skip the TCP and TLS handshake. With HTTP/2 concurrent requests are
+ * multiplexed over a single connection; servers without HTTP/2 support are
+ * automatically served with HTTP/1.1.
+ */
+public final class HttpClientPool implements Transport, AutoCloseable {
+    private static final int DEFAULT_MAX_CONNECTIONS = 64;
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    private static final String NO_PROXY = "direct";
+    private static final HttpClientPool INSTANCE = new HttpClientPool();
+    private final ConcurrentMap<String, PooledClient> clients = new ConcurrentHashMap<>();
+    private volatile Version version = Version.HTTP_1_1;
+    private volatile int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT.toNanos();
+    private volatile long lastEviction = System.nanoTime();
+
+    private HttpClientPool() {
+    }
+
+    public static HttpClientPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the preferred HTTP version of new clients. Defaults to HTTP/1.1. With HTTP/2
+     * the maximum number of connections limits the concurrent requests per client and
+     * must not exceed the concurrent streams allowed by the server, usually 100 or more.
+     * Existing clients are retired and replaced on their next use.
+     *
+     * @param version the HTTP version
+     * @return HttpClientPool instance
+     */
+    public HttpClientPool withVersion(Version version) {
+        Objects.requireNonNull(version, "version can not be null");
+
+        this.version = version;
+        retireAll();
+
+        return this;
+    }
+
+    /**
+     * @return The preferred HTTP version of new clients
+     */
+    public Version getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the maximum number of concurrent connections per pooled client.
+     * Existing clients are retired and replaced on their next use.
+     *
+     * @param maxConnections the maximum number of connections, must be greater than zero
+     * @return HttpClientPool instance
+     */
+    public HttpClientPool withMaxConnections(int maxConnections) {
+        Validate.checkArgument(maxConnections > 0, "maxConnections must be greater than zero");
+
+        this.maxConnections = maxConnections;
+        retireAll();
+
+        return this;
+    }
+
+    /**
+     * Sets the duration after which an unused client is evicted from the pool
+     *
+     * @param idleTimeout the idle timeout, must be positive
+     * @return HttpClientPool instance
+     */
+    public HttpClientPool withIdleTimeout(Duration idleTimeout) {
+        Objects.requireNonNull(idleTimeout, "idleTimeout can not be null");
+        Validate.checkArgument(!idleTimeout.isNegative() && !idleTimeout.isZero(), "idleTimeout must be positive");
+
+        this.idleTimeout = idleTimeout.toNanos();
+        return this;
+    }
+
+    /**
+     * Sends a request using the pooled client for the given proxy configuration
+     *
+     * @param request the request to send
+     * @param bodyHandler the response body handler
+     * @param proxyHost the host of the proxy or null for a direct connection
+     * @param proxyPort the port of the proxy
+     * @param <T> the response body type
+     *
+     * @return The HTTP response
+     * @throws IOException if an I/O error occurs when sending or receiving
+     * @throws InterruptedException if the operation is interrupted
+     */
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String proxyHost, int proxyPort) throws IOException, InterruptedException {
+        Objects.requireNonNull(request, "request can not be null");
+        Objects.requireNonNull(bodyHandler, "bodyHandler can not be null");
+
+        evictIdle();
+        var pooledClient = acquire(proxyHost, proxyPort);
+        try {
+            pooledClient.permits.acquire();
+            try {
+                return pooledClient.client.send(request, bodyHandler);
+            } finally {
+                pooledClient.permits.release();
+            }
+        } finally {
+            pooledClient.release();
+        }
+    }
+
+    /**
+     * Sends a request asynchronously using the pooled client for the given proxy
+     * configuration. No thread is blocked while waiting for a free connection.
+     *
+     * @param request the request to send
+     * @param bodyHandler the response body handler
+     * @param proxyHost the host of the proxy or null for a direct connection
+     * @param proxyPort the port of the proxy
+     * @param <T> the response body type
+     *
+     * @return CompletableFuture which completes with the HTTP response
+     */
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String proxyHost, int proxyPort) {
+        Objects.requireNonNull(request, "request can not be null");
+        Objects.requireNonNull(bodyHandler, "bodyHandler can not be null");
+
+        evictIdle();
+        var pooledClient = acquire(proxyHost, proxyPort);
+
+        return pooledClient.permits.acquireAsync()
+                .thenCompose(ignored -> pooledClient.client.sendAsync(request, bodyHandler))
+                .whenComplete((response, throwable) -> {
+                    pooledClient.permits.release();
+                    pooledClient.release();
+                });
+    }
+
+    /**
+     * @return The number of clients currently held by the pool
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Removes all clients which have not been used within the idle timeout
+     */
+    public void evictIdle() {
+        var now = System.nanoTime();
+        if (now - lastEviction < idleTimeout) {
+            return;
+        }
+        lastEviction = now;
+
+        clients.forEach((key, pooledClient) -> {
+            if (pooledClient.retireIfIdle(now, idleTimeout)) {
+                clients.remove(key, pooledClient);
+            }
+        });
+    }
+
+    /**
+     * Closes all pooled clients once their in-flight requests have completed;
+     * subsequent requests will create new clients
+     */
+    @Override
+    public void close() {
+        retireAll();
+    }
+
+    private void retireAll() {
+        clients.forEach((key, pooledClient) -> {
+            if (clients.remove(key, pooledClient)) {
+                pooledClient.retire();
+            }
+        });
+    }
+
+    private PooledClient acquire(String proxyHost, int proxyPort) {
+        var hasProxy = proxyHost != null && proxyPort > 0;
+        var key = hasProxy ? proxyHost + ":" + proxyPort : NO_PROXY;
+
+        while (true) {
+            var pooledClient = clients.computeIfAbsent(key, k -> new PooledClient(newClient(version, hasProxy, proxyHost, proxyPort), maxConnections));
+            if (pooledClient.retain()) {
+                return pooledClient;
+            }
+            clients.remove(key, pooledClient);
+        }
+    }
+
+    private static HttpClient newClient(Version version, boolean hasProxy, String proxyHost, int proxyPort) {
+        var httpClientBuilder = HttpClient.newBuilder().version(version);
+
+        if (hasProxy) {
+            httpClientBuilder.proxy(ProxySelector.of(new InetSocketAddress(proxyHost, proxyPort)));
+        }
+
+        return httpClientBuilder.build();
+    }
+
+    private static final class PooledClient {
+        private static final int RETIRED = 1 << 30;
+        private final HttpClient client;
+        private final Permits permits;
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledClient(HttpClient client, int maxConnections) {
+            this.client = client;
+            this.permits = new Permits(maxConnections);
+        }
+
+        private boolean retain() {
+            int current;
+            do {
+                current = users.get();
+                if ((current & RETIRED) != 0) {
+                    return false;
+                }
+            } while (!users.compareAndSet(current, current + 1));
+
+            return true;
+        }
+
+        private void release() {
+            lastUsed = System.nanoTime();
+            if (users.decrementAndGet() == RETIRED) {
+                client.shutdown();
+            }
+        }
+
+        private void retire() {
+            var current = users.getAndUpdate(value -> value | RETIRED);
+            if (current == 0) {
+                client.shutdown();
+            }
+        }
+
+        private boolean retireIfIdle(long now, long idleTimeout) {
+            if (now - lastUsed >= idleTimeout && users.compareAndSet(0, RETIRED)) {
+                client.shutdown();
+                return true;
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package de.svenkubiak.jpushover.http;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Counting semaphore which can be acquired without blocking a thread;
+ * waiters are served in FIFO order
+ */
+final class Permits {
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int available;
+
+    Permits(int permits) {
+        this.available = permits;
+    }
+
+    synchronized CompletableFuture<Void> acquireAsync() {
+        if (available > 0) {
+            available--;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        var waiter = new CompletableFuture<Void>();
+        waiters.add(waiter);
+
+        return waiter;
+    }
+
+    void acquire() throws InterruptedException {
+        var waiter = acquireAsync();
+        try {
+            waiter.get();
+        } catch (InterruptedException e) {
+            if (!waiter.cancel(false)) {
+                release();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void release() {
+        while (true) {
+            CompletableFuture<Void> waiter;
+            synchronized (this) {
+                waiter = waiters.poll();
+                if (waiter == null) {
+                    available++;
+                    return;
+                }
+            }
+
+            if (waiter.complete(null)) {
+                return;
+            }
+        }
+    }
+}
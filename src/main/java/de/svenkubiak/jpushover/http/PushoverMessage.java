@@ -0,0 +1,206 @@
+package de.svenkubiak.jpushover.http;
+
+import de.svenkubiak.jpushover.utils.JsonReader;
+import de.svenkubiak.jpushover.utils.JsonWriter;
+
+import java.util.Objects;
+
+/**
+ * A message received with the Open Client API. Timestamps are Unix timestamps in seconds.
+ */
+public final class PushoverMessage {
+    private final long id;
+    private final long umid;
+    private final long aid;
+    private final long date;
+    private final int priority;
+    private final boolean acked;
+    private final boolean html;
+    private final String title;
+    private final String message;
+    private final String app;
+    private final String icon;
+    private final String sound;
+    private final String url;
+    private final String urlTitle;
+    private final String receipt;
+
+    private PushoverMessage(JsonReader jsonReader) {
+        var value = jsonReader.getLong("id", -1);
+        if (value < 0) {
+            var idString = jsonReader.getString("id_str");
+            value = idString != null ? Long.parseLong(idString) : -1;
+        }
+        this.id = value;
+        this.umid = jsonReader.getLong("umid", 0);
+        this.aid = jsonReader.getLong("aid", 0);
+        this.date = jsonReader.getLong("date", 0);
+        this.priority = (int) jsonReader.getLong("priority", 0);
+        this.acked = jsonReader.getLong("acked", 0) == 1;
+        this.html = jsonReader.getLong("html", 0) == 1;
+        this.title = jsonReader.getString("title");
+        this.message = jsonReader.getString("message");
+        this.app = jsonReader.getString("app");
+        this.icon = jsonReader.getString("icon");
+        this.sound = jsonReader.getString("sound");
+        this.url = jsonReader.getString("url");
+        this.urlTitle = jsonReader.getString("url_title");
+        this.receipt = jsonReader.getString("receipt");
+    }
+
+    /**
+     * Creates a message from a JSON object as returned by the Open Client API
+     *
+     * @param jsonReader the reader of the JSON object
+     * @return PushoverMessage instance
+     * @throws NumberFormatException if the object contains no valid id
+     */
+    public static PushoverMessage of(JsonReader jsonReader) {
+        Objects.requireNonNull(jsonReader, "jsonReader can not be null");
+
+        var pushoverMessage = new PushoverMessage(jsonReader);
+        if (pushoverMessage.id < 0) {
+            throw new NumberFormatException("message contains no id");
+        }
+
+        return pushoverMessage;
+    }
+
+    /**
+     * Encodes the message in the format of the Open Client API
+     *
+     * @return The UTF-8 encoded JSON object
+     */
+    public byte[] toJson() {
+        var jsonWriter = JsonWriter.get()
+                .beginObject()
+                .field("id", id)
+                .field("umid", umid)
+                .field("aid", aid)
+                .field("date", date)
+                .field("priority", priority)
+                .field("acked", acked ? 1 : 0)
+                .field("html", html ? 1 : 0);
+        optional(jsonWriter, "title", title);
+        optional(jsonWriter, "message", message);
+        optional(jsonWriter, "app", app);
+        optional(jsonWriter, "icon", icon);
+        optional(jsonWriter, "sound", sound);
+        optional(jsonWriter, "url", url);
+        optional(jsonWriter, "url_title", urlTitle);
+        optional(jsonWriter, "receipt", receipt);
+
+        return jsonWriter.endObject().toByteArray();
+    }
+
+    private static void optional(JsonWriter jsonWriter, String name, String value) {
+        if (value != null) {
+            jsonWriter.field(name, value);
+        }
+    }
+
+    /**
+     * @return The id of the message, increasing with every message of the device
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return The unique id of the message across all devices
+     */
+    public long getUmid() {
+        return umid;
+    }
+
+    /**
+     * @return The id of the application which sent the message
+     */
+    public long getAid() {
+        return aid;
+    }
+
+    /**
+     * @return The timestamp of the message
+     */
+    public long getDate() {
+        return date;
+    }
+
+    /**
+     * @return The priority of the message between -2 and 2
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return true if the emergency message was acknowledged, false otherwise
+     */
+    public boolean isAcked() {
+        return acked;
+    }
+
+    /**
+     * @return true if the message contains HTML, false otherwise
+     */
+    public boolean isHtml() {
+        return html;
+    }
+
+    /**
+     * @return The title of the message or null
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return The text of the message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return The name of the application which sent the message
+     */
+    public String getApp() {
+        return app;
+    }
+
+    /**
+     * @return The icon of the application
+     */
+    public String getIcon() {
+        return icon;
+    }
+
+    /**
+     * @return The sound of the message or null
+     */
+    public String getSound() {
+        return sound;
+    }
+
+    /**
+     * @return The supplementary URL of the message or null
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return The title of the supplementary URL or null
+     */
+    public String getUrlTitle() {
+        return urlTitle;
+    }
+
+    /**
+     * @return The receipt of an emergency message or null
+     */
+    public String getReceipt() {
+        return receipt;
+    }
+}
@@ -1,28 +1,299 @@
 package de.svenkubiak.jpushover.http;
 
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.enums.Url;
 import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.exceptions.RateLimitException;
+import de.svenkubiak.jpushover.metrics.Metrics;
+import de.svenkubiak.jpushover.utils.JsonWriter;
+import de.svenkubiak.jpushover.utils.Validate;
 
 import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.ProxySelector;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpClient.Version;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public class PushoverRequest {
-    
-    public PushoverResponse push(String url, NavigableMap<String, String> body, String proxyHost, int proxyPort) throws JPushoverException {
+    private static final String USER = Param.USER.toString();
+
+    public PushoverResponse push(String url, Map<Param, String> body, String proxyHost, int proxyPort) throws JPushoverException {
         Objects.requireNonNull(url, "API URL can not be null");
         Objects.requireNonNull(body, "body can not be null");
         
-        var httpResponse = getResponse(toJson(body), url, proxyHost, proxyPort);
+        return send(body.get(Param.TOKEN), toJson(body), url, proxyHost, proxyPort);
+    }
+
+    /**
+     * Sends an already serialized JSON body
+     *
+     * @param url The API URL
+     * @param token The application token of the body, used for rate limiting
+     * @param json The UTF-8 encoded JSON body
+     * @param proxyHost The host of the proxy or null
+     * @param proxyPort The port of the proxy
+     *
+     * @return PushoverResponse instance
+     * @throws JPushoverException on failure
+     */
+    public PushoverResponse push(String url, String token, byte[] json, String proxyHost, int proxyPort) throws JPushoverException {
+        Objects.requireNonNull(url, "API URL can not be null");
+        Objects.requireNonNull(json, "json can not be null");
+
+        return send(token, json, url, proxyHost, proxyPort);
+    }
+
+    /**
+     * Sends a body asynchronously without blocking a thread while the request is in flight
+     *
+     * @param url The API URL
+     * @param body The body to send
+     * @param proxyHost The host of the proxy or null
+     * @param proxyPort The port of the proxy
+     *
+     * @return CompletableFuture which completes with the PushoverResponse or
+     * exceptionally with a JPushoverException
+     */
+    public CompletableFuture<PushoverResponse> pushAsync(String url, Map<Param, String> body, String proxyHost, int proxyPort) {
+        Objects.requireNonNull(url, "API URL can not be null");
+        Objects.requireNonNull(body, "body can not be null");
+
+        return sendAsync(body.get(Param.TOKEN), toJson(body), url, proxyHost, proxyPort);
+    }
+
+    /**
+     * Sends an already serialized JSON body asynchronously without blocking a thread
+     * while the request is in flight
+     *
+     * @param url The API URL
+     * @param token The application token of the body, used for rate limiting
+     * @param json The UTF-8 encoded JSON body
+     * @param proxyHost The host of the proxy or null
+     * @param proxyPort The port of the proxy
+     *
+     * @return CompletableFuture which completes with the PushoverResponse or
+     * exceptionally with a JPushoverException
+     */
+    public CompletableFuture<PushoverResponse> pushAsync(String url, String token, byte[] json, String proxyHost, int proxyPort) {
+        Objects.requireNonNull(url, "API URL can not be null");
+        Objects.requireNonNull(json, "json can not be null");
+
+        return sendAsync(token, json, url, proxyHost, proxyPort);
+    }
+
+    /**
+     * Sends a GET request asynchronously; GET requests do not use the message rate limit
+     * budget and are not retried
+     *
+     * @param url The API URL including the query
+     * @param proxyHost The host of the proxy or null
+     * @param proxyPort The port of the proxy
+     *
+     * @return CompletableFuture which completes with the PushoverResponse or
+     * exceptionally with a JPushoverException
+     */
+    public CompletableFuture<PushoverResponse> getAsync(String url, String proxyHost, int proxyPort) {
+        Objects.requireNonNull(url, "API URL can not be null");
+
+        var httpRequest = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        return getResponseAsync(httpRequest, url, proxyHost, proxyPort).handle((response, throwable) -> {
+            if (throwable != null) {
+                var cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                throw new CompletionException(new JPushoverException("Failed to execute HTTP request", cause instanceof Exception e ? e : new Exception(cause)));
+            }
+
+            return toPushoverResponse(response);
+        });
+    }
+
+    /**
+     * Sends the same body to each of the given users. The fields shared by all
+     * recipients are serialized once and the requests are executed with at most
+     * the given number of concurrent requests. Duplicate users receive a single request.
+     *
+     * @param url The API URL
+     * @param body The shared body; a contained user field is ignored
+     * @param users The user/group keys of the recipients
+     * @param concurrency The maximum number of concurrent requests
+     * @param proxyHost The host of the proxy or null
+     * @param proxyPort The port of the proxy
+     *
+     * @return BatchResponse with a PushoverResponse or an exception per recipient
+     * @throws JPushoverException if the batch is interrupted
+     */
+    public BatchResponse pushAll(String url, Map<Param, String> body, Collection<String> users, int concurrency, String proxyHost, int proxyPort) throws JPushoverException {
+        Objects.requireNonNull(url, "API URL can not be null");
+        Objects.requireNonNull(body, "body can not be null");
+        Objects.requireNonNull(users, "users can not be null");
+        Validate.checkArgument(concurrency > 0, "concurrency must be greater than zero");
+
+        var recipients = new LinkedHashSet<String>(users);
+        Validate.checkArgument(!recipients.contains(null), "users can not contain null");
+
+        var shared = appendFields(JsonWriter.get(), body, Param.USER).toByteArray();
+        var token = body.get(Param.TOKEN);
+
+        var batchResponse = BatchResponse.create();
+        var permits = new Semaphore(concurrency);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String user : recipients) {
+                permits.acquire();
+                var json = JsonWriter.get()
+                        .beginObject()
+                        .fields(shared)
+                        .field(USER, user)
+                        .endObject()
+                        .toByteArray();
+                executor.execute(() -> {
+                    try {
+                        batchResponse.response(user, send(token, json, url, proxyHost, proxyPort));
+                    } catch (JPushoverException e) {
+                        batchResponse.failure(user, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JPushoverException("Batch request was interrupted", e);
+        }
+
+        return batchResponse;
+    }
+
+    private PushoverResponse send(String token, byte[] json, String url, String proxyHost, int proxyPort) throws JPushoverException {
+        var rateLimiter = RateLimiter.getInstance();
+        var retryPolicy = RetryPolicy.getInstance();
+        retryPolicy.recordRequest();
+
+        var attempt = 1;
+        var delay = 0L;
+        while (true) {
+            rateLimiter.acquire(token);
+
+            PushoverResponse pushoverResponse;
+            try {
+                pushoverResponse = toPushoverResponse(getResponse(json, url, proxyHost, proxyPort));
+            } catch (JPushoverException e) {
+                if (!retryPolicy.isRetryable(e.getCause()) || (delay = retryPolicy.nextDelay(attempt, delay, null)) < 0) {
+                    throw e;
+                }
+                Metrics.getRecorder().onRetry(Url.toEndpoint(url));
+                backoff(delay);
+                attempt++;
+                continue;
+            }
+
+            update(rateLimiter, token, pushoverResponse);
+            if (!retryPolicy.isRetryable(pushoverResponse) || (delay = retryPolicy.nextDelay(attempt, delay, pushoverResponse)) < 0) {
+                return pushoverResponse;
+            }
+            Metrics.getRecorder().onRetry(Url.toEndpoint(url));
+            backoff(delay);
+            attempt++;
+        }
+    }
+
+    private void backoff(long delay) throws JPushoverException {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JPushoverException("Interrupted while waiting for retry", e);
+        }
+    }
+
+    private CompletableFuture<PushoverResponse> sendAsync(String token, byte[] json, String url, String proxyHost, int proxyPort) {
+        var retryPolicy = RetryPolicy.getInstance();
+        retryPolicy.recordRequest();
+
+        return sendAsync(retryPolicy, 1, 0, token, json, url, proxyHost, proxyPort);
+    }
+
+    private CompletableFuture<PushoverResponse> sendAsync(RetryPolicy retryPolicy, int attempt, long previousDelay, String token, byte[] json, String url, String proxyHost, int proxyPort) {
+        return attemptAsync(token, json, url, proxyHost, proxyPort).handle((response, throwable) -> {
+            long delay;
+            if (throwable != null) {
+                var cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                if (!retryPolicy.isRetryable(cause.getCause()) || (delay = retryPolicy.nextDelay(attempt, previousDelay, null)) < 0) {
+                    return CompletableFuture.<PushoverResponse>failedFuture(cause);
+                }
+            } else if (!retryPolicy.isRetryable(response) || (delay = retryPolicy.nextDelay(attempt, previousDelay, response)) < 0) {
+                return CompletableFuture.completedFuture(response);
+            }
+
+            Metrics.getRecorder().onRetry(Url.toEndpoint(url));
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> sendAsync(retryPolicy, attempt + 1, delay, token, json, url, proxyHost, proxyPort));
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<PushoverResponse> attemptAsync(String token, byte[] json, String url, String proxyHost, int proxyPort) {
+        var rateLimiter = RateLimiter.getInstance();
+        long delay;
+        try {
+            delay = rateLimiter.reserve(token);
+        } catch (RateLimitException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        var httpRequest = newRequest(json, url);
+        var httpResponse = delay > 0
+                ? CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                        .thenCompose(ignored -> getResponseAsync(httpRequest, url, proxyHost, proxyPort))
+                : getResponseAsync(httpRequest, url, proxyHost, proxyPort);
+
+        return httpResponse.handle((response, throwable) -> {
+            if (throwable != null) {
+                var cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                throw new CompletionException(new JPushoverException("Failed to execute HTTP request", cause instanceof Exception e ? e : new Exception(cause)));
+            }
+
+            var pushoverResponse = toPushoverResponse(response);
+            update(rateLimiter, token, pushoverResponse);
+
+            return pushoverResponse;
+        });
+    }
+
+    private CompletableFuture<HttpResponse<String>> getResponseAsync(HttpRequest httpRequest, String url, String proxyHost, int proxyPort) {
+        var start = System.nanoTime();
+        return Transports.getDefault()
+                .sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString(), proxyHost, proxyPort)
+                .whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        Metrics.getRecorder().onFailure(Url.toEndpoint(url), System.nanoTime() - start);
+                    } else {
+                        Metrics.getRecorder().onResponse(Url.toEndpoint(url), response.statusCode(), System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private void update(RateLimiter rateLimiter, String token, PushoverResponse pushoverResponse) {
+        rateLimiter.update(token, pushoverResponse);
+        if (pushoverResponse.getLimit() > 0) {
+            Metrics.getRecorder().onRemaining(token, pushoverResponse.getRemaining());
+        }
+    }
+
+    PushoverResponse toPushoverResponse(HttpResponse<String> httpResponse) {
         var jPushoverResponse = new PushoverResponse().isSuccessful(false);
         
         jPushoverResponse
@@ -36,41 +307,56 @@ public class PushoverRequest {
         return jPushoverResponse;
     }
 
-    private HttpResponse<String> getResponse(String body, String url, String proxyHost, int proxyPort) throws JPushoverException {
-        var httpRequest = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(Duration.ofSeconds(5))
-                .header("Content-Type", "application/json")
-                .version(Version.HTTP_1_1)
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
-
-        var httpClientBuilder = HttpClient.newBuilder().version(Version.HTTP_1_1);
-
-        if (proxyHost != null && proxyPort > 0) {
-            httpClientBuilder.proxy(ProxySelector.of(new InetSocketAddress(proxyHost, proxyPort)));
-        }
+    private HttpResponse<String> getResponse(byte[] body, String url, String proxyHost, int proxyPort) throws JPushoverException {
+        var httpRequest = newRequest(body, url);
+        var metricsRecorder = Metrics.getRecorder();
+        var start = System.nanoTime();
 
         try {
-            return httpClientBuilder.build().send(httpRequest, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException | InterruptedException e) {
+            var httpResponse = Transports.getDefault().send(httpRequest, HttpResponse.BodyHandlers.ofString(), proxyHost, proxyPort);
+            metricsRecorder.onResponse(Url.toEndpoint(url), httpResponse.statusCode(), System.nanoTime() - start);
+
+            return httpResponse;
+        } catch (IOException e) {
+            metricsRecorder.onFailure(Url.toEndpoint(url), System.nanoTime() - start);
+            throw new JPushoverException("Failed to execute HTTP request", e);
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new JPushoverException("Failed to execute HTTP request", e);
         }
     }
     
-    private String toJson(NavigableMap<String, String> body) {
-        var buffer = new StringBuilder();
-        buffer.append("{");
-        for (Map.Entry<String, String> entry : body.entrySet()) {
-            buffer.append("\"").append(entry.getKey()).append("\"");
-            buffer.append(":");
-            buffer.append("\"").append(entry.getValue()).append("\"");
-            buffer.append(",");
+    /**
+     * Encodes the given fields as UTF-8 JSON object; null values are skipped
+     *
+     * @param body The fields to encode
+     * @return The encoded JSON
+     */
+    public byte[] toJson(Map<Param, String> body) {
+        Objects.requireNonNull(body, "body can not be null");
+
+        return appendFields(JsonWriter.get().beginObject(), body, null)
+                .endObject()
+                .toByteArray();
+    }
+
+    private JsonWriter appendFields(JsonWriter jsonWriter, Map<Param, String> body, Param excludedParam) {
+        for (Map.Entry<Param, String> entry : body.entrySet()) {
+            if (entry.getValue() != null && entry.getKey() != excludedParam) {
+                jsonWriter.field(entry.getKey().toString(), entry.getValue());
+            }
         }
-        buffer.append("}");
 
-        return buffer.toString().replace(",}", "}");
+        return jsonWriter;
+    }
+
+    private HttpRequest newRequest(byte[] body, String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
     }
 
     private OptionalLong getHeaderValue(HttpResponse<String> httpResponse, String header) {
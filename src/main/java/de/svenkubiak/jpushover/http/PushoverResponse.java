@@ -1,6 +1,21 @@
 package de.svenkubiak.jpushover.http;
 
+import de.svenkubiak.jpushover.utils.JsonReader;
+
+import java.util.List;
+
 public class PushoverResponse {
+    private static final int STATUS = 1;
+    private static final int REQUEST = 1 << 1;
+    private static final int RECEIPT = 1 << 2;
+    private static final int ERRORS = 1 << 3;
+    private static final int DEVICES = 1 << 4;
+    private volatile int parsed;
+    private Integer status;
+    private String request;
+    private String receipt;
+    private List<String> errors;
+    private List<String> devices;
     private String pushoverResponse;
     private long pushoverLimit;
     private long pushoverRemaining;
@@ -14,6 +29,7 @@ public class PushoverResponse {
     
     public PushoverResponse response(String response) {
         this.pushoverResponse = response;
+        this.parsed = 0;
         return this;
     }
 
@@ -83,4 +99,70 @@ public class PushoverResponse {
     public long getReset() {
         return pushoverReset;
     }
-}
\ No newline at end of file
+
+    /**
+     * The fields of the response body are parsed on first access of any of the typed getters
+     *
+     * @return The status field of the response body, 1 on success, 0 if the body contains no status
+     */
+    public int getStatus() {
+        if ((parsed & STATUS) == 0) {
+            status = (int) reader().getLong("status", 0);
+            parsed |= STATUS;
+        }
+
+        return status;
+    }
+
+    /**
+     * @return The request identifier of the response body or null if the body contains none
+     */
+    public String getRequest() {
+        if ((parsed & REQUEST) == 0) {
+            request = reader().getString("request");
+            parsed |= REQUEST;
+        }
+
+        return request;
+    }
+
+    /**
+     * @return The receipt of an emergency message or null if the body contains none
+     */
+    public String getReceipt() {
+        if ((parsed & RECEIPT) == 0) {
+            receipt = reader().getString("receipt");
+            parsed |= RECEIPT;
+        }
+
+        return receipt;
+    }
+
+    /**
+     * @return The error messages of the response body or an empty list if the body contains none
+     */
+    public List<String> getErrors() {
+        if ((parsed & ERRORS) == 0) {
+            errors = reader().getStrings("errors");
+            parsed |= ERRORS;
+        }
+
+        return errors;
+    }
+
+    /**
+     * @return The active devices of a validation response or an empty list if the body contains none
+     */
+    public List<String> getDevices() {
+        if ((parsed & DEVICES) == 0) {
+            devices = reader().getStrings("devices");
+            parsed |= DEVICES;
+        }
+
+        return devices;
+    }
+
+    private JsonReader reader() {
+        return JsonReader.of(pushoverResponse != null ? pushoverResponse : "");
+    }
+}
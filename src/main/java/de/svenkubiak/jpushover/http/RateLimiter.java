@@ -0,0 +1,200 @@
+package de.svenkubiak.jpushover.http;
+
+import de.svenkubiak.jpushover.enums.RateLimitMode;
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.exceptions.RateLimitException;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the API rate limit per application token based on the X-Limit-App-* headers
+ * of every response and holds back requests once the budget is used up, instead of
+ * sending requests which would be rejected with HTTP status 429.
+ */
+public final class RateLimiter {
+    private static final Duration DEFAULT_MAX_WAIT = Duration.ofMinutes(1);
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final RateLimiter INSTANCE = new RateLimiter();
+    private final ConcurrentMap<String, Budget> budgets = new ConcurrentHashMap<>();
+    private volatile RateLimitMode mode = RateLimitMode.FAIL;
+    private volatile long maxWait = DEFAULT_MAX_WAIT.toMillis();
+    private volatile boolean pacing;
+
+    private RateLimiter() {
+    }
+
+    public static RateLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the behaviour when the budget of a token is used up. FAIL throws a
+     * RateLimitException right away, QUEUE waits until the reset timestamp
+     * if it is within the maximum wait time.
+     *
+     * @param mode the mode to use
+     * @return RateLimiter instance
+     */
+    public RateLimiter withMode(RateLimitMode mode) {
+        Objects.requireNonNull(mode, "mode can not be null");
+
+        this.mode = mode;
+        return this;
+    }
+
+    /**
+     * Sets the maximum time a request waits for budget before a RateLimitException is thrown
+     *
+     * @param maxWait the maximum wait time
+     * @return RateLimiter instance
+     */
+    public RateLimiter withMaxWait(Duration maxWait) {
+        Objects.requireNonNull(maxWait, "maxWait can not be null");
+        Validate.checkArgument(!maxWait.isNegative(), "maxWait can not be negative");
+
+        this.maxWait = maxWait.toMillis();
+        return this;
+    }
+
+    /**
+     * Spreads requests evenly across the remaining budget until the reset timestamp
+     * instead of sending them as fast as possible. Disabled by default, as the
+     * Pushover budget is usually a monthly one.
+     *
+     * @param pacing true to enable pacing, false otherwise
+     * @return RateLimiter instance
+     */
+    public RateLimiter withPacing(boolean pacing) {
+        this.pacing = pacing;
+        return this;
+    }
+
+    /**
+     * Acquires budget for a single request of the given token, waiting if required
+     *
+     * @param token the application token
+     * @throws RateLimitException if no budget is left
+     * @throws JPushoverException if waiting for budget is interrupted
+     */
+    public void acquire(String token) throws JPushoverException {
+        var delay = reserve(token);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JPushoverException("Interrupted while waiting for rate limit budget", e);
+            }
+        }
+    }
+
+    /**
+     * Reserves budget for a single request of the given token without waiting
+     *
+     * @param token the application token
+     * @return The number of milliseconds the request has to wait before it is sent
+     * @throws RateLimitException if no budget is left
+     */
+    public long reserve(String token) throws RateLimitException {
+        if (token == null) {
+            return 0;
+        }
+
+        var budget = budgets.get(token);
+        if (budget == null) {
+            return 0;
+        }
+
+        synchronized (budget) {
+            var now = System.currentTimeMillis();
+            var resetMillis = TimeUnit.SECONDS.toMillis(budget.reset);
+            if (resetMillis <= now) {
+                budgets.remove(token, budget);
+                return 0;
+            }
+
+            if (budget.remaining <= 0) {
+                var delay = resetMillis - now;
+                if (mode == RateLimitMode.FAIL || delay > maxWait) {
+                    throw new RateLimitException("API rate limit exceeded until " + budget.reset, budget.reset);
+                }
+
+                return delay;
+            }
+
+            var delay = pacing ? budget.pace(now, resetMillis) : 0;
+            budget.remaining--;
+
+            return delay;
+        }
+    }
+
+    /**
+     * Updates the budget of the given token from the rate limit information of a response
+     *
+     * @param token the application token
+     * @param response the response of the request
+     */
+    public void update(String token, PushoverResponse response) {
+        if (token == null || response == null) {
+            return;
+        }
+
+        if (response.getLimit() > 0 || response.getHttpStatus() == TOO_MANY_REQUESTS) {
+            var budget = budgets.computeIfAbsent(token, key -> new Budget());
+            synchronized (budget) {
+                if (response.getLimit() > 0) {
+                    budget.remaining = response.getRemaining();
+                    budget.reset = response.getReset();
+                }
+
+                if (response.getHttpStatus() == TOO_MANY_REQUESTS) {
+                    budget.remaining = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param token the application token
+     * @return The remaining requests of the token as last reported by the API, or -1 if unknown
+     */
+    public long getRemaining(String token) {
+        Objects.requireNonNull(token, "token can not be null");
+
+        var budget = budgets.get(token);
+        if (budget == null) {
+            return -1;
+        }
+
+        synchronized (budget) {
+            return budget.remaining;
+        }
+    }
+
+    /**
+     * Forgets all tracked budgets
+     */
+    public void clear() {
+        budgets.clear();
+    }
+
+    private static final class Budget {
+        private long remaining;
+        private long reset;
+        private long nextSend;
+
+        private long pace(long now, long resetMillis) {
+            var interval = (resetMillis - now) / Math.max(1, remaining);
+            var slot = Math.max(now, nextSend);
+            nextSend = slot + interval;
+
+            return slot - now;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package de.svenkubiak.jpushover.http;
+
+import de.svenkubiak.jpushover.utils.JsonReader;
+
+import java.util.Objects;
+
+/**
+ * State of an emergency message as returned by the receipts API. Timestamps are
+ * Unix timestamps in seconds, 0 if the event did not happen yet.
+ */
+public final class Receipt {
+    private final String receipt;
+    private final String acknowledgedBy;
+    private final String acknowledgedByDevice;
+    private final long acknowledgedAt;
+    private final long lastDeliveredAt;
+    private final long expiresAt;
+    private final long calledBackAt;
+    private final boolean acknowledged;
+    private final boolean expired;
+    private final boolean calledBack;
+
+    private Receipt(String receipt, JsonReader jsonReader) {
+        this.receipt = receipt;
+        this.acknowledged = jsonReader.getLong("acknowledged", 0) == 1;
+        this.acknowledgedAt = jsonReader.getLong("acknowledged_at", 0);
+        this.acknowledgedBy = jsonReader.getString("acknowledged_by");
+        this.acknowledgedByDevice = jsonReader.getString("acknowledged_by_device");
+        this.lastDeliveredAt = jsonReader.getLong("last_delivered_at", 0);
+        this.expired = jsonReader.getLong("expired", 0) == 1;
+        this.expiresAt = jsonReader.getLong("expires_at", 0);
+        this.calledBack = jsonReader.getLong("called_back", 0) == 1;
+        this.calledBackAt = jsonReader.getLong("called_back_at", 0);
+    }
+
+    /**
+     * Creates a Receipt from the response of the receipts API
+     *
+     * @param receipt the receipt
+     * @param pushoverResponse the response of the receipts API
+     * @return Receipt instance
+     */
+    public static Receipt of(String receipt, PushoverResponse pushoverResponse) {
+        Objects.requireNonNull(receipt, "receipt can not be null");
+        Objects.requireNonNull(pushoverResponse, "pushoverResponse can not be null");
+
+        var response = pushoverResponse.getResponse();
+        return new Receipt(receipt, JsonReader.of(response != null ? response : ""));
+    }
+
+    /**
+     * @return The receipt
+     */
+    public String getReceipt() {
+        return receipt;
+    }
+
+    /**
+     * @return true if the message was acknowledged by a user, false otherwise
+     */
+    public boolean isAcknowledged() {
+        return acknowledged;
+    }
+
+    /**
+     * @return The timestamp of the acknowledgement
+     */
+    public long getAcknowledgedAt() {
+        return acknowledgedAt;
+    }
+
+    /**
+     * @return The user key of the user who acknowledged the message or null
+     */
+    public String getAcknowledgedBy() {
+        return acknowledgedBy;
+    }
+
+    /**
+     * @return The device on which the message was acknowledged or null
+     */
+    public String getAcknowledgedByDevice() {
+        return acknowledgedByDevice;
+    }
+
+    /**
+     * @return The timestamp of the last delivery of the message
+     */
+    public long getLastDeliveredAt() {
+        return lastDeliveredAt;
+    }
+
+    /**
+     * @return true if the message expired without acknowledgement, false otherwise
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * @return The timestamp at which the retries of the message stop
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @return true if the callback URL of the message was called, false otherwise
+     */
+    public boolean isCalledBack() {
+        return calledBack;
+    }
+
+    /**
+     * @return The timestamp of the call of the callback URL
+     */
+    public long getCalledBackAt() {
+        return calledBackAt;
+    }
+}
@@ -0,0 +1,214 @@
+package de.svenkubiak.jpushover.http;
+
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a failed request is sent again and how long to wait before.
+ * HTTP status 5xx and 429, timeouts and connection failures are retried, any
+ * other response is returned as it is. Delays use decorrelated jitter and never
+ * end before the X-Limit-App-Reset timestamp of a 429 response.
+ *
+ * Retries are limited by a retry budget: every request deposits a fraction of a
+ * token, every retry withdraws a full token. Once the budget is used up, failures
+ * are returned right away, so retries can not multiply the load during an outage.
+ */
+public final class RetryPolicy {
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(500);
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+    private static final double DEFAULT_BUDGET_RATIO = 0.1;
+    private static final int DEFAULT_BUDGET_CAPACITY = 10;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long TOKEN = 1000;
+    private static volatile RetryPolicy instance = none();
+    private final AtomicLong budget = new AtomicLong();
+    private volatile int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private volatile long baseDelay = DEFAULT_BASE_DELAY.toMillis();
+    private volatile long maxDelay = DEFAULT_MAX_DELAY.toMillis();
+    private volatile long deposit = (long) (DEFAULT_BUDGET_RATIO * TOKEN);
+    private volatile long capacity = DEFAULT_BUDGET_CAPACITY * TOKEN;
+
+    private RetryPolicy() {
+        budget.set(capacity);
+    }
+
+    /**
+     * Returns the policy used for all requests; defaults to {@link #none()}
+     *
+     * @return RetryPolicy instance
+     */
+    public static RetryPolicy getInstance() {
+        return instance;
+    }
+
+    /**
+     * Replaces the policy used for all requests
+     *
+     * @param retryPolicy the RetryPolicy to use
+     */
+    public static void setInstance(RetryPolicy retryPolicy) {
+        Objects.requireNonNull(retryPolicy, "retryPolicy can not be null");
+
+        instance = retryPolicy;
+    }
+
+    /**
+     * Creates a new policy with up to 3 attempts, a base delay of 500ms, a maximum
+     * delay of 30s and a retry budget of 10% of the requests
+     *
+     * @return RetryPolicy instance
+     */
+    public static RetryPolicy create() {
+        return new RetryPolicy();
+    }
+
+    /**
+     * Creates a policy which never retries
+     *
+     * @return RetryPolicy instance
+     */
+    public static RetryPolicy none() {
+        return new RetryPolicy().withMaxAttempts(1);
+    }
+
+    /**
+     * Sets the maximum number of attempts per request, including the first one
+     *
+     * @param maxAttempts the maximum number of attempts, must be greater than zero
+     * @return RetryPolicy instance
+     */
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        Validate.checkArgument(maxAttempts > 0, "maxAttempts must be greater than zero");
+
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the minimum delay between two attempts
+     *
+     * @param baseDelay the minimum delay
+     * @return RetryPolicy instance
+     */
+    public RetryPolicy withBaseDelay(Duration baseDelay) {
+        Objects.requireNonNull(baseDelay, "baseDelay can not be null");
+        Validate.checkArgument(!baseDelay.isNegative(), "baseDelay can not be negative");
+
+        this.baseDelay = baseDelay.toMillis();
+        return this;
+    }
+
+    /**
+     * Sets the maximum delay between two attempts. A request is not retried if the
+     * rate limit reset of a 429 response is further away.
+     *
+     * @param maxDelay the maximum delay
+     * @return RetryPolicy instance
+     */
+    public RetryPolicy withMaxDelay(Duration maxDelay) {
+        Objects.requireNonNull(maxDelay, "maxDelay can not be null");
+        Validate.checkArgument(!maxDelay.isNegative(), "maxDelay can not be negative");
+
+        this.maxDelay = maxDelay.toMillis();
+        return this;
+    }
+
+    /**
+     * Sets the retry budget
+     *
+     * @param ratio the number of retries earned per request, e.g. 0.1 for one retry every ten requests
+     * @param capacity the maximum number of retries which can be saved up
+     * @return RetryPolicy instance
+     */
+    public RetryPolicy withRetryBudget(double ratio, int capacity) {
+        Validate.checkArgument(ratio >= 0, "ratio can not be negative");
+        Validate.checkArgument(capacity >= 0, "capacity can not be negative");
+
+        this.deposit = (long) (ratio * TOKEN);
+        this.capacity = capacity * TOKEN;
+        budget.set(this.capacity);
+
+        return this;
+    }
+
+    /**
+     * @param pushoverResponse the response of an attempt
+     * @return true if the HTTP status is 5xx or 429, false otherwise
+     */
+    public boolean isRetryable(PushoverResponse pushoverResponse) {
+        Objects.requireNonNull(pushoverResponse, "pushoverResponse can not be null");
+
+        var status = pushoverResponse.getHttpStatus();
+        return status >= 500 || status == TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * @param throwable the cause of a failed attempt
+     * @return true if the attempt failed with a timeout or a connection failure, false otherwise
+     */
+    public boolean isRetryable(Throwable throwable) {
+        return throwable instanceof HttpTimeoutException
+                || throwable instanceof ConnectException
+                || throwable instanceof SocketException
+                || throwable instanceof EOFException
+                || (throwable != null && throwable.getClass() == IOException.class);
+    }
+
+    /**
+     * @return The number of retries left in the budget
+     */
+    public long getBudget() {
+        return budget.get() / TOKEN;
+    }
+
+    void recordRequest() {
+        if (maxAttempts > 1) {
+            budget.accumulateAndGet(deposit, (current, value) -> Math.min(capacity, current + value));
+        }
+    }
+
+    /**
+     * Computes the delay before the next attempt and withdraws a retry from the budget
+     *
+     * @param attempt the number of the failed attempt, starting with 1
+     * @param previousDelay the delay before the failed attempt or 0
+     * @param pushoverResponse the response of the failed attempt or null
+     * @return The delay in milliseconds or -1 if the request is not retried
+     */
+    long nextDelay(int attempt, long previousDelay, PushoverResponse pushoverResponse) {
+        if (attempt >= maxAttempts) {
+            return -1;
+        }
+
+        var upper = Math.max(baseDelay + 1, previousDelay * 3);
+        var delay = Math.min(maxDelay, ThreadLocalRandom.current().nextLong(baseDelay, upper));
+        if (pushoverResponse != null && pushoverResponse.getHttpStatus() == TOO_MANY_REQUESTS && pushoverResponse.getReset() > 0) {
+            var untilReset = TimeUnit.SECONDS.toMillis(pushoverResponse.getReset()) - System.currentTimeMillis();
+            if (untilReset > maxDelay) {
+                return -1;
+            }
+            delay = Math.max(delay, untilReset);
+        }
+
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN) {
+                return -1;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN));
+
+        return delay;
+    }
+}
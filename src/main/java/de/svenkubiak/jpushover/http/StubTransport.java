@@ -0,0 +1,276 @@
+package de.svenkubiak.jpushover.http;
+
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.net.ssl.SSLSession;
+
+/**
+ * In-memory transport answering every request without network access, for load
+ * and integration tests of code sending pushes. Simulates latency, the app rate
+ * limit with its X-Limit-App-* headers and randomly throttled requests.
+ * Asynchronous requests do not block a thread while waiting for the latency.
+ */
+public final class StubTransport implements Transport {
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final String OVER_LIMIT = "{\"status\":0,\"errors\":[\"application is over its message limit\"]}";
+    private final LongAdder requests = new LongAdder();
+    private volatile int status = 200;
+    private volatile String body;
+    private volatile long latency;
+    private volatile long jitter;
+    private volatile double throttleRate;
+    private long limit;
+    private long remaining;
+    private long window;
+    private long reset;
+
+    private StubTransport() {
+    }
+
+    /**
+     * Creates a new StubTransport answering every request immediately with
+     * HTTP status 200 and a successful Pushover response
+     *
+     * @return StubTransport instance
+     */
+    public static StubTransport create() {
+        return new StubTransport();
+    }
+
+    /**
+     * Sets the HTTP status and body of all responses which are not rate limited
+     *
+     * @param status the HTTP status
+     * @param body the response body
+     * @return StubTransport instance
+     */
+    public StubTransport withResponse(int status, String body) {
+        Validate.checkArgument(status >= 100 && status < 600, "status must be a valid HTTP status");
+        Objects.requireNonNull(body, "body can not be null");
+
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    /**
+     * Sets the time until a response is returned
+     *
+     * @param latency the latency
+     * @return StubTransport instance
+     */
+    public StubTransport withLatency(Duration latency) {
+        Objects.requireNonNull(latency, "latency can not be null");
+        Validate.checkArgument(!latency.isNegative(), "latency can not be negative");
+
+        this.latency = latency.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets a random amount of time up to the given jitter which is added to the latency
+     *
+     * @param jitter the maximum additional latency
+     * @return StubTransport instance
+     */
+    public StubTransport withJitter(Duration jitter) {
+        Objects.requireNonNull(jitter, "jitter can not be null");
+        Validate.checkArgument(!jitter.isNegative(), "jitter can not be negative");
+
+        this.jitter = jitter.toNanos();
+        return this;
+    }
+
+    /**
+     * Simulates the app rate limit: every response carries the X-Limit-App-* headers
+     * and requests are rejected with HTTP status 429 once the limit is used up,
+     * until the budget is restored after the given window.
+     *
+     * @param limit the number of requests per window, must be greater than zero
+     * @param window the time after which the budget is restored
+     * @return StubTransport instance
+     */
+    public synchronized StubTransport withRateLimit(long limit, Duration window) {
+        Validate.checkArgument(limit > 0, "limit must be greater than zero");
+        Objects.requireNonNull(window, "window can not be null");
+        Validate.checkArgument(!window.isNegative() && !window.isZero(), "window must be positive");
+
+        this.limit = limit;
+        this.remaining = limit;
+        this.window = window.toMillis();
+        this.reset = System.currentTimeMillis() + this.window;
+        return this;
+    }
+
+    /**
+     * Rejects the given share of requests with HTTP status 429, independent of the rate limit
+     *
+     * @param throttleRate the share of rejected requests between 0 and 1
+     * @return StubTransport instance
+     */
+    public StubTransport withThrottleRate(double throttleRate) {
+        Validate.checkArgument(throttleRate >= 0 && throttleRate <= 1, "throttleRate must be between 0 and 1");
+
+        this.throttleRate = throttleRate;
+        return this;
+    }
+
+    /**
+     * @return The number of requests received
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String proxyHost, int proxyPort) throws InterruptedException {
+        Objects.requireNonNull(request, "request can not be null");
+        Objects.requireNonNull(bodyHandler, "bodyHandler can not be null");
+
+        var delay = delay();
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+
+        return respond(request, bodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String proxyHost, int proxyPort) {
+        Objects.requireNonNull(request, "request can not be null");
+        Objects.requireNonNull(bodyHandler, "bodyHandler can not be null");
+
+        var delay = delay();
+        if (delay > 0) {
+            return CompletableFuture.supplyAsync(() -> respond(request, bodyHandler), CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS));
+        }
+
+        return CompletableFuture.completedFuture(respond(request, bodyHandler));
+    }
+
+    private long delay() {
+        var maxJitter = jitter;
+        return latency + (maxJitter > 0 ? ThreadLocalRandom.current().nextLong(maxJitter + 1) : 0);
+    }
+
+    private <T> HttpResponse<T> respond(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        requests.increment();
+
+        var headers = new HashMap<String, List<String>>();
+        int responseStatus;
+        String responseBody;
+        if (throttleRate > 0 && ThreadLocalRandom.current().nextDouble() < throttleRate) {
+            responseStatus = TOO_MANY_REQUESTS;
+            responseBody = OVER_LIMIT;
+        } else if (consume(headers)) {
+            responseStatus = status;
+            responseBody = body != null ? body : "{\"status\":1,\"request\":\"" + UUID.randomUUID() + "\"}";
+        } else {
+            responseStatus = TOO_MANY_REQUESTS;
+            responseBody = OVER_LIMIT;
+        }
+
+        var responseHeaders = HttpHeaders.of(headers, (name, value) -> true);
+        var responseInfo = new ResponseInfo(responseStatus, responseHeaders);
+        var subscriber = bodyHandler.apply(responseInfo);
+        subscriber.onSubscribe(new Subscription(subscriber, responseBody.getBytes(StandardCharsets.UTF_8)));
+
+        return new Response<>(request, responseStatus, responseHeaders, subscriber.getBody().toCompletableFuture().join());
+    }
+
+    private synchronized boolean consume(Map<String, List<String>> headers) {
+        if (limit == 0) {
+            return true;
+        }
+
+        var now = System.currentTimeMillis();
+        if (now >= reset) {
+            remaining = limit;
+            reset = now + window;
+        }
+
+        var admitted = remaining > 0;
+        if (admitted) {
+            remaining--;
+        }
+
+        headers.put("X-Limit-App-Limit", List.of(String.valueOf(limit)));
+        headers.put("X-Limit-App-Remaining", List.of(String.valueOf(remaining)));
+        headers.put("X-Limit-App-Reset", List.of(String.valueOf(TimeUnit.MILLISECONDS.toSeconds(reset))));
+
+        return admitted;
+    }
+
+    private record ResponseInfo(int statusCode, HttpHeaders headers) implements HttpResponse.ResponseInfo {
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+
+    private record Response<T>(HttpRequest request, int statusCode, HttpHeaders headers, T body) implements HttpResponse<T> {
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+
+    private static final class Subscription implements Flow.Subscription {
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final HttpResponse.BodySubscriber<?> subscriber;
+        private final byte[] content;
+
+        private Subscription(HttpResponse.BodySubscriber<?> subscriber, byte[] content) {
+            this.subscriber = subscriber;
+            this.content = content;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n > 0 && done.compareAndSet(false, true)) {
+                subscriber.onNext(List.of(ByteBuffer.wrap(content)));
+                subscriber.onComplete();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            done.set(true);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package de.svenkubiak.jpushover.http;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the HTTP requests of all API calls. The default transport is the shared
+ * {@link HttpClientPool}; others can be set with {@link Transports#setDefault(Transport)},
+ * e.g. to redirect requests to another host or to answer them in memory.
+ */
+public interface Transport {
+
+    /**
+     * Sends a request and waits for the response
+     *
+     * @param request the request to send
+     * @param bodyHandler the response body handler
+     * @param proxyHost the host of the proxy or null for a direct connection
+     * @param proxyPort the port of the proxy
+     * @param <T> the response body type
+     *
+     * @return The HTTP response
+     * @throws IOException if an I/O error occurs when sending or receiving
+     * @throws InterruptedException if the operation is interrupted
+     */
+    <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String proxyHost, int proxyPort) throws IOException, InterruptedException;
+
+    /**
+     * Sends a request without blocking the calling thread
+     *
+     * @param request the request to send
+     * @param bodyHandler the response body handler
+     * @param proxyHost the host of the proxy or null for a direct connection
+     * @param proxyPort the port of the proxy
+     * @param <T> the response body type
+     *
+     * @return CompletableFuture which completes with the HTTP response
+     */
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, String proxyHost, int proxyPort);
+}
@@ -0,0 +1,40 @@
+package de.svenkubiak.jpushover.http;
+
+import java.util.Objects;
+
+/**
+ * Holds the transport used for all API calls
+ */
+public final class Transports {
+    private static volatile Transport transport = HttpClientPool.getInstance();
+
+    private Transports() {
+    }
+
+    /**
+     * Returns the transport used for all API calls; the shared HttpClientPool by default
+     *
+     * @return Transport instance
+     */
+    public static Transport getDefault() {
+        return transport;
+    }
+
+    /**
+     * Replaces the transport used for all API calls
+     *
+     * @param defaultTransport the Transport to use
+     */
+    public static void setDefault(Transport defaultTransport) {
+        Objects.requireNonNull(defaultTransport, "defaultTransport can not be null");
+
+        transport = defaultTransport;
+    }
+
+    /**
+     * Restores the shared HttpClientPool as transport for all API calls
+     */
+    public static void reset() {
+        transport = HttpClientPool.getInstance();
+    }
+}
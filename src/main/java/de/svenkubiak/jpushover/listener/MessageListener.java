@@ -1,6 +1,10 @@
 package de.svenkubiak.jpushover.listener;
 
-public interface MessageListener {
+/**
+ * Listener with the two callbacks of earlier versions: new messages are reported to
+ * onMessage, every other event which ends the connection to onError.
+ */
+public interface MessageListener extends OpenClientListener {
     /**
      * Called when a new message is available/new messages are available
      */
@@ -9,5 +13,26 @@ public interface MessageListener {
     /**
      * Called when the WebSocket ran into an error
      */
+    @Override
     void onError();
-}
\ No newline at end of file
+
+    @Override
+    default void onNewMessage() {
+        onMessage();
+    }
+
+    @Override
+    default void onReload() {
+        onError();
+    }
+
+    @Override
+    default void onSessionReplaced() {
+        onError();
+    }
+
+    @Override
+    default void onConnectionError(Throwable error) {
+        onError();
+    }
+}
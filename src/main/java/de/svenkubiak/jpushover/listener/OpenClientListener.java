@@ -0,0 +1,46 @@
+package de.svenkubiak.jpushover.listener;
+
+/**
+ * Receives the events of an Open Client WebSocket connection. All methods do nothing by
+ * default, so only the events of interest need to be implemented.
+ */
+public interface OpenClientListener {
+
+    /**
+     * Called when Pushover sent a keep-alive frame
+     */
+    default void onKeepAlive() {
+    }
+
+    /**
+     * Called when a new message is available/new messages are available
+     */
+    default void onNewMessage() {
+    }
+
+    /**
+     * Called when Pushover asked the client to reconnect
+     */
+    default void onReload() {
+    }
+
+    /**
+     * Called when Pushover reported a permanent error; a new login is required
+     */
+    default void onError() {
+    }
+
+    /**
+     * Called when another session logged in with the same device and this connection was closed
+     */
+    default void onSessionReplaced() {
+    }
+
+    /**
+     * Called when the WebSocket connection failed
+     *
+     * @param error the cause of the failure
+     */
+    default void onConnectionError(Throwable error) {
+    }
+}
@@ -0,0 +1,45 @@
+package de.svenkubiak.jpushover.listener;
+
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.Receipt;
+
+/**
+ * Receives state changes of receipts tracked by the ReceiptTracker. Methods are
+ * called on a shared thread and must not block; all methods do nothing by default.
+ */
+public interface ReceiptListener {
+
+    /**
+     * Called once when the emergency message was acknowledged
+     *
+     * @param receipt the state of the receipt
+     */
+    default void onAcknowledged(Receipt receipt) {
+    }
+
+    /**
+     * Called once when the callback URL of the emergency message was called
+     *
+     * @param receipt the state of the receipt
+     */
+    default void onCalledBack(Receipt receipt) {
+    }
+
+    /**
+     * Called once when the emergency message expired without acknowledgement
+     *
+     * @param receipt the state of the receipt
+     */
+    default void onExpired(Receipt receipt) {
+    }
+
+    /**
+     * Called when the receipts API rejected the receipt, e.g. because it is unknown;
+     * the receipt is no longer tracked
+     *
+     * @param receipt the receipt
+     * @param pushoverResponse the response of the receipts API
+     */
+    default void onFailure(String receipt, PushoverResponse pushoverResponse) {
+    }
+}
@@ -0,0 +1,15 @@
+package de.svenkubiak.jpushover.listener;
+
+import de.svenkubiak.jpushover.enums.SessionState;
+
+@FunctionalInterface
+public interface SessionListener {
+    /**
+     * Called when the state of an OpenClientSession changes. Called on a shared thread
+     * and must not block.
+     *
+     * @param previous the previous state
+     * @param current the new state
+     */
+    void onStateChange(SessionState previous, SessionState current);
+}
@@ -1,41 +1,66 @@
 package de.svenkubiak.jpushover.listener;
 
+import de.svenkubiak.jpushover.enums.FrameType;
+
 import java.net.http.WebSocket;
 import java.net.http.WebSocket.Listener;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import java.util.concurrent.CompletionStage;
 
+/**
+ * WebSocket listener which decodes the frames of the Pushover WebSocket server and passes
+ * them as typed events to an OpenClientListener. The frame type is read directly from the
+ * received buffer; a message split into several parts is reported once its last part arrived.
+ */
 public class WebSocketListener implements Listener {
-    private final MessageListener messageListener;
+    private final OpenClientListener listener;
+    private FrameType frameType;
+    private boolean started;
     
-    public WebSocketListener (MessageListener messageListener) {
-        Objects.requireNonNull(messageListener, "messageListener can not be null");
-        this.messageListener = messageListener;
+    public WebSocketListener (OpenClientListener listener) {
+        Objects.requireNonNull(listener, "listener can not be null");
+        this.listener = listener;
     }
 
     @Override
     public void onError(WebSocket webSocket, Throwable error) {
-        messageListener.onError();
+        listener.onConnectionError(error);
         Listener.super.onError(webSocket, error);
     }
     
     @Override
     public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
-        if (data != null) {
-            var frame = StandardCharsets.UTF_8.decode(data).toString();
-            switch (frame) {
-                case "!":
-                    messageListener.onMessage();
-                break;
-                case "E", "R", "A":
-                    messageListener.onError();
-                break;
-                default:
-            }   
+        if (!started && data != null && data.hasRemaining()) {
+            frameType = FrameType.of(data.get(data.position()));
+            started = true;
+        }
+
+        if (last) {
+            var frame = frameType;
+            frameType = null;
+            started = false;
+            if (frame != null) {
+                onFrame(webSocket, frame);
+            }
         }
         
         return Listener.super.onBinary(webSocket, data, last);
     }
-}
\ No newline at end of file
+
+    /**
+     * Called for every complete frame of a known type
+     *
+     * @param webSocket the WebSocket which received the frame
+     * @param frameType the type of the frame
+     */
+    protected void onFrame(WebSocket webSocket, FrameType frameType) {
+        switch (frameType) {
+            case KEEP_ALIVE -> listener.onKeepAlive();
+            case NEW_MESSAGE -> listener.onNewMessage();
+            case RELOAD -> listener.onReload();
+            case ERROR -> listener.onError();
+            case SESSION_REPLACED -> listener.onSessionReplaced();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package de.svenkubiak.jpushover.metrics;
+
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of positive values with a precision of two significant digits.
+ * Values below 128 are counted exactly, larger values in 64 sub-buckets per power of two,
+ * similar to HdrHistogram. Recording does not allocate.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKETS = 64;
+    private static final int LINEAR = SUB_BUCKETS * 2;
+    private static final long MAX_VALUE = (1L << 40) - 1;
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value; negative values are recorded as zero, values above 2^40 as 2^40
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        var clamped = Math.clamp(value, 0, MAX_VALUE);
+        counts.incrementAndGet(index(clamped));
+        count.increment();
+        sum.add(clamped);
+
+        var current = max.get();
+        while (clamped > current && !max.compareAndSet(current, clamped)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * @return The number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The mean of the recorded values or 0 if no value was recorded
+     */
+    public double getMean() {
+        var n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @return The largest recorded value
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile the percentile between 0 and 100
+     * @return The value below or equal to which the given percentage of values was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        Validate.checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+        var total = 0L;
+        for (var i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        var target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        var seen = 0L;
+        for (var i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    private static int index(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+
+        var shift = 63 - Long.numberOfLeadingZeros(value) - 6;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+
+        var shift = (index - LINEAR) / SUB_BUCKETS + 1;
+        var subBucket = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1L) << shift) - 1;
+    }
+}
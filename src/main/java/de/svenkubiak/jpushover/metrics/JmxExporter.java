@@ -0,0 +1,106 @@
+package de.svenkubiak.jpushover.metrics;
+
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Exports Metrics as MXBean to the platform MBeanServer
+ */
+public final class JmxExporter {
+    public static final String OBJECT_NAME = "de.svenkubiak.jpushover:type=Metrics";
+
+    private JmxExporter() {
+    }
+
+    /**
+     * Registers the given metrics, replacing previously registered metrics
+     *
+     * @param metrics the metrics to export
+     * @return The ObjectName of the registered MXBean
+     * @throws JPushoverException if the MXBean can not be registered
+     */
+    public static ObjectName register(Metrics metrics) throws JPushoverException {
+        Objects.requireNonNull(metrics, "metrics can not be null");
+
+        try {
+            var objectName = new ObjectName(OBJECT_NAME);
+            var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(new MetricsBean(metrics), objectName);
+
+            return objectName;
+        } catch (JMException e) {
+            throw new JPushoverException("Failed to register metrics MXBean", e);
+        }
+    }
+
+    /**
+     * Removes the registered metrics, if any
+     *
+     * @throws JPushoverException if the MXBean can not be unregistered
+     */
+    public static void unregister() throws JPushoverException {
+        try {
+            var objectName = new ObjectName(OBJECT_NAME);
+            var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new JPushoverException("Failed to unregister metrics MXBean", e);
+        }
+    }
+
+    private record MetricsBean(Metrics metrics) implements MetricsMXBean {
+        @Override
+        public long getSuccessful() {
+            return metrics.getSuccessful();
+        }
+
+        @Override
+        public long getFailures() {
+            return metrics.getFailures();
+        }
+
+        @Override
+        public long getRetries() {
+            return metrics.getRetries();
+        }
+
+        @Override
+        public long getRemaining() {
+            return metrics.getRemaining();
+        }
+
+        @Override
+        public int getQueueSize() {
+            return metrics.getQueueSize();
+        }
+
+        @Override
+        public int getRunning() {
+            return metrics.getRunning();
+        }
+
+        @Override
+        public Map<Integer, Long> getResponses() {
+            return metrics.getResponses();
+        }
+
+        @Override
+        public Map<String, Latency> getLatencies() {
+            var latencies = new LinkedHashMap<String, Latency>();
+            metrics.getLatencies().forEach((url, histogram) -> latencies.put(url, Latency.of(histogram)));
+
+            return latencies;
+        }
+    }
+}
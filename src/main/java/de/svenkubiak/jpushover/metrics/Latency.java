@@ -0,0 +1,63 @@
+package de.svenkubiak.jpushover.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of a latency histogram in milliseconds
+ */
+public final class Latency {
+    private static final double MICROS_PER_MILLI = 1000d;
+    private final long count;
+    private final double mean;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double max;
+
+    @ConstructorProperties({"count", "mean", "p50", "p90", "p99", "max"})
+    public Latency(long count, double mean, double p50, double p90, double p99, double max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    /**
+     * @param histogram a latency histogram in microseconds
+     * @return Latency instance
+     */
+    public static Latency of(Histogram histogram) {
+        return new Latency(histogram.getCount(),
+                histogram.getMean() / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getMax() / MICROS_PER_MILLI);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,169 @@
+package de.svenkubiak.jpushover.metrics;
+
+import de.svenkubiak.jpushover.services.AsyncService;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in MetricsRecorder keeping latency histograms per endpoint, response counters
+ * per HTTP status, failures, retries and the last seen remaining rate limit budget.
+ * Latencies are recorded in microseconds.
+ */
+public final class Metrics implements MetricsRecorder {
+    private static final int MAX_STATUS = 600;
+    private static final MetricsRecorder NOOP = new MetricsRecorder() { };
+    private static volatile MetricsRecorder recorder = NOOP;
+    private final ConcurrentMap<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final AtomicLongArray responses = new AtomicLongArray(MAX_STATUS);
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private volatile long remaining = -1;
+
+    private Metrics() {
+    }
+
+    /**
+     * Creates a new, empty Metrics instance
+     *
+     * @return Metrics instance
+     */
+    public static Metrics create() {
+        return new Metrics();
+    }
+
+    /**
+     * Returns the recorder used for all requests; records nothing by default
+     *
+     * @return MetricsRecorder instance
+     */
+    public static MetricsRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Replaces the recorder used for all requests
+     *
+     * @param metricsRecorder the MetricsRecorder to use
+     */
+    public static void setRecorder(MetricsRecorder metricsRecorder) {
+        Objects.requireNonNull(metricsRecorder, "metricsRecorder can not be null");
+
+        recorder = metricsRecorder;
+    }
+
+    @Override
+    public void onResponse(String url, int httpStatus, long nanos) {
+        responses.incrementAndGet(httpStatus > 0 && httpStatus < MAX_STATUS ? httpStatus : 0);
+        latency(url).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    @Override
+    public void onFailure(String url, long nanos) {
+        failures.increment();
+        latency(url).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    @Override
+    public void onRetry(String url) {
+        retries.increment();
+    }
+
+    @Override
+    public void onRemaining(String token, long remaining) {
+        this.remaining = remaining;
+    }
+
+    /**
+     * @param url the endpoint of the requests, e.g. a Url constant
+     * @return The latency histogram in microseconds or null if no request was sent to the endpoint
+     */
+    public Histogram getLatency(String url) {
+        Objects.requireNonNull(url, "url can not be null");
+
+        return latencies.get(url);
+    }
+
+    /**
+     * @return The latency histograms in microseconds by endpoint
+     */
+    public Map<String, Histogram> getLatencies() {
+        return new TreeMap<>(latencies);
+    }
+
+    /**
+     * @return The number of responses by HTTP status; status 0 counts responses with an unknown status
+     */
+    public Map<Integer, Long> getResponses() {
+        var result = new TreeMap<Integer, Long>();
+        for (var status = 0; status < MAX_STATUS; status++) {
+            var count = responses.get(status);
+            if (count > 0) {
+                result.put(status, count);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param httpStatus the HTTP status
+     * @return The number of responses with the given HTTP status
+     */
+    public long getResponses(int httpStatus) {
+        return httpStatus >= 0 && httpStatus < MAX_STATUS ? responses.get(httpStatus) : 0;
+    }
+
+    /**
+     * @return The number of responses with HTTP status 200
+     */
+    public long getSuccessful() {
+        return responses.get(200);
+    }
+
+    /**
+     * @return The number of requests which failed without a response
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return The number of retried requests
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * @return The last seen X-Limit-App-Remaining value or -1 if none was seen yet
+     */
+    public long getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * @return The number of pushes waiting in the queue of the shared AsyncService
+     */
+    public int getQueueSize() {
+        return AsyncService.getInstance().getQueueSize();
+    }
+
+    /**
+     * @return The number of pushes currently executed by the shared AsyncService
+     */
+    public int getRunning() {
+        return AsyncService.getInstance().getRunning();
+    }
+
+    private Histogram latency(String url) {
+        var histogram = latencies.get(url);
+        return histogram != null ? histogram : latencies.computeIfAbsent(url, key -> new Histogram());
+    }
+}
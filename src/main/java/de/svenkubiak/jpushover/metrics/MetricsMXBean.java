@@ -0,0 +1,24 @@
+package de.svenkubiak.jpushover.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the metrics exported by {@link JmxExporter}
+ */
+public interface MetricsMXBean {
+    long getSuccessful();
+
+    long getFailures();
+
+    long getRetries();
+
+    long getRemaining();
+
+    int getQueueSize();
+
+    int getRunning();
+
+    Map<Integer, Long> getResponses();
+
+    Map<String, Latency> getLatencies();
+}
@@ -0,0 +1,44 @@
+package de.svenkubiak.jpushover.metrics;
+
+/**
+ * Receives measurements of every HTTP request. Implementations are called on the
+ * sending thread and must not block; all methods do nothing by default.
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Called when a response was received
+     *
+     * @param url the endpoint of the request, the URL without query and ids, see Url#toEndpoint
+     * @param httpStatus the HTTP status of the response
+     * @param nanos the duration of the request in nanoseconds
+     */
+    default void onResponse(String url, int httpStatus, long nanos) {
+    }
+
+    /**
+     * Called when a request failed without a response, e.g. on a timeout
+     *
+     * @param url the endpoint of the request, the URL without query and ids, see Url#toEndpoint
+     * @param nanos the duration until the failure in nanoseconds
+     */
+    default void onFailure(String url, long nanos) {
+    }
+
+    /**
+     * Called when a request is sent again
+     *
+     * @param url the endpoint of the request, the URL without query and ids, see Url#toEndpoint
+     */
+    default void onRetry(String url) {
+    }
+
+    /**
+     * Called with the X-Limit-App-Remaining header of a response
+     *
+     * @param token the application token of the request
+     * @param remaining the number of remaining requests
+     */
+    default void onRemaining(String token, long remaining) {
+    }
+}
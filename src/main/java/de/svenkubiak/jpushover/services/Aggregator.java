@@ -0,0 +1,309 @@
+package de.svenkubiak.jpushover.services;
+
+import de.svenkubiak.jpushover.apis.Message;
+import de.svenkubiak.jpushover.enums.DigestFormat;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.enums.Priority;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+
+/**
+ * Buffers messages for the same token, user and device for a linger time and sends
+ * them as a single digest message. A digest is sent early once it would exceed the
+ * message limit of 1024 characters or the maximum number of messages. Digests use
+ * the highest priority of their messages; emergency messages are never buffered.
+ */
+public final class Aggregator {
+    private static final Duration DEFAULT_LINGER = Duration.ofSeconds(10);
+    private static final int DEFAULT_MAX_MESSAGES = 50;
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+    private static final int MAX_TITLE_LENGTH = 250;
+    private static final char SEPARATOR = '\u0000';
+    private final Map<String, Batch> batches = new HashMap<>();
+    private Function<Message, CompletableFuture<PushoverResponse>> sender = Aggregator::pushAsync;
+    private DigestFormat format = DigestFormat.HTML;
+    private Duration linger = DEFAULT_LINGER;
+    private int maxMessages = DEFAULT_MAX_MESSAGES;
+
+    private Aggregator() {
+    }
+
+    /**
+     * Creates a new Aggregator with a linger time of 10 seconds, HTML digests and
+     * at most 50 messages per digest
+     *
+     * @return Aggregator instance
+     */
+    public static Aggregator create() {
+        return new Aggregator();
+    }
+
+    /**
+     * Sets how long messages are buffered before the digest is sent
+     *
+     * @param linger the linger time
+     * @return Aggregator instance
+     */
+    public synchronized Aggregator withLinger(Duration linger) {
+        Objects.requireNonNull(linger, "linger can not be null");
+        Validate.checkArgument(!linger.isNegative() && !linger.isZero(), "linger must be positive");
+
+        this.linger = linger;
+        return this;
+    }
+
+    /**
+     * Sets whether digests are formatted with HTML or monospace. HTML digests escape
+     * titles and the text of plain messages, the text of HTML messages is kept as is
+     *
+     * @param format the format
+     * @return Aggregator instance
+     */
+    public synchronized Aggregator withFormat(DigestFormat format) {
+        Objects.requireNonNull(format, "format can not be null");
+
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of messages per digest
+     *
+     * @param maxMessages the maximum number of messages, must be greater than zero
+     * @return Aggregator instance
+     */
+    public synchronized Aggregator withMaxMessages(int maxMessages) {
+        Validate.checkArgument(maxMessages > 0, "maxMessages must be greater than zero");
+
+        this.maxMessages = maxMessages;
+        return this;
+    }
+
+    /**
+     * Sets how single messages and digests are sent. Defaults to {@link Message#pushAsync()}.
+     *
+     * @param sender the function sending a message
+     * @return Aggregator instance
+     */
+    public synchronized Aggregator withSender(Function<Message, CompletableFuture<PushoverResponse>> sender) {
+        Objects.requireNonNull(sender, "sender can not be null");
+
+        this.sender = sender;
+        return this;
+    }
+
+    /**
+     * Adds a message to the digest of its token, user and device
+     *
+     * @param message the message
+     * @return CompletableFuture which completes with the response of the digest containing the message
+     */
+    public CompletableFuture<PushoverResponse> push(Message message) {
+        Objects.requireNonNull(message, "message can not be null");
+        Objects.requireNonNull(message.getValue(Param.TOKEN), "Token is required for a message");
+        Objects.requireNonNull(message.getValue(Param.USER), "User is required for a message");
+        Objects.requireNonNull(message.getValue(Param.MESSAGE), "Message is required for a message");
+
+        var future = new CompletableFuture<PushoverResponse>();
+        Batch full = null;
+        Function<Message, CompletableFuture<PushoverResponse>> send;
+        synchronized (this) {
+            send = sender;
+            var entry = format(message);
+            if (Priority.EMERGENCY.toString().equals(message.getValue(Param.PRIORITY)) || entry.length() > MAX_MESSAGE_LENGTH) {
+                full = new Batch(null);
+                full.add(message.copy(), entry, future);
+            } else {
+                var key = key(message);
+                var batch = batches.get(key);
+                if (batch != null && (batch.length + 1 + entry.length() > MAX_MESSAGE_LENGTH || batch.messages.size() >= maxMessages)) {
+                    full = remove(key);
+                    batch = null;
+                }
+                if (batch == null) {
+                    batch = new Batch(key);
+                    batches.put(key, batch);
+                    var created = batch;
+                    batch.timer = SchedulerService.getInstance().schedule(() -> flush(created), linger);
+                }
+                batch.add(message.copy(), entry, future);
+            }
+        }
+
+        if (full != null) {
+            send(full, send);
+        }
+
+        return future;
+    }
+
+    /**
+     * Sends all buffered digests right away
+     */
+    public void flush() {
+        List<Batch> pending;
+        Function<Message, CompletableFuture<PushoverResponse>> send;
+        synchronized (this) {
+            send = sender;
+            pending = new ArrayList<>(batches.values());
+            pending.forEach(batch -> remove(batch.key));
+        }
+
+        pending.forEach(batch -> send(batch, send));
+    }
+
+    /**
+     * @return The number of buffered messages
+     */
+    public synchronized int size() {
+        return batches.values().stream().mapToInt(batch -> batch.messages.size()).sum();
+    }
+
+    private void flush(Batch batch) {
+        Function<Message, CompletableFuture<PushoverResponse>> send;
+        synchronized (this) {
+            if (batches.get(batch.key) != batch) {
+                return;
+            }
+            remove(batch.key);
+            send = sender;
+        }
+
+        send(batch, send);
+    }
+
+    private Batch remove(String key) {
+        var batch = batches.remove(key);
+        if (batch != null && batch.timer != null) {
+            batch.timer.cancel(false);
+        }
+
+        return batch;
+    }
+
+    private void send(Batch batch, Function<Message, CompletableFuture<PushoverResponse>> send) {
+        CompletableFuture<PushoverResponse> response;
+        try {
+            response = send.apply(batch.messages.size() == 1 ? batch.messages.getFirst() : digest(batch));
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((pushoverResponse, throwable) -> {
+            for (CompletableFuture<PushoverResponse> future : batch.futures) {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(pushoverResponse);
+                }
+            }
+        });
+    }
+
+    private Message digest(Batch batch) {
+        var first = batch.messages.getFirst();
+        var priority = priority(first);
+        String title = first.getValue(Param.TITLE);
+        for (Message message : batch.messages) {
+            var current = priority(message);
+            if (current.toInt() > priority.toInt()) {
+                priority = current;
+            }
+            if (title != null && !title.equals(message.getValue(Param.TITLE))) {
+                title = null;
+            }
+        }
+
+        var count = batch.messages.size();
+        title = title != null && title.length() + 8 <= MAX_TITLE_LENGTH ? title + " (" + count + ")" : count + " messages";
+
+        var digest = first.copy()
+                .withTitle(title)
+                .withMessage(String.join("\n", batch.entries))
+                .withPriority(priority);
+
+        return format == DigestFormat.HTML ? digest.enableHtml() : digest.enableMonospace();
+    }
+
+    private static Priority priority(Message message) {
+        var priority = Priority.fromString(message.getValue(Param.PRIORITY));
+        return priority != null ? priority : Priority.NORMAL;
+    }
+
+    private String format(Message message) {
+        var title = message.getValue(Param.TITLE);
+        var text = message.getValue(Param.MESSAGE);
+        if (format == DigestFormat.HTML) {
+            if (!"1".equals(message.getValue(Param.HTML))) {
+                text = escape(text);
+            }
+            return title != null ? "<b>" + escape(title) + "</b> " + text : text;
+        }
+
+        return title != null ? title + ": " + text : text;
+    }
+
+    private static String escape(String value) {
+        var builder = new StringBuilder(value.length());
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '&' -> builder.append("&amp;");
+                case '<' -> builder.append("&lt;");
+                case '>' -> builder.append("&gt;");
+                case '"' -> builder.append("&quot;");
+                default -> builder.append(c);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static String key(Message message) {
+        return message.getValue(Param.TOKEN) + SEPARATOR
+                + message.getValue(Param.USER) + SEPARATOR
+                + message.getValue(Param.DEVICE);
+    }
+
+    private static CompletableFuture<PushoverResponse> pushAsync(Message message) {
+        try {
+            return message.pushAsync();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        } catch (ExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static final class Batch {
+        private final String key;
+        private final List<Message> messages = new ArrayList<>();
+        private final List<String> entries = new ArrayList<>();
+        private final List<CompletableFuture<PushoverResponse>> futures = new ArrayList<>();
+        private ScheduledFuture<?> timer;
+        private int length = -1;
+
+        private Batch(String key) {
+            this.key = key;
+        }
+
+        private void add(Message message, String entry, CompletableFuture<PushoverResponse> future) {
+            messages.add(message);
+            entries.add(entry);
+            futures.add(future);
+            length += entry.length() + 1;
+        }
+    }
+}
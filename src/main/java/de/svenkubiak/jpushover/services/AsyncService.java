@@ -1,29 +1,631 @@
 package de.svenkubiak.jpushover.services;
 
+import de.svenkubiak.jpushover.enums.Backpressure;
+import de.svenkubiak.jpushover.enums.Priority;
+import de.svenkubiak.jpushover.exceptions.RateLimitException;
 import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.RateLimiter;
+import de.svenkubiak.jpushover.utils.Validate;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
+/**
+ * Executes pushes asynchronously with a limited number of concurrent requests.
+ * Tasks exceeding the limit wait in a bounded queue; once the queue is full the
+ * configured Backpressure applies, by default new tasks are rejected.
+ *
+ * Waiting tasks are queued per Priority. Emergency tasks are always executed first,
+ * the other priorities share the free slots by weight. A task waiting longer than
+ * the maximum queue time is executed next regardless of its priority, so low
+ * priorities do not starve. Optionally the last requests of the rate limit budget
+ * are reserved for emergency tasks.
+ */
 public class AsyncService<T> {
-    private static AsyncService<?> INSTANCE;
-    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
-    
-    @SuppressWarnings("rawtypes")
+    private static final int DEFAULT_MAX_CONCURRENCY = 64;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final Duration DEFAULT_MAX_QUEUE_TIME = Duration.ofSeconds(30);
+    private static final Priority[] BY_PRIORITY = {Priority.EMERGENCY, Priority.HIGH, Priority.NORMAL, Priority.LOW, Priority.LOWEST};
+    private static volatile AsyncService<?> instance;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final EnumMap<Priority, ArrayDeque<Task>> queues = new EnumMap<>(Priority.class);
+    private final EnumMap<Priority, Integer> weights = new EnumMap<>(Priority.class);
+    private final int[] credits = new int[Priority.values().length];
+    private final AtomicInteger draining = new AtomicInteger();
+    private ExecutorService executorService;
+    private Backpressure backpressure = Backpressure.REJECT;
+    private boolean ownsExecutor = true;
+    private boolean shutdown;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private long maxQueueTime = DEFAULT_MAX_QUEUE_TIME.toNanos();
+    private long emergencyReserve;
+    private int queued;
+    private int running;
+
+    public AsyncService() {
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+        weights.put(Priority.HIGH, 8);
+        weights.put(Priority.NORMAL, 4);
+        weights.put(Priority.LOW, 2);
+        weights.put(Priority.LOWEST, 1);
+    }
+
+    /**
+     * Returns the shared instance used by pushAsync()
+     *
+     * @return AsyncService instance
+     */
     public static AsyncService<?> getInstance() {
-        if (INSTANCE == null) {
-            INSTANCE = new AsyncService();
+        var current = instance;
+        if (current == null) {
+            synchronized (AsyncService.class) {
+                current = instance;
+                if (current == null) {
+                    current = new AsyncService<>();
+                    instance = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Replaces the shared instance used by pushAsync(); the previous instance is not shut down
+     *
+     * @param asyncService the AsyncService to use
+     */
+    public static void setInstance(AsyncService<?> asyncService) {
+        Objects.requireNonNull(asyncService, "asyncService can not be null");
+
+        synchronized (AsyncService.class) {
+            instance = asyncService;
+        }
+    }
+
+    /**
+     * Creates a new, independent AsyncService with default settings
+     *
+     * @return AsyncService instance
+     */
+    public static AsyncService<PushoverResponse> create() {
+        return new AsyncService<>();
+    }
+
+    /**
+     * Sets the maximum number of tasks executed at the same time
+     *
+     * @param maxConcurrency the maximum number of concurrent tasks, must be greater than zero
+     * @return AsyncService instance
+     */
+    public AsyncService<T> withMaxConcurrency(int maxConcurrency) {
+        Validate.checkArgument(maxConcurrency > 0, "maxConcurrency must be greater than zero");
+
+        lock.lock();
+        try {
+            this.maxConcurrency = maxConcurrency;
+        } finally {
+            lock.unlock();
+        }
+        drain();
+
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of tasks waiting for execution
+     *
+     * @param queueCapacity the capacity of the queue, must be greater than zero
+     * @return AsyncService instance
+     */
+    public AsyncService<T> withQueueCapacity(int queueCapacity) {
+        Validate.checkArgument(queueCapacity > 0, "queueCapacity must be greater than zero");
+
+        lock.lock();
+        try {
+            this.queueCapacity = queueCapacity;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets the behaviour when the queue is full: BLOCK waits for free space, blocking the
+     * calling thread, DROP_OLDEST cancels the oldest waiting task of the lowest priority and
+     * REJECT, the default, throws a RejectedExecutionException from execute() and fails the
+     * future returned by executeAsync()
+     *
+     * @param backpressure the backpressure to apply
+     * @return AsyncService instance
+     */
+    public AsyncService<T> withBackpressure(Backpressure backpressure) {
+        Objects.requireNonNull(backpressure, "backpressure can not be null");
+
+        lock.lock();
+        try {
+            this.backpressure = backpressure;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets the share of free slots for tasks of the given priority relative to the
+     * other priorities. Defaults to 8 for HIGH, 4 for NORMAL, 2 for LOW and 1 for LOWEST.
+     * Emergency tasks are always executed first.
+     *
+     * @param priority the priority, must not be EMERGENCY
+     * @param weight the weight, must be greater than zero
+     * @return AsyncService instance
+     */
+    public AsyncService<T> withWeight(Priority priority, int weight) {
+        Objects.requireNonNull(priority, "priority can not be null");
+        Validate.checkArgument(priority != Priority.EMERGENCY, "Emergency tasks are always executed first");
+        Validate.checkArgument(weight > 0, "weight must be greater than zero");
+
+        lock.lock();
+        try {
+            weights.put(priority, weight);
+        } finally {
+            lock.unlock();
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets the time after which a waiting task is executed next regardless of its priority
+     *
+     * @param maxQueueTime the maximum queue time
+     * @return AsyncService instance
+     */
+    public AsyncService<T> withMaxQueueTime(Duration maxQueueTime) {
+        Objects.requireNonNull(maxQueueTime, "maxQueueTime can not be null");
+        Validate.checkArgument(!maxQueueTime.isNegative(), "maxQueueTime can not be negative");
+
+        lock.lock();
+        try {
+            this.maxQueueTime = maxQueueTime.toNanos();
+        } finally {
+            lock.unlock();
+        }
+
+        return this;
+    }
+
+    /**
+     * Reserves the last requests of the rate limit budget of a token for emergency tasks.
+     * Other tasks fail with a RateLimitException once the remaining budget reported by
+     * the API is at or below the reserve. Disabled by default.
+     *
+     * @param emergencyReserve the number of reserved requests
+     * @return AsyncService instance
+     */
+    public AsyncService<T> withEmergencyReserve(long emergencyReserve) {
+        Validate.checkArgument(emergencyReserve >= 0, "emergencyReserve can not be negative");
+
+        lock.lock();
+        try {
+            this.emergencyReserve = emergencyReserve;
+        } finally {
+            lock.unlock();
         }
-        
-        return INSTANCE;
+
+        return this;
+    }
+
+    /**
+     * Sets the executor running the tasks. An executor passed here is not shut down
+     * by this service. Defaults to a virtual thread per task executor.
+     *
+     * @param executorService the executor to use
+     * @return AsyncService instance
+     */
+    public AsyncService<T> withExecutor(ExecutorService executorService) {
+        Objects.requireNonNull(executorService, "executorService can not be null");
+
+        lock.lock();
+        try {
+            Validate.checkArgument(this.executorService == null, "executor can not be changed once tasks have been executed");
+            this.executorService = executorService;
+            this.ownsExecutor = false;
+        } finally {
+            lock.unlock();
+        }
+
+        return this;
     }
-    
+
     public Future<PushoverResponse> execute(AsyncExecutor<PushoverResponse> asyncExecutor) {
-        return executorService.submit(asyncExecutor);
+        Objects.requireNonNull(asyncExecutor, "asyncExecutor can not be null");
+
+        var futureTask = new FutureTask<>(asyncExecutor);
+        enqueue(new Task(Priority.NORMAL, null) {
+            @Override
+            void start(Runnable onComplete) {
+                executor().execute(() -> {
+                    try {
+                        futureTask.run();
+                    } finally {
+                        onComplete.run();
+                    }
+                });
+            }
+
+            @Override
+            void cancel() {
+                futureTask.cancel(false);
+            }
+
+            @Override
+            void fail(Throwable throwable) {
+                futureTask.cancel(false);
+            }
+        });
+        drain();
+
+        return futureTask;
+    }
+
+    /**
+     * Executes a non-blocking push. The supplier is called once a slot is available
+     * and the slot is held until the returned future completes, without blocking a thread.
+     *
+     * @param push supplier starting the push
+     * @return CompletableFuture which completes with the result of the push
+     */
+    public CompletableFuture<PushoverResponse> executeAsync(Supplier<CompletableFuture<PushoverResponse>> push) {
+        return executeAsync(Priority.NORMAL, null, push);
+    }
+
+    /**
+     * Executes a non-blocking push with the given priority
+     *
+     * @param priority the priority of the push
+     * @param token the application token of the push, used for the emergency reserve; may be null
+     * @param push supplier starting the push
+     * @return CompletableFuture which completes with the result of the push or
+     * exceptionally with a RejectedExecutionException if the push was not queued
+     */
+    public CompletableFuture<PushoverResponse> executeAsync(Priority priority, String token, Supplier<CompletableFuture<PushoverResponse>> push) {
+        Objects.requireNonNull(priority, "priority can not be null");
+        Objects.requireNonNull(push, "push can not be null");
+
+        var result = new CompletableFuture<PushoverResponse>();
+        var task = new Task(priority, token) {
+            @Override
+            void start(Runnable onComplete) {
+                if (result.isDone()) {
+                    onComplete.run();
+                    return;
+                }
+
+                CompletableFuture<PushoverResponse> future;
+                try {
+                    future = push.get();
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+
+                future.whenComplete((response, throwable) -> {
+                    onComplete.run();
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(response);
+                    }
+                });
+            }
+
+            @Override
+            void cancel() {
+                result.cancel(false);
+            }
+
+            @Override
+            void fail(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        };
+
+        try {
+            enqueue(task);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        drain();
+
+        return result;
     }
-    
+
+    /**
+     * @return The number of tasks waiting for execution
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of tasks currently executed
+     */
+    public int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting new tasks; queued and running tasks are still executed
+     */
     public void shutdown() {
-        executorService.shutdown();
+        lock.lock();
+        try {
+            shutdown = true;
+            notFull.signalAll();
+            terminateIfDrained();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting new tasks and waits for queued and running tasks to complete.
+     * Tasks still waiting in the queue when the timeout elapses are cancelled.
+     *
+     * @param timeout the maximum time to wait
+     * @return true if all tasks completed within the timeout, false otherwise
+     */
+    public boolean shutdown(Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout can not be null");
+
+        shutdown();
+
+        lock.lock();
+        try {
+            var nanos = timeout.toNanos();
+            while (running > 0 || queued > 0) {
+                if (nanos <= 0) {
+                    for (ArrayDeque<Task> queue : queues.values()) {
+                        queue.forEach(Task::cancel);
+                        queue.clear();
+                    }
+                    queued = 0;
+                    return false;
+                }
+                nanos = drained.awaitNanos(nanos);
+            }
+
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(Task task) {
+        lock.lock();
+        try {
+            while (true) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("AsyncService has been shut down");
+                }
+
+                if (queued < queueCapacity) {
+                    queues.get(task.priority).add(task);
+                    queued++;
+                    return;
+                }
+
+                switch (backpressure) {
+                    case BLOCK -> notFull.await();
+                    case DROP_OLDEST -> {
+                        var dropped = dropOldest();
+                        if (dropped != null) {
+                            dropped.cancel();
+                        }
+                    }
+                    case REJECT -> throw new RejectedExecutionException("AsyncService queue is full");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for queue capacity", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain() {
+        if (draining.getAndIncrement() != 0) {
+            return;
+        }
+
+        var missed = 1;
+        do {
+            Task task;
+            while ((task = next()) != null) {
+                if (isReserved(task)) {
+                    task.fail(new RateLimitException("Remaining rate limit budget is reserved for emergency messages", 0));
+                    complete();
+                    continue;
+                }
+
+                try {
+                    task.start(this::complete);
+                } catch (RejectedExecutionException e) {
+                    task.cancel();
+                    complete();
+                }
+            }
+            missed = draining.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private Task next() {
+        lock.lock();
+        try {
+            if (running >= maxConcurrency || queued == 0) {
+                return null;
+            }
+            running++;
+            queued--;
+            notFull.signal();
+
+            return queues.get(select()).poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Selects the queue of the next task: emergency first, then the oldest task waiting
+     * longer than the maximum queue time, then smooth weighted round robin
+     */
+    private Priority select() {
+        if (!queues.get(Priority.EMERGENCY).isEmpty()) {
+            return Priority.EMERGENCY;
+        }
+
+        var now = System.nanoTime();
+        Priority aged = null;
+        long oldest = Long.MAX_VALUE;
+        for (Priority priority : BY_PRIORITY) {
+            var head = queues.get(priority).peek();
+            if (head != null && now - head.enqueued >= maxQueueTime && head.enqueued < oldest) {
+                aged = priority;
+                oldest = head.enqueued;
+            }
+        }
+        if (aged != null) {
+            return aged;
+        }
+
+        Priority selected = null;
+        var total = 0;
+        for (Priority priority : BY_PRIORITY) {
+            if (priority != Priority.EMERGENCY && !queues.get(priority).isEmpty()) {
+                var weight = weights.get(priority);
+                credits[priority.ordinal()] += weight;
+                total += weight;
+                if (selected == null || credits[priority.ordinal()] > credits[selected.ordinal()]) {
+                    selected = priority;
+                }
+            }
+        }
+        credits[selected.ordinal()] -= total;
+
+        return selected;
+    }
+
+    private Task dropOldest() {
+        for (var i = BY_PRIORITY.length - 1; i >= 0; i--) {
+            var dropped = queues.get(BY_PRIORITY[i]).poll();
+            if (dropped != null) {
+                queued--;
+                return dropped;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isReserved(Task task) {
+        if (task.priority == Priority.EMERGENCY || task.token == null) {
+            return false;
+        }
+
+        long reserve;
+        lock.lock();
+        try {
+            reserve = emergencyReserve;
+        } finally {
+            lock.unlock();
+        }
+
+        var remaining = reserve > 0 ? RateLimiter.getInstance().getRemaining(task.token) : -1;
+        return remaining >= 0 && remaining <= reserve;
+    }
+
+    private void complete() {
+        lock.lock();
+        try {
+            running--;
+            terminateIfDrained();
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    private void terminateIfDrained() {
+        if (shutdown && running == 0 && queued == 0) {
+            drained.signalAll();
+            if (ownsExecutor && executorService != null) {
+                executorService.shutdown();
+            }
+        }
+    }
+
+    private ExecutorService executor() {
+        lock.lock();
+        try {
+            if (executorService == null) {
+                executorService = Executors.newVirtualThreadPerTaskExecutor();
+            }
+
+            return executorService;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private abstract static class Task {
+        private final Priority priority;
+        private final String token;
+        private final long enqueued = System.nanoTime();
+
+        private Task(Priority priority, String token) {
+            this.priority = priority;
+            this.token = token;
+        }
+
+        abstract void start(Runnable onComplete);
+
+        abstract void cancel();
+
+        abstract void fail(Throwable throwable);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,245 @@
+package de.svenkubiak.jpushover.services;
+
+import de.svenkubiak.jpushover.apis.Message;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Suppresses identical messages within a window. The window of a key starts when a
+ * message is sent and is not extended by suppressed duplicates, so a continuous stream
+ * of duplicates still sends one message per window. Keys are kept in a bounded cache in
+ * the order their windows started, evicting keys whose window has closed and, once the
+ * cache is full, the key with the oldest window.
+ *
+ * If summaries are enabled, a message "N similar alerts suppressed" is sent with
+ * pushAsync() when the window of a key with suppressed messages closes.
+ */
+public final class Deduplicator {
+    private static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+    private static final char SEPARATOR = '\u0000';
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+    private Function<Message, String> key = Deduplicator::defaultKey;
+    private long window = DEFAULT_WINDOW.toNanos();
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private boolean summary;
+
+    private Deduplicator() {
+    }
+
+    /**
+     * Creates a new Deduplicator with a window of one minute for up to 10,000 keys
+     *
+     * @return Deduplicator instance
+     */
+    public static Deduplicator create() {
+        return new Deduplicator();
+    }
+
+    /**
+     * Sets the function computing the key of a message; messages with equal keys are
+     * duplicates. Defaults to token, user, device, title and message.
+     *
+     * @param key the key function
+     * @return Deduplicator instance
+     */
+    public synchronized Deduplicator withKey(Function<Message, String> key) {
+        Objects.requireNonNull(key, "key can not be null");
+
+        this.key = key;
+        return this;
+    }
+
+    /**
+     * Sets the time after a sent message during which messages with the same key are suppressed
+     *
+     * @param window the window
+     * @return Deduplicator instance
+     */
+    public synchronized Deduplicator withWindow(Duration window) {
+        Objects.requireNonNull(window, "window can not be null");
+        Validate.checkArgument(!window.isNegative() && !window.isZero(), "window must be positive");
+
+        this.window = window.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of keys kept in the cache
+     *
+     * @param maxSize the maximum number of keys, must be greater than zero
+     * @return Deduplicator instance
+     */
+    public synchronized Deduplicator withMaxSize(int maxSize) {
+        Validate.checkArgument(maxSize > 0, "maxSize must be greater than zero");
+
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Sends a summary with the number of suppressed messages when a window closes
+     *
+     * @param summary true to send summaries, false otherwise
+     * @return Deduplicator instance
+     */
+    public synchronized Deduplicator withSummary(boolean summary) {
+        this.summary = summary;
+        return this;
+    }
+
+    /**
+     * Sends the message unless it is a duplicate. If the message is not sent successfully,
+     * its key is released again, so the next message with the same key is sent.
+     *
+     * @param message the message to send
+     * @return The PushoverResponse or empty if the message was suppressed
+     * @throws JPushoverException on failure
+     */
+    public Optional<PushoverResponse> push(Message message) throws JPushoverException {
+        var current = open(message);
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        try {
+            var pushoverResponse = message.push();
+            if (!pushoverResponse.isSuccessful()) {
+                release(current);
+            }
+
+            return Optional.of(pushoverResponse);
+        } catch (JPushoverException | RuntimeException e) {
+            release(current);
+            throw e;
+        }
+    }
+
+    /**
+     * Records the message and decides whether it is sent
+     *
+     * @param message the message
+     * @return true if the message is not a duplicate and should be sent, false otherwise
+     */
+    public boolean admit(Message message) {
+        return open(message) != null;
+    }
+
+    /**
+     * @return The number of keys in the cache
+     */
+    public synchronized int size() {
+        return windows.size();
+    }
+
+    private synchronized Window open(Message message) {
+        Objects.requireNonNull(message, "message can not be null");
+
+        var now = System.nanoTime();
+        evictExpired(now);
+
+        var messageKey = key.apply(message);
+        var current = windows.get(messageKey);
+        if (current != null && now - current.start < window) {
+            current.suppressed++;
+            if (summary) {
+                current.message = message.copy();
+                if (current.suppressed == 1) {
+                    schedule(current, current.start + window - now);
+                }
+            }
+
+            return null;
+        }
+
+        var opened = new Window(messageKey, now);
+        windows.remove(messageKey);
+        windows.put(messageKey, opened);
+        if (windows.size() > maxSize) {
+            var eldest = windows.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+
+        return opened;
+    }
+
+    private synchronized void release(Window current) {
+        if (windows.get(current.key) == current) {
+            windows.remove(current.key);
+        }
+    }
+
+    private void evictExpired(long now) {
+        var iterator = windows.values().iterator();
+        while (iterator.hasNext()) {
+            var next = iterator.next();
+            if (now - next.start < window) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private void schedule(Window current, long delay) {
+        SchedulerService.getInstance().schedule(() -> close(current), Duration.ofNanos(Math.max(0, delay)));
+    }
+
+    private void close(Window current) {
+        Message message;
+        int suppressed;
+        synchronized (this) {
+            release(current);
+            message = current.message;
+            suppressed = current.suppressed;
+        }
+
+        try {
+            message.copy()
+                .withMessage(summaryText(message.getValue(Param.MESSAGE), suppressed))
+                .pushAsync();
+        } catch (Exception e) {
+            // a failed summary is reported through the returned future and the metrics
+        }
+    }
+
+    private static String summaryText(String message, int suppressed) {
+        var suffix = "\n\n" + suppressed + " similar alert" + (suppressed == 1 ? "" : "s") + " suppressed";
+        var text = message == null ? "" : message;
+        if (text.length() + suffix.length() > MAX_MESSAGE_LENGTH) {
+            text = text.substring(0, MAX_MESSAGE_LENGTH - suffix.length());
+        }
+
+        return text + suffix;
+    }
+
+    private static String defaultKey(Message message) {
+        return message.getValue(Param.TOKEN) + SEPARATOR
+                + message.getValue(Param.USER) + SEPARATOR
+                + message.getValue(Param.DEVICE) + SEPARATOR
+                + message.getValue(Param.TITLE) + SEPARATOR
+                + message.getValue(Param.MESSAGE);
+    }
+
+    private static final class Window {
+        private final String key;
+        private final long start;
+        private int suppressed;
+        private Message message;
+
+        private Window(String key, long start) {
+            this.key = key;
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package de.svenkubiak.jpushover.services;
+
+import de.svenkubiak.jpushover.apis.Glance;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.RetryPolicy;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+
+/**
+ * Publishes glances as state rather than as events. Updates for the same token, user and
+ * device are merged into a single slot, field by field, where the latest value of each
+ * field wins. A slot is sent at most once per interval: the first update is sent right
+ * away, later updates once the interval since the previous send has passed, so no value
+ * is older than the interval when it is sent. A send is skipped if no field differs from
+ * the values last sent successfully.
+ *
+ * If a send fails with an exception, HTTP status 5xx or 429, its values are merged back
+ * into the slot, without replacing newer values, and sent again after the interval.
+ * Slots without pending updates are removed once the interval since their last send
+ * has passed.
+ */
+public final class GlancePublisher {
+    private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+    private static final Set<Param> FIELDS = EnumSet.of(Param.TITLE, Param.TEXT, Param.SUBTEXT, Param.COUNT, Param.PERCENT);
+    private static final char SEPARATOR = '\u0000';
+    private final Map<String, Slot> slots = new HashMap<>();
+    private Function<Glance, CompletableFuture<PushoverResponse>> sender = Glance::pushAsync;
+    private long interval = DEFAULT_INTERVAL.toNanos();
+
+    private GlancePublisher() {
+    }
+
+    /**
+     * Creates a new GlancePublisher which sends each slot at most every 10 seconds
+     *
+     * @return GlancePublisher instance
+     */
+    public static GlancePublisher create() {
+        return new GlancePublisher();
+    }
+
+    /**
+     * Sets the minimum time between two sends of the same slot
+     *
+     * @param interval the interval
+     * @return GlancePublisher instance
+     */
+    public synchronized GlancePublisher withInterval(Duration interval) {
+        Objects.requireNonNull(interval, "interval can not be null");
+        Validate.checkArgument(!interval.isNegative() && !interval.isZero(), "interval must be positive");
+
+        this.interval = interval.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets how glances are sent. Defaults to {@link Glance#pushAsync()}.
+     *
+     * @param sender the function sending a glance
+     * @return GlancePublisher instance
+     */
+    public synchronized GlancePublisher withSender(Function<Glance, CompletableFuture<PushoverResponse>> sender) {
+        Objects.requireNonNull(sender, "sender can not be null");
+
+        this.sender = sender;
+        return this;
+    }
+
+    /**
+     * Merges the fields set on the glance into the slot of its token, user and device
+     *
+     * @param glance the glance
+     * @return CompletableFuture which completes with the response of the send carrying the update
+     * or with null if the send was skipped because nothing changed
+     */
+    public CompletableFuture<PushoverResponse> publish(Glance glance) {
+        Objects.requireNonNull(glance, "glance can not be null");
+        Objects.requireNonNull(glance.getValue(Param.TOKEN), "Token is required for a glance");
+        Objects.requireNonNull(glance.getValue(Param.USER), "User is required for a glance");
+
+        var future = new CompletableFuture<PushoverResponse>();
+        synchronized (this) {
+            var slot = slots.computeIfAbsent(key(glance), Slot::new);
+            slot.latest = glance.copy();
+            for (Param param : FIELDS) {
+                var value = glance.getValue(param);
+                if (value != null) {
+                    slot.pending.put(param, value);
+                }
+            }
+            slot.futures.add(future);
+
+            if (slot.timer == null && !slot.inFlight) {
+                var delay = slot.sent ? Math.max(0, slot.lastSent + interval - System.nanoTime()) : 0;
+                slot.timer = SchedulerService.getInstance().schedule(() -> flush(slot), Duration.ofNanos(delay));
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Sends all pending updates right away, regardless of the interval
+     */
+    public void flush() {
+        List<Slot> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(slots.values());
+        }
+
+        pending.forEach(this::flush);
+    }
+
+    /**
+     * @return The number of slots with updates waiting to be sent
+     */
+    public synchronized int size() {
+        return (int) slots.values().stream().filter(Slot::hasUpdates).count();
+    }
+
+    private void flush(Slot slot) {
+        List<CompletableFuture<PushoverResponse>> futures;
+        EnumMap<Param, String> values;
+        Glance glance = null;
+        Function<Glance, CompletableFuture<PushoverResponse>> send;
+        synchronized (this) {
+            if (slot.timer != null) {
+                slot.timer.cancel(false);
+                slot.timer = null;
+            }
+            if (slot.inFlight) {
+                return;
+            }
+            if (!slot.hasUpdates()) {
+                idle(slot);
+                return;
+            }
+
+            futures = slot.futures;
+            values = slot.pending;
+            slot.futures = new ArrayList<>();
+            slot.pending = new EnumMap<>(Param.class);
+            send = sender;
+
+            if (!values.entrySet().stream().allMatch(entry -> entry.getValue().equals(slot.values.get(entry.getKey())))) {
+                var merged = slot.latest.copy();
+                values.forEach((param, value) -> apply(merged, param, value));
+                glance = merged;
+                slot.inFlight = true;
+                slot.sent = true;
+                slot.lastSent = System.nanoTime();
+            } else {
+                idle(slot);
+            }
+        }
+
+        if (glance == null) {
+            futures.forEach(future -> future.complete(null));
+            return;
+        }
+
+        CompletableFuture<PushoverResponse> response;
+        try {
+            response = send.apply(glance);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((pushoverResponse, throwable) -> {
+            var successful = throwable == null && pushoverResponse != null && pushoverResponse.isSuccessful();
+            var retry = throwable != null || (pushoverResponse != null && RetryPolicy.getInstance().isRetryable(pushoverResponse));
+            sent(slot, values, successful, retry);
+            for (CompletableFuture<PushoverResponse> future : futures) {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(pushoverResponse);
+                }
+            }
+        });
+    }
+
+    private synchronized void sent(Slot slot, Map<Param, String> values, boolean successful, boolean retry) {
+        slot.inFlight = false;
+        if (successful) {
+            slot.values.putAll(values);
+        } else if (retry) {
+            values.forEach(slot.pending::putIfAbsent);
+        }
+        if (slot.timer == null) {
+            var delay = Math.max(0, slot.lastSent + interval - System.nanoTime());
+            slot.timer = SchedulerService.getInstance().schedule(() -> flush(slot), Duration.ofNanos(delay));
+        }
+    }
+
+    private void idle(Slot slot) {
+        var remaining = slot.sent ? slot.lastSent + interval - System.nanoTime() : 0;
+        if (remaining > 0) {
+            slot.timer = SchedulerService.getInstance().schedule(() -> flush(slot), Duration.ofNanos(remaining));
+        } else {
+            slots.remove(slot.key, slot);
+        }
+    }
+
+    private static void apply(Glance glance, Param param, String value) {
+        switch (param) {
+            case TITLE -> glance.withTitle(value);
+            case TEXT -> glance.withText(value);
+            case SUBTEXT -> glance.withSubtext(value);
+            case COUNT -> glance.withCount(Integer.parseInt(value));
+            case PERCENT -> glance.withPercent(Integer.parseInt(value));
+            default -> {
+                // not a field of the glance
+            }
+        }
+    }
+
+    private static String key(Glance glance) {
+        return glance.getValue(Param.TOKEN) + SEPARATOR
+                + glance.getValue(Param.USER) + SEPARATOR
+                + glance.getValue(Param.DEVICE);
+    }
+
+    private static final class Slot {
+        private final String key;
+        private final EnumMap<Param, String> values = new EnumMap<>(Param.class);
+        private EnumMap<Param, String> pending = new EnumMap<>(Param.class);
+        private List<CompletableFuture<PushoverResponse>> futures = new ArrayList<>();
+        private ScheduledFuture<?> timer;
+        private Glance latest;
+        private boolean inFlight;
+        private boolean sent;
+        private long lastSent;
+
+        private Slot(String key) {
+            this.key = key;
+        }
+
+        private boolean hasUpdates() {
+            return !futures.isEmpty() || !pending.isEmpty();
+        }
+    }
+}
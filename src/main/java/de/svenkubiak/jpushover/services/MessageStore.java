@@ -0,0 +1,257 @@
+package de.svenkubiak.jpushover.services;
+
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.PushoverMessage;
+import de.svenkubiak.jpushover.utils.JsonReader;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only local store of messages received with the Open Client API. Messages are
+ * written to a single log file and indexed by message id in memory; the message bodies
+ * stay on disk and are read on demand. Each message id is stored once.
+ *
+ * Record layout: payload length (4 bytes), message id (8 bytes), CRC32C of the payload
+ * (4 bytes), payload. A partially written record at the end of the log is truncated
+ * when the store is opened.
+ */
+public final class MessageStore implements AutoCloseable {
+    private static final String FILE_NAME = "messages.log";
+    private static final int HEADER_SIZE = 16;
+    private final TreeMap<Long, Long> index = new TreeMap<>();
+    private final Path directory;
+    private FileChannel channel;
+    private boolean fsync;
+    private long size;
+
+    private MessageStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new store keeping its log in the given directory
+     *
+     * @param directory the directory of the log file
+     * @return MessageStore instance
+     */
+    public static MessageStore create(Path directory) {
+        Objects.requireNonNull(directory, "directory can not be null");
+
+        return new MessageStore(directory);
+    }
+
+    /**
+     * Forces every append to the storage device. Disabled by default: appends then only
+     * survive a crash of the process, not of the operating system.
+     *
+     * @param fsync true to force every append to disk
+     * @return MessageStore instance
+     */
+    public synchronized MessageStore withFsync(boolean fsync) {
+        this.fsync = fsync;
+        return this;
+    }
+
+    /**
+     * Opens the store and indexes the existing messages
+     *
+     * @return MessageStore instance
+     * @throws JPushoverException if the log can not be read
+     */
+    public synchronized MessageStore open() throws JPushoverException {
+        Validate.checkArgument(channel == null, "MessageStore is already open");
+
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(directory.resolve(FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            load();
+        } catch (IOException e) {
+            throw new JPushoverException("Failed to open message store", e);
+        }
+
+        return this;
+    }
+
+    /**
+     * Appends a message unless a message with the same id is already stored
+     *
+     * @param pushoverMessage the message
+     * @return true if the message was appended, false if it was already stored
+     * @throws JPushoverException if the message can not be written
+     */
+    public synchronized boolean append(PushoverMessage pushoverMessage) throws JPushoverException {
+        Objects.requireNonNull(pushoverMessage, "pushoverMessage can not be null");
+        checkOpen();
+
+        if (index.containsKey(pushoverMessage.getId())) {
+            return false;
+        }
+
+        var payload = pushoverMessage.toJson();
+        var crc = new CRC32C();
+        crc.update(payload);
+        var record = ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putLong(pushoverMessage.getId())
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+
+        try {
+            var offset = size;
+            while (record.hasRemaining()) {
+                channel.write(record, offset + record.position());
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            size += record.limit();
+            index.put(pushoverMessage.getId(), offset);
+        } catch (IOException e) {
+            throw new JPushoverException("Failed to append message", e);
+        }
+
+        return true;
+    }
+
+    /**
+     * @param id the message id
+     * @return The message with the given id or empty if it is not stored
+     * @throws JPushoverException if the message can not be read
+     */
+    public synchronized Optional<PushoverMessage> get(long id) throws JPushoverException {
+        checkOpen();
+
+        var offset = index.get(id);
+        if (offset == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(read(offset));
+        } catch (IOException e) {
+            throw new JPushoverException("Failed to read message", e);
+        }
+    }
+
+    /**
+     * Reads all messages with an id greater than the given id in ascending order of their ids
+     *
+     * @param id the id after which messages are read, -1 for all messages
+     * @param consumer the consumer of the messages
+     * @throws JPushoverException if a message can not be read
+     */
+    public synchronized void forEachAfter(long id, Consumer<PushoverMessage> consumer) throws JPushoverException {
+        Objects.requireNonNull(consumer, "consumer can not be null");
+        checkOpen();
+
+        try {
+            for (Map.Entry<Long, Long> entry : index.tailMap(id, false).entrySet()) {
+                consumer.accept(read(entry.getValue()));
+            }
+        } catch (IOException e) {
+            throw new JPushoverException("Failed to read message", e);
+        }
+    }
+
+    /**
+     * @param id the message id
+     * @return true if a message with the given id is stored, false otherwise
+     */
+    public synchronized boolean contains(long id) {
+        return index.containsKey(id);
+    }
+
+    /**
+     * @return The highest stored message id or -1 if the store is empty
+     */
+    public synchronized long getHighestId() {
+        return index.isEmpty() ? -1 : index.lastKey();
+    }
+
+    /**
+     * @return The number of stored messages
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing to do, the store is no longer used
+            }
+            channel = null;
+            index.clear();
+        }
+    }
+
+    private void checkOpen() throws JPushoverException {
+        if (channel == null) {
+            throw new JPushoverException("MessageStore is not open");
+        }
+    }
+
+    private void load() throws IOException {
+        var length = channel.size();
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        var offset = 0L;
+        while (offset + HEADER_SIZE <= length) {
+            header.clear();
+            readFully(header, offset);
+            var payloadLength = header.getInt(0);
+            if (payloadLength < 0 || offset + HEADER_SIZE + payloadLength > length) {
+                break;
+            }
+
+            var payload = ByteBuffer.allocate(payloadLength);
+            readFully(payload, offset + HEADER_SIZE);
+            var crc = new CRC32C();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(12)) {
+                break;
+            }
+
+            index.putIfAbsent(header.getLong(4), offset);
+            offset += HEADER_SIZE + payloadLength;
+        }
+
+        if (offset < length) {
+            channel.truncate(offset);
+        }
+        size = offset;
+    }
+
+    private PushoverMessage read(long offset) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, offset);
+        var payload = ByteBuffer.allocate(header.getInt(0));
+        readFully(payload, offset + HEADER_SIZE);
+
+        return PushoverMessage.of(JsonReader.of(new String(payload.array(), StandardCharsets.UTF_8)));
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of message store");
+            }
+        }
+    }
+}
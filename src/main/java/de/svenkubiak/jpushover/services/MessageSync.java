@@ -0,0 +1,265 @@
+package de.svenkubiak.jpushover.services;
+
+import de.svenkubiak.jpushover.enums.Url;
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.PushoverMessage;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.Transports;
+import de.svenkubiak.jpushover.listener.MessageListener;
+import de.svenkubiak.jpushover.utils.JsonStreamReader;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Incremental message sync for the Open Client API. Used as MessageListener of an
+ * OpenClientSession, pending messages are only fetched when the WebSocket announces
+ * new messages. Every message is appended to the MessageStore and passed to the
+ * consumer once, even if it is fetched again before it was deleted on the server.
+ *
+ * Deleting the fetched messages on the server is debounced: the highest received
+ * message id is sent with a single update_highest_message request once no new
+ * messages arrived for the acknowledge delay.
+ *
+ * The response is parsed while it is read, on a virtual thread, so memory use does not
+ * grow with the number of pending messages.
+ */
+public final class MessageSync implements MessageListener {
+    private static final Duration DEFAULT_ACK_DELAY = Duration.ofSeconds(2);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Executor READER = task -> Thread.ofVirtual().name("jpushover-message-sync").start(task);
+    private final String secret;
+    private final String deviceId;
+    private final MessageStore messageStore;
+    private final Consumer<PushoverMessage> consumer;
+    private Duration ackDelay = DEFAULT_ACK_DELAY;
+    private ScheduledFuture<?> ackTimer;
+    private CompletableFuture<Integer> next;
+    private boolean fetching;
+    private long received = -1;
+    private long acknowledged = -1;
+
+    private MessageSync(String secret, String deviceId, MessageStore messageStore, Consumer<PushoverMessage> consumer) {
+        this.secret = secret;
+        this.deviceId = deviceId;
+        this.messageStore = messageStore;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Creates a new sync for the given device
+     *
+     * @param secret Your Pushover secret retrieved after login
+     * @param deviceId The deviceId from whom to get the messages
+     * @param messageStore the opened store receiving the messages
+     * @param consumer the consumer called once for every new message, in order of the message ids
+     *
+     * @return MessageSync instance
+     */
+    public static MessageSync create(String secret, String deviceId, MessageStore messageStore, Consumer<PushoverMessage> consumer) {
+        Objects.requireNonNull(secret, "secret can not be null");
+        Objects.requireNonNull(deviceId, "deviceId can not be null");
+        Objects.requireNonNull(messageStore, "messageStore can not be null");
+        Objects.requireNonNull(consumer, "consumer can not be null");
+
+        return new MessageSync(secret, deviceId, messageStore, consumer);
+    }
+
+    /**
+     * Sets the time without new messages after which received messages are deleted on the server
+     *
+     * @param ackDelay the acknowledge delay
+     * @return MessageSync instance
+     */
+    public synchronized MessageSync withAckDelay(Duration ackDelay) {
+        Objects.requireNonNull(ackDelay, "ackDelay can not be null");
+        Validate.checkArgument(!ackDelay.isNegative(), "ackDelay can not be negative");
+
+        this.ackDelay = ackDelay;
+        return this;
+    }
+
+    /**
+     * Fetches new messages
+     */
+    @Override
+    public void onMessage() {
+        sync();
+    }
+
+    /**
+     * Does nothing; connection errors are handled by the OpenClientSession
+     */
+    @Override
+    public void onError() {
+        // nothing to fetch
+    }
+
+    /**
+     * Fetches the pending messages of the device. While a fetch is in flight, further
+     * calls are coalesced into a single follow-up fetch.
+     *
+     * @return CompletableFuture which completes with the number of new messages
+     */
+    public CompletableFuture<Integer> sync() {
+        synchronized (this) {
+            if (fetching) {
+                if (next == null) {
+                    next = new CompletableFuture<>();
+                }
+                return next;
+            }
+            fetching = true;
+        }
+
+        return fetch().whenComplete((count, throwable) -> fetched());
+    }
+
+    /**
+     * Deletes all received messages on the server right away
+     *
+     * @return CompletableFuture which completes with the response or with null if there was nothing to delete
+     */
+    public CompletableFuture<PushoverResponse> flush() {
+        long id;
+        synchronized (this) {
+            if (ackTimer != null) {
+                ackTimer.cancel(false);
+                ackTimer = null;
+            }
+            if (received <= acknowledged) {
+                return CompletableFuture.completedFuture(null);
+            }
+            id = received;
+        }
+
+        var body = "secret=" + encode(secret) + "&message=" + id;
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(Url.DELETE.toString().replace("###DEVICE_ID###", encode(deviceId))))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        return Transports.getDefault()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofString(), null, 0)
+                .thenApply(response -> {
+                    var pushoverResponse = PushoverResponse.create()
+                            .httpStatus(response.statusCode())
+                            .response(response.body())
+                            .isSuccessful(response.statusCode() == 200);
+                    if (pushoverResponse.isSuccessful()) {
+                        synchronized (this) {
+                            acknowledged = Math.max(acknowledged, id);
+                        }
+                    }
+
+                    return pushoverResponse;
+                });
+    }
+
+    /**
+     * @return The highest message id deleted on the server or -1 if none was deleted yet
+     */
+    public synchronized long getAcknowledgedId() {
+        return acknowledged;
+    }
+
+    private CompletableFuture<Integer> fetch() {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(Url.MESSAGES.toString() + "?secret=" + encode(secret) + "&device_id=" + encode(deviceId)))
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+
+        return Transports.getDefault()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofInputStream(), null, 0)
+                .thenApplyAsync(response -> {
+                    try (InputStream body = response.body()) {
+                        if (response.statusCode() != 200) {
+                            throw new CompletionException(new JPushoverException("Failed to get messages, HTTP status " + response.statusCode()));
+                        }
+
+                        return store(JsonStreamReader.of(body));
+                    } catch (IOException e) {
+                        throw new CompletionException(new JPushoverException("Failed to read messages", e));
+                    }
+                }, READER);
+    }
+
+    private int store(JsonStreamReader jsonStreamReader) throws IOException {
+        var count = new int[1];
+        var highest = new long[] {-1};
+        var failure = new JPushoverException[1];
+        jsonStreamReader.forEach("messages", element -> {
+            if (failure[0] != null) {
+                return;
+            }
+            try {
+                var pushoverMessage = PushoverMessage.of(element);
+                if (messageStore.append(pushoverMessage)) {
+                    count[0]++;
+                    consumer.accept(pushoverMessage);
+                }
+                highest[0] = Math.max(highest[0], pushoverMessage.getId());
+            } catch (NumberFormatException e) {
+                // messages without an id can not be stored or acknowledged
+            } catch (JPushoverException e) {
+                failure[0] = e;
+            }
+        });
+
+        if (failure[0] != null) {
+            throw new CompletionException(failure[0]);
+        }
+        if (highest[0] >= 0) {
+            received(highest[0]);
+        }
+
+        return count[0];
+    }
+
+    private synchronized void received(long id) {
+        received = Math.max(received, id);
+        if (ackTimer != null) {
+            ackTimer.cancel(false);
+        }
+        ackTimer = SchedulerService.getInstance().schedule(this::flush, ackDelay);
+    }
+
+    private void fetched() {
+        CompletableFuture<Integer> pending;
+        synchronized (this) {
+            fetching = false;
+            pending = next;
+            next = null;
+        }
+
+        if (pending != null) {
+            sync().whenComplete((count, throwable) -> {
+                if (throwable != null) {
+                    pending.completeExceptionally(throwable);
+                } else {
+                    pending.complete(count);
+                }
+            });
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,512 @@
+package de.svenkubiak.jpushover.services;
+
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.PushoverRequest;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Durable write-ahead log for outgoing requests. Every request is appended to a
+ * memory-mapped segment file before it is sent and marked as acknowledged once the
+ * API returned HTTP status 200 or rejected the request with a 4xx status other than
+ * 429, which would be rejected again. Unacknowledged requests survive a crash or an
+ * outage and can be sent again with {@link #replay()}; requests which are currently
+ * being sent are skipped. Segments without pending requests are deleted.
+ *
+ * Record layout: state (1 byte), payload length (4 bytes), payload. The state is
+ * written last, so a partially written record is ignored after a crash.
+ */
+public final class Outbox implements AutoCloseable {
+    private static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final int HEADER_SIZE = 5;
+    private static final byte EMPTY = 0;
+    private static final byte PENDING = 1;
+    private static final byte ACKNOWLEDGED = 2;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final Pattern SEGMENT = Pattern.compile("segment-(\\d{10})\\.log");
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final Set<Long> inFlight = new HashSet<>();
+    private final Path directory;
+    private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private boolean fsync;
+    private Segment active;
+
+    private Outbox(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new outbox storing its segments in the given directory
+     *
+     * @param directory the directory of the segment files
+     * @return Outbox instance
+     */
+    public static Outbox create(Path directory) {
+        Objects.requireNonNull(directory, "directory can not be null");
+
+        return new Outbox(directory);
+    }
+
+    /**
+     * Sets the size of newly created segment files
+     *
+     * @param segmentSize the size in bytes
+     * @return Outbox instance
+     */
+    public synchronized Outbox withSegmentSize(int segmentSize) {
+        Validate.checkArgument(segmentSize > HEADER_SIZE, "segmentSize is too small");
+
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    /**
+     * Forces every append to the storage device before the request is sent. Disabled by
+     * default: appends then only survive a crash of the process, not of the operating system.
+     *
+     * @param fsync true to force every append to disk
+     * @return Outbox instance
+     */
+    public synchronized Outbox withFsync(boolean fsync) {
+        this.fsync = fsync;
+        return this;
+    }
+
+    /**
+     * Opens the outbox and loads the existing segments; segments without pending
+     * requests are deleted
+     *
+     * @return Outbox instance
+     * @throws JPushoverException if the segments can not be read
+     */
+    public synchronized Outbox open() throws JPushoverException {
+        Validate.checkArgument(active == null, "Outbox is already open");
+
+        try {
+            Files.createDirectories(directory);
+            try (var files = Files.list(directory)) {
+                for (Path path : (Iterable<Path>) files::iterator) {
+                    var matcher = SEGMENT.matcher(path.getFileName().toString());
+                    if (matcher.matches()) {
+                        var number = Integer.parseInt(matcher.group(1));
+                        segments.put(number, Segment.load(number, path));
+                    }
+                }
+            }
+
+            compact();
+            var last = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+            active = newSegment(last);
+        } catch (IOException e) {
+            throw new JPushoverException("Failed to open outbox", e);
+        }
+
+        return this;
+    }
+
+    /**
+     * Appends a request to the outbox, sends it and acknowledges it on HTTP status 200
+     * or a client error. If sending fails the request stays in the outbox.
+     *
+     * @param url The API URL
+     * @param token The application token
+     * @param json The UTF-8 encoded JSON body
+     * @param proxyHost The host of the proxy or null
+     * @param proxyPort The port of the proxy
+     *
+     * @return PushoverResponse instance
+     * @throws JPushoverException on failure
+     */
+    public PushoverResponse push(String url, String token, byte[] json, String proxyHost, int proxyPort) throws JPushoverException {
+        var id = appendInFlight(new Entry(url, token, json, proxyHost, proxyPort));
+        PushoverResponse pushoverResponse = null;
+        try {
+            pushoverResponse = new PushoverRequest().push(url, token, json, proxyHost, proxyPort);
+        } finally {
+            complete(id, pushoverResponse);
+        }
+
+        return pushoverResponse;
+    }
+
+    /**
+     * Appends a request to the outbox and sends it asynchronously; the request is
+     * acknowledged before the returned future completes
+     *
+     * @param url The API URL
+     * @param token The application token
+     * @param json The UTF-8 encoded JSON body
+     * @param proxyHost The host of the proxy or null
+     * @param proxyPort The port of the proxy
+     *
+     * @return CompletableFuture which completes with the PushoverResponse or
+     * exceptionally with a JPushoverException
+     */
+    public CompletableFuture<PushoverResponse> pushAsync(String url, String token, byte[] json, String proxyHost, int proxyPort) {
+        long id;
+        try {
+            id = appendInFlight(new Entry(url, token, json, proxyHost, proxyPort));
+        } catch (JPushoverException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<PushoverResponse> response;
+        try {
+            response = new PushoverRequest().pushAsync(url, token, json, proxyHost, proxyPort);
+        } catch (RuntimeException e) {
+            complete(id, null);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return response.whenComplete((pushoverResponse, throwable) -> complete(id, pushoverResponse));
+    }
+
+    /**
+     * Sends all pending requests again which are not currently being sent and
+     * acknowledges those which the API accepted with HTTP status 200 or rejected
+     * with a client error
+     *
+     * @return The responses of the sent requests
+     * @throws JPushoverException if a request could not be executed; remaining requests stay pending
+     */
+    public List<PushoverResponse> replay() throws JPushoverException {
+        var responses = new ArrayList<PushoverResponse>();
+        for (Map.Entry<Long, Entry> pending : pending().entrySet()) {
+            var id = pending.getKey();
+            if (!claim(id)) {
+                continue;
+            }
+
+            var entry = pending.getValue();
+            PushoverResponse pushoverResponse = null;
+            try {
+                pushoverResponse = new PushoverRequest().push(entry.url, entry.token, entry.json, entry.proxyHost, entry.proxyPort);
+            } finally {
+                complete(id, pushoverResponse);
+            }
+            responses.add(pushoverResponse);
+        }
+
+        return responses;
+    }
+
+    /**
+     * Appends a request to the outbox
+     *
+     * @param entry the request to append
+     * @return The id of the appended request
+     * @throws JPushoverException if the outbox is not open
+     */
+    public synchronized long append(Entry entry) throws JPushoverException {
+        Objects.requireNonNull(entry, "entry can not be null");
+        checkOpen();
+
+        var payload = entry.encode();
+        var size = HEADER_SIZE + payload.length;
+        Validate.checkArgument(size < segmentSize, "Entry exceeds the segment size");
+
+        try {
+            if (active.position + size > active.capacity) {
+                var previous = active;
+                active = newSegment(previous.number + 1);
+                if (previous.pending == 0) {
+                    delete(previous);
+                }
+            }
+        } catch (IOException e) {
+            throw new JPushoverException("Failed to create outbox segment", e);
+        }
+
+        var offset = active.position;
+        var buffer = active.buffer;
+        buffer.position(offset + HEADER_SIZE);
+        buffer.put(payload);
+        buffer.putInt(offset + 1, payload.length);
+        buffer.put(offset, PENDING);
+        if (fsync) {
+            buffer.force(offset, size);
+        }
+
+        active.position += size;
+        active.pending++;
+
+        return ((long) active.number << 32) | offset;
+    }
+
+    /**
+     * Marks a request as acknowledged
+     *
+     * @param id the id of the request
+     */
+    public synchronized void acknowledge(long id) {
+        var segment = segments.get((int) (id >>> 32));
+        var offset = (int) id;
+        if (segment == null || segment.buffer.get(offset) != PENDING) {
+            return;
+        }
+
+        segment.buffer.put(offset, ACKNOWLEDGED);
+        if (fsync) {
+            segment.buffer.force(offset, 1);
+        }
+
+        segment.pending--;
+        if (segment.pending == 0 && segment != active) {
+            delete(segment);
+        }
+    }
+
+    /**
+     * @return The pending requests by id, oldest first
+     */
+    public synchronized Map<Long, Entry> pending() {
+        var pending = new TreeMap<Long, Entry>();
+        for (Segment segment : segments.values()) {
+            var buffer = segment.buffer;
+            var offset = 0;
+            int length;
+            while ((length = segment.length(offset)) >= 0) {
+                if (buffer.get(offset) == PENDING) {
+                    var payload = new byte[length];
+                    buffer.get(offset + HEADER_SIZE, payload);
+                    pending.put(((long) segment.number << 32) | offset, Entry.decode(payload));
+                }
+                offset += HEADER_SIZE + length;
+            }
+        }
+
+        return pending;
+    }
+
+    /**
+     * @return The number of pending requests
+     */
+    public synchronized int size() {
+        return segments.values().stream().mapToInt(segment -> segment.pending).sum();
+    }
+
+    /**
+     * Deletes all segments without pending requests, except the active one
+     */
+    public synchronized void compact() {
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment.pending == 0 && segment != active) {
+                delete(segment);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+            segment.close();
+        }
+        segments.clear();
+        inFlight.clear();
+        active = null;
+    }
+
+    private synchronized long appendInFlight(Entry entry) throws JPushoverException {
+        var id = append(entry);
+        inFlight.add(id);
+
+        return id;
+    }
+
+    private synchronized boolean claim(long id) {
+        var segment = segments.get((int) (id >>> 32));
+        return segment != null && segment.buffer.get((int) id) == PENDING && inFlight.add(id);
+    }
+
+    private synchronized void complete(long id, PushoverResponse pushoverResponse) {
+        inFlight.remove(id);
+        if (pushoverResponse != null && isSettled(pushoverResponse)) {
+            acknowledge(id);
+        }
+    }
+
+    private static boolean isSettled(PushoverResponse pushoverResponse) {
+        var status = pushoverResponse.getHttpStatus();
+        return pushoverResponse.isSuccessful() || (status >= 400 && status < 500 && status != TOO_MANY_REQUESTS);
+    }
+
+    private void checkOpen() throws JPushoverException {
+        if (active == null) {
+            throw new JPushoverException("Outbox is not open");
+        }
+    }
+
+    private Segment newSegment(int number) throws IOException {
+        var path = directory.resolve("segment-%010d.log".formatted(number));
+        var segment = Segment.create(number, path, segmentSize);
+        segments.put(number, segment);
+
+        return segment;
+    }
+
+    private void delete(Segment segment) {
+        segments.remove(segment.number);
+        segment.close();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            // segment is deleted with the next compaction
+        }
+    }
+
+    /**
+     * A request stored in the outbox
+     */
+    public static final class Entry {
+        private final String url;
+        private final String token;
+        private final byte[] json;
+        private final String proxyHost;
+        private final int proxyPort;
+
+        public Entry(String url, String token, byte[] json, String proxyHost, int proxyPort) {
+            this.url = Objects.requireNonNull(url, "API URL can not be null");
+            this.json = Objects.requireNonNull(json, "json can not be null");
+            this.token = token;
+            this.proxyHost = proxyHost;
+            this.proxyPort = proxyPort;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public byte[] getJson() {
+            return json.clone();
+        }
+
+        public String getProxyHost() {
+            return proxyHost;
+        }
+
+        public int getProxyPort() {
+            return proxyPort;
+        }
+
+        private byte[] encode() {
+            var urlBytes = bytes(url);
+            var tokenBytes = bytes(token);
+            var proxyHostBytes = bytes(proxyHost);
+            var buffer = ByteBuffer.allocate(20 + urlBytes.length + tokenBytes.length + proxyHostBytes.length + json.length);
+            buffer.putInt(urlBytes.length).put(urlBytes);
+            buffer.putInt(tokenBytes.length).put(tokenBytes);
+            buffer.putInt(proxyHostBytes.length).put(proxyHostBytes);
+            buffer.putInt(proxyPort);
+            buffer.putInt(json.length).put(json);
+
+            return buffer.array();
+        }
+
+        private static Entry decode(byte[] payload) {
+            var buffer = ByteBuffer.wrap(payload);
+            var url = string(buffer);
+            var token = string(buffer);
+            var proxyHost = string(buffer);
+            var proxyPort = buffer.getInt();
+            var json = new byte[buffer.getInt()];
+            buffer.get(json);
+
+            return new Entry(url, token.isEmpty() ? null : token, json, proxyHost.isEmpty() ? null : proxyHost, proxyPort);
+        }
+
+        private static byte[] bytes(String value) {
+            return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static String string(ByteBuffer buffer) {
+            var value = new byte[buffer.getInt()];
+            buffer.get(value);
+
+            return new String(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Segment {
+        private final int number;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int position;
+        private int pending;
+
+        private Segment(int number, Path path, FileChannel channel, int capacity) throws IOException {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+            this.capacity = capacity;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        private static Segment create(int number, Path path, int capacity) throws IOException {
+            var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            return new Segment(number, path, channel, capacity);
+        }
+
+        private static Segment load(int number, Path path) throws IOException {
+            var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            var segment = new Segment(number, path, channel, (int) channel.size());
+
+            var offset = 0;
+            int length;
+            while ((length = segment.length(offset)) >= 0) {
+                if (segment.buffer.get(offset) == PENDING) {
+                    segment.pending++;
+                }
+                offset += HEADER_SIZE + length;
+            }
+            segment.position = segment.capacity;
+
+            return segment;
+        }
+
+        /**
+         * @return The payload length of the record at the given offset or -1 if there is no complete record
+         */
+        private int length(int offset) {
+            if (offset + HEADER_SIZE > capacity || buffer.get(offset) == EMPTY) {
+                return -1;
+            }
+
+            var length = buffer.getInt(offset + 1);
+            return length >= 0 && length <= capacity - offset - HEADER_SIZE ? length : -1;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing to do, the segment is no longer used
+            }
+        }
+    }
+}
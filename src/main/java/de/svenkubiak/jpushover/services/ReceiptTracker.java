@@ -0,0 +1,406 @@
+package de.svenkubiak.jpushover.services;
+
+import de.svenkubiak.jpushover.apis.Message;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.enums.Url;
+import de.svenkubiak.jpushover.http.PushoverRequest;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.Receipt;
+import de.svenkubiak.jpushover.listener.ReceiptListener;
+import de.svenkubiak.jpushover.utils.Validate;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows up on the receipts of emergency messages until they are acknowledged,
+ * called back or expired. All receipts are polled from the shared SchedulerService:
+ * receipts which are due at about the same time are polled together, at most
+ * the batch size per run, without blocking a thread while requests are in flight.
+ *
+ * Each receipt starts with the minimum interval, which doubles with every poll
+ * without change up to the maximum interval and falls back to the minimum whenever
+ * the message was delivered again. A token answered with HTTP status 429 is not
+ * polled until the rate limit resets, at most for the maximum interval.
+ */
+public final class ReceiptTracker {
+    private static final Duration DEFAULT_MIN_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_MAX_INTERVAL = Duration.ofMinutes(1);
+    private static final long MAX_COALESCE = Duration.ofSeconds(1).toNanos();
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static volatile ReceiptTracker instance;
+    private final Map<String, Tracked> receipts = new HashMap<>();
+    private final Map<String, Long> pausedUntil = new HashMap<>();
+    private ScheduledFuture<?> timer;
+    private long timerAt;
+    private long minInterval = DEFAULT_MIN_INTERVAL.toNanos();
+    private long maxInterval = DEFAULT_MAX_INTERVAL.toNanos();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private ReceiptTracker() {
+    }
+
+    /**
+     * Returns the shared instance
+     *
+     * @return ReceiptTracker instance
+     */
+    public static ReceiptTracker getInstance() {
+        var current = instance;
+        if (current == null) {
+            synchronized (ReceiptTracker.class) {
+                current = instance;
+                if (current == null) {
+                    current = new ReceiptTracker();
+                    instance = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Replaces the shared instance; receipts tracked by the previous instance are still polled
+     *
+     * @param receiptTracker the ReceiptTracker to use
+     */
+    public static void setInstance(ReceiptTracker receiptTracker) {
+        Objects.requireNonNull(receiptTracker, "receiptTracker can not be null");
+
+        synchronized (ReceiptTracker.class) {
+            instance = receiptTracker;
+        }
+    }
+
+    /**
+     * Creates a new, independent ReceiptTracker polling every 5 seconds up to every
+     * minute, with at most 50 requests per run
+     *
+     * @return ReceiptTracker instance
+     */
+    public static ReceiptTracker create() {
+        return new ReceiptTracker();
+    }
+
+    /**
+     * Sets the interval in which a receipt is polled after it was tracked or delivered again.
+     * Pushover asks to poll a receipt at most every 5 seconds.
+     *
+     * @param minInterval the minimum interval
+     * @return ReceiptTracker instance
+     */
+    public synchronized ReceiptTracker withMinInterval(Duration minInterval) {
+        Objects.requireNonNull(minInterval, "minInterval can not be null");
+        Validate.checkArgument(!minInterval.isNegative() && !minInterval.isZero(), "minInterval must be positive");
+
+        this.minInterval = minInterval.toNanos();
+        this.maxInterval = Math.max(this.maxInterval, this.minInterval);
+        return this;
+    }
+
+    /**
+     * Sets the interval up to which polling slows down while a receipt does not change
+     *
+     * @param maxInterval the maximum interval
+     * @return ReceiptTracker instance
+     */
+    public synchronized ReceiptTracker withMaxInterval(Duration maxInterval) {
+        Objects.requireNonNull(maxInterval, "maxInterval can not be null");
+        Validate.checkArgument(maxInterval.toNanos() >= minInterval, "maxInterval can not be less than minInterval");
+
+        this.maxInterval = maxInterval.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of receipts polled at once
+     *
+     * @param batchSize the maximum number of requests per run, must be greater than zero
+     * @return ReceiptTracker instance
+     */
+    public synchronized ReceiptTracker withBatchSize(int batchSize) {
+        Validate.checkArgument(batchSize > 0, "batchSize must be greater than zero");
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Tracks the receipt of a sent emergency message. Token, tags and callback
+     * URL are taken from the message; with a callback URL the receipt is tracked
+     * until the callback was called.
+     *
+     * @param message the sent emergency message
+     * @param pushoverResponse the response of the message
+     * @param listener the listener notified about changes of the receipt
+     */
+    public void track(Message message, PushoverResponse pushoverResponse, ReceiptListener listener) {
+        Objects.requireNonNull(message, "message can not be null");
+        Objects.requireNonNull(pushoverResponse, "pushoverResponse can not be null");
+        var receipt = pushoverResponse.getReceipt();
+        Validate.checkArgument(receipt != null, "pushoverResponse contains no receipt");
+
+        var tags = message.getValue(Param.TAGS);
+        track(message.getValue(Param.TOKEN), receipt, tags != null ? Set.copyOf(Arrays.asList(tags.split(","))) : Set.of(), message.getValue(Param.CALLBACK) != null, listener);
+    }
+
+    /**
+     * Tracks the receipt of a sent emergency message
+     *
+     * @param token the application token of the message
+     * @param receipt the receipt of the message
+     * @param listener the listener notified about changes of the receipt
+     */
+    public void track(String token, String receipt, ReceiptListener listener) {
+        track(token, receipt, Set.of(), false, listener);
+    }
+
+    /**
+     * Stops the retries of an emergency message and stops tracking its receipt
+     *
+     * @param token the application token of the message
+     * @param receipt the receipt of the message
+     * @return CompletableFuture which completes with the response of the cancel request
+     */
+    public CompletableFuture<PushoverResponse> cancel(String token, String receipt) {
+        Objects.requireNonNull(token, "token can not be null");
+        Objects.requireNonNull(receipt, "receipt can not be null");
+
+        synchronized (this) {
+            receipts.remove(receipt);
+        }
+
+        return post(Url.RECEIPT_CANCEL.toString().replace("###RECEIPT###", encode(receipt)), token);
+    }
+
+    /**
+     * Stops the retries of all emergency messages with the given tag and stops tracking their receipts
+     *
+     * @param token the application token of the messages
+     * @param tag the tag of the messages
+     * @return CompletableFuture which completes with the response of the cancel request
+     */
+    public CompletableFuture<PushoverResponse> cancelByTag(String token, String tag) {
+        Objects.requireNonNull(token, "token can not be null");
+        Objects.requireNonNull(tag, "tag can not be null");
+
+        synchronized (this) {
+            receipts.values().removeIf(tracked -> tracked.token.equals(token) && tracked.tags.contains(tag));
+        }
+
+        return post(Url.RECEIPT_CANCEL_BY_TAG.toString().replace("###TAG###", encode(tag)), token);
+    }
+
+    /**
+     * @param receipt the receipt
+     * @return true if the receipt is tracked, false otherwise
+     */
+    public synchronized boolean isTracked(String receipt) {
+        return receipts.containsKey(receipt);
+    }
+
+    /**
+     * @return The number of tracked receipts
+     */
+    public synchronized int size() {
+        return receipts.size();
+    }
+
+    private void track(String token, String receipt, Set<String> tags, boolean callback, ReceiptListener listener) {
+        Objects.requireNonNull(token, "token can not be null");
+        Objects.requireNonNull(receipt, "receipt can not be null");
+        Objects.requireNonNull(listener, "listener can not be null");
+
+        synchronized (this) {
+            var tracked = new Tracked(token, receipt, tags, callback, listener);
+            tracked.interval = minInterval;
+            tracked.nextPoll = System.nanoTime() + minInterval;
+            receipts.put(receipt, tracked);
+            schedule();
+        }
+    }
+
+    private void poll() {
+        var due = new ArrayList<Tracked>();
+        synchronized (this) {
+            timer = null;
+            var now = System.nanoTime();
+            var horizon = now + Math.min(MAX_COALESCE, minInterval / 2);
+            pausedUntil.values().removeIf(until -> until - now <= 0);
+            for (Tracked tracked : receipts.values()) {
+                if (!tracked.inFlight && tracked.nextPoll - horizon <= 0 && !pausedUntil.containsKey(tracked.token)) {
+                    due.add(tracked);
+                }
+            }
+            due.sort(Comparator.comparingLong(tracked -> tracked.nextPoll - now));
+            if (due.size() > batchSize) {
+                due.subList(batchSize, due.size()).clear();
+            }
+            due.forEach(tracked -> tracked.inFlight = true);
+            schedule();
+        }
+
+        for (Tracked tracked : due) {
+            CompletableFuture<PushoverResponse> response;
+            try {
+                response = new PushoverRequest().getAsync(url(tracked), null, 0);
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((pushoverResponse, throwable) -> update(tracked, pushoverResponse));
+        }
+    }
+
+    private void update(Tracked tracked, PushoverResponse pushoverResponse) {
+        var events = new EnumMap<Event, Receipt>(Event.class);
+        synchronized (this) {
+            tracked.inFlight = false;
+            if (receipts.get(tracked.receipt) != tracked) {
+                return;
+            }
+
+            var now = System.nanoTime();
+            if (pushoverResponse == null || pushoverResponse.getHttpStatus() >= 500) {
+                backoff(tracked, now);
+            } else if (pushoverResponse.getHttpStatus() == TOO_MANY_REQUESTS) {
+                var wait = TimeUnit.SECONDS.toNanos(pushoverResponse.getReset()) - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+                pausedUntil.put(tracked.token, now + Math.clamp(wait, minInterval, maxInterval));
+                backoff(tracked, now);
+            } else if (pushoverResponse.getStatus() != 1) {
+                receipts.remove(tracked.receipt);
+                events.put(Event.FAILURE, null);
+            } else {
+                var receipt = Receipt.of(tracked.receipt, pushoverResponse);
+                if (receipt.isAcknowledged() && !tracked.acknowledged) {
+                    tracked.acknowledged = true;
+                    events.put(Event.ACKNOWLEDGED, receipt);
+                }
+
+                if (receipt.isCalledBack()) {
+                    events.put(Event.CALLED_BACK, receipt);
+                    receipts.remove(tracked.receipt);
+                } else if (receipt.isExpired() || (tracked.acknowledged && !tracked.callback)) {
+                    if (!tracked.acknowledged) {
+                        events.put(Event.EXPIRED, receipt);
+                    }
+                    receipts.remove(tracked.receipt);
+                } else {
+                    if (receipt.getLastDeliveredAt() != tracked.lastDeliveredAt) {
+                        tracked.lastDeliveredAt = receipt.getLastDeliveredAt();
+                        tracked.interval = minInterval;
+                    } else {
+                        tracked.interval = Math.min(tracked.interval * 2, maxInterval);
+                    }
+                    tracked.nextPoll = now + Math.min(tracked.interval, untilExpiry(receipt));
+                }
+            }
+            schedule();
+        }
+
+        notify(tracked, events, pushoverResponse);
+    }
+
+    private void notify(Tracked tracked, Map<Event, Receipt> events, PushoverResponse pushoverResponse) {
+        events.forEach((event, receipt) -> {
+            try {
+                switch (event) {
+                    case ACKNOWLEDGED -> tracked.listener.onAcknowledged(receipt);
+                    case CALLED_BACK -> tracked.listener.onCalledBack(receipt);
+                    case EXPIRED -> tracked.listener.onExpired(receipt);
+                    case FAILURE -> tracked.listener.onFailure(tracked.receipt, pushoverResponse);
+                }
+            } catch (RuntimeException e) {
+                // a failing listener must not stop the tracking of other receipts
+            }
+        });
+    }
+
+    private void backoff(Tracked tracked, long now) {
+        tracked.interval = Math.min(tracked.interval * 2, maxInterval);
+        tracked.nextPoll = now + tracked.interval;
+    }
+
+    private long untilExpiry(Receipt receipt) {
+        if (receipt.getExpiresAt() <= 0) {
+            return Long.MAX_VALUE;
+        }
+
+        var remaining = TimeUnit.SECONDS.toNanos(receipt.getExpiresAt()) - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        return Math.max(minInterval, remaining + TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void schedule() {
+        var now = System.nanoTime();
+        var next = Long.MAX_VALUE;
+        for (Tracked tracked : receipts.values()) {
+            if (!tracked.inFlight) {
+                var paused = pausedUntil.get(tracked.token);
+                var at = paused != null && paused - tracked.nextPoll > 0 ? paused : tracked.nextPoll;
+                next = next == Long.MAX_VALUE || at - next < 0 ? at : next;
+            }
+        }
+        if (next == Long.MAX_VALUE || (timer != null && timerAt - next <= 0)) {
+            return;
+        }
+
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        timerAt = next;
+        timer = SchedulerService.getInstance().schedule(this::poll, Duration.ofNanos(Math.max(0, next - now)));
+    }
+
+    private CompletableFuture<PushoverResponse> post(String url, String token) {
+        var body = new EnumMap<Param, String>(Param.class);
+        body.put(Param.TOKEN, token);
+
+        return new PushoverRequest().pushAsync(url, body, null, 0);
+    }
+
+    private static String url(Tracked tracked) {
+        return Url.RECEIPT.toString().replace("###RECEIPT###", encode(tracked.receipt)) + "?token=" + encode(tracked.token);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private enum Event {
+        ACKNOWLEDGED, CALLED_BACK, EXPIRED, FAILURE
+    }
+
+    private static final class Tracked {
+        private final String token;
+        private final String receipt;
+        private final Set<String> tags;
+        private final boolean callback;
+        private final ReceiptListener listener;
+        private long interval;
+        private long nextPoll;
+        private long lastDeliveredAt;
+        private boolean acknowledged;
+        private boolean inFlight;
+
+        private Tracked(String token, String receipt, Set<String> tags, boolean callback, ReceiptListener listener) {
+            this.token = token;
+            this.receipt = receipt;
+            this.tags = tags;
+            this.callback = callback;
+            this.listener = listener;
+        }
+    }
+}
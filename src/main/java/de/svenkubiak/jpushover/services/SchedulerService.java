@@ -0,0 +1,45 @@
+package de.svenkubiak.jpushover.services;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared daemon scheduler for timers of the library, e.g. closing deduplication
+ * windows or flushing buffers. Scheduled tasks must be short and must not block;
+ * pushes are started with pushAsync().
+ */
+public final class SchedulerService {
+    private static final SchedulerService INSTANCE = new SchedulerService();
+    private final ScheduledThreadPoolExecutor executor;
+
+    private SchedulerService() {
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "jpushover-scheduler");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    public static SchedulerService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs the given task once after the given delay
+     *
+     * @param task the task to run
+     * @param delay the delay
+     * @return ScheduledFuture to cancel the task
+     */
+    public ScheduledFuture<?> schedule(Runnable task, Duration delay) {
+        Objects.requireNonNull(task, "task can not be null");
+        Objects.requireNonNull(delay, "delay can not be null");
+
+        return executor.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
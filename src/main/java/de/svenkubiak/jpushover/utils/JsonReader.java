@@ -0,0 +1,329 @@
+package de.svenkubiak.jpushover.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Minimal JSON reader which looks up single members of the top-level object on demand.
+ * Members which are not requested are skipped without being decoded, so reading one
+ * field of a response does not pay for the rest of the body. Malformed input yields
+ * the same result as a missing member.
+ */
+public final class JsonReader {
+    private final String json;
+    private final int start;
+    private final int end;
+    private int position;
+
+    private JsonReader(String json, int start, int end) {
+        this.json = json;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Creates a reader for the given JSON document
+     *
+     * @param json the JSON document
+     * @return JsonReader instance
+     */
+    public static JsonReader of(String json) {
+        Objects.requireNonNull(json, "json can not be null");
+
+        return new JsonReader(json, 0, json.length());
+    }
+
+    /**
+     * @param name the name of the member
+     * @return The string value of the member or null if the member is missing or not a string
+     */
+    public String getString(String name) {
+        if (!find(name) || peek() != '"') {
+            return null;
+        }
+
+        return readString();
+    }
+
+    /**
+     * @param name the name of the member
+     * @param defaultValue the value to return if the member is missing or not a number
+     * @return The integral value of the member
+     */
+    public long getLong(String name, long defaultValue) {
+        if (!find(name)) {
+            return defaultValue;
+        }
+
+        var digits = position;
+        if (peek() == '-') {
+            position++;
+        }
+        while (position < end && Character.isDigit(json.charAt(position))) {
+            position++;
+        }
+
+        try {
+            return Long.parseLong(json, digits, position, 10);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @param name the name of the member
+     * @return The string elements of the array member or an empty list if the member is missing or not an array
+     */
+    public List<String> getStrings(String name) {
+        if (!find(name) || peek() != '[') {
+            return List.of();
+        }
+
+        var values = new ArrayList<String>();
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            return List.copyOf(values);
+        }
+
+        while (position < end) {
+            skipWhitespace();
+            if (peek() == '"') {
+                var value = readString();
+                if (value == null) {
+                    return List.of();
+                }
+                values.add(value);
+            } else if (!skipValue()) {
+                return List.of();
+            }
+
+            skipWhitespace();
+            var next = peek();
+            position++;
+            if (next == ']') {
+                return List.copyOf(values);
+            } else if (next != ',') {
+                return List.of();
+            }
+        }
+
+        return List.of();
+    }
+
+    /**
+     * Calls the consumer with a reader for each object element of the array member, in order.
+     * The readers share the underlying document, no element is copied.
+     *
+     * @param name the name of the member
+     * @param consumer the consumer of the elements
+     * @return The number of object elements or -1 if the member is missing, not an array or malformed
+     */
+    public int forEach(String name, Consumer<JsonReader> consumer) {
+        Objects.requireNonNull(consumer, "consumer can not be null");
+
+        if (!find(name) || peek() != '[') {
+            return -1;
+        }
+
+        var count = 0;
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            return count;
+        }
+
+        while (position < end) {
+            skipWhitespace();
+            var element = position;
+            var object = peek() == '{';
+            if (!skipValue()) {
+                return -1;
+            }
+            if (object) {
+                var elementEnd = position;
+                consumer.accept(new JsonReader(json, element, elementEnd));
+                position = elementEnd;
+                count++;
+            }
+
+            skipWhitespace();
+            var next = peek();
+            position++;
+            if (next == ']') {
+                return count;
+            } else if (next != ',') {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean find(String name) {
+        Objects.requireNonNull(name, "name can not be null");
+
+        position = start;
+        skipWhitespace();
+        if (peek() != '{') {
+            return false;
+        }
+        position++;
+
+        while (position < end) {
+            skipWhitespace();
+            if (peek() != '"') {
+                return false;
+            }
+
+            var matches = matchKey(name);
+            if (position < 0) {
+                return false;
+            }
+
+            skipWhitespace();
+            if (peek() != ':') {
+                return false;
+            }
+            position++;
+            skipWhitespace();
+
+            if (matches) {
+                return true;
+            }
+            if (!skipValue()) {
+                return false;
+            }
+
+            skipWhitespace();
+            if (peek() != ',') {
+                return false;
+            }
+            position++;
+        }
+
+        return false;
+    }
+
+    private boolean matchKey(String name) {
+        var start = position + 1;
+        var close = start;
+        var escaped = false;
+        while (close < end && json.charAt(close) != '"') {
+            if (json.charAt(close) == '\\') {
+                escaped = true;
+                close++;
+            }
+            close++;
+        }
+        if (close >= end) {
+            position = -1;
+            return false;
+        }
+
+        if (escaped) {
+            return name.equals(readString());
+        }
+
+        position = close + 1;
+        return close - start == name.length() && json.regionMatches(start, name, 0, name.length());
+    }
+
+    private String readString() {
+        var builder = new StringBuilder();
+        var index = position + 1;
+        while (index < end) {
+            var c = json.charAt(index++);
+            if (c == '"') {
+                position = index;
+                return builder.toString();
+            } else if (c != '\\') {
+                builder.append(c);
+            } else if (index < end) {
+                var escape = json.charAt(index++);
+                switch (escape) {
+                    case 'b' -> builder.append('\b');
+                    case 'f' -> builder.append('\f');
+                    case 'n' -> builder.append('\n');
+                    case 'r' -> builder.append('\r');
+                    case 't' -> builder.append('\t');
+                    case 'u' -> {
+                        if (index + 4 > end) {
+                            break;
+                        }
+                        try {
+                            builder.append((char) Integer.parseInt(json, index, index + 4, 16));
+                        } catch (NumberFormatException e) {
+                            position = -1;
+                            return null;
+                        }
+                        index += 4;
+                    }
+                    default -> builder.append(escape);
+                }
+            }
+        }
+
+        position = -1;
+        return null;
+    }
+
+    private boolean skipValue() {
+        var depth = 0;
+        while (position < end) {
+            var c = json.charAt(position);
+            if (c == '"') {
+                position = skipString(position);
+                if (position < 0) {
+                    return false;
+                }
+                if (depth == 0) {
+                    return true;
+                }
+                continue;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0) {
+                    return true;
+                }
+                depth--;
+                if (depth == 0) {
+                    position++;
+                    return true;
+                }
+            } else if (c == ',' && depth == 0) {
+                return true;
+            }
+            position++;
+        }
+
+        return depth == 0;
+    }
+
+    private int skipString(int start) {
+        var index = start + 1;
+        while (index < end) {
+            var c = json.charAt(index++);
+            if (c == '"') {
+                return index;
+            } else if (c == '\\') {
+                index++;
+            }
+        }
+
+        return -1;
+    }
+
+    private void skipWhitespace() {
+        while (position >= 0 && position < end && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        return position >= 0 && position < end ? json.charAt(position) : 0;
+    }
+}
@@ -0,0 +1,256 @@
+package de.svenkubiak.jpushover.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Incremental JSON tokenizer which reads an array member of the top-level object from a
+ * stream, one element at a time. Only the element currently read is kept in memory, so
+ * memory use is bounded by the largest element, not by the size of the document.
+ *
+ * Like the JsonReader it is meant for the well-formed responses of the Pushover API only;
+ * member names are compared as they appear in the document, without unescaping.
+ */
+public final class JsonStreamReader {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_ELEMENT_SIZE = 1 << 16;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder element = new StringBuilder();
+    private final Reader reader;
+    private int position;
+    private int limit;
+
+    private JsonStreamReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Creates a new reader of the given UTF-8 encoded stream
+     *
+     * @param inputStream the stream of the JSON document
+     * @return JsonStreamReader instance
+     */
+    public static JsonStreamReader of(InputStream inputStream) {
+        Objects.requireNonNull(inputStream, "inputStream can not be null");
+
+        return new JsonStreamReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Calls the consumer with a reader for each object element of the array member as soon as
+     * the element was read. The rest of the stream is consumed but not kept.
+     *
+     * @param name the name of the member
+     * @param consumer the consumer of the elements
+     * @return The number of object elements or -1 if the member is missing, not an array or malformed
+     * @throws IOException if the stream can not be read or an element exceeds 64K characters
+     */
+    public int forEach(String name, Consumer<JsonReader> consumer) throws IOException {
+        Objects.requireNonNull(name, "name can not be null");
+        Objects.requireNonNull(consumer, "consumer can not be null");
+
+        var count = -1;
+        if (next() == '{') {
+            count = members(name, consumer);
+        }
+        drain();
+
+        return count;
+    }
+
+    private int members(String name, Consumer<JsonReader> consumer) throws IOException {
+        var c = next();
+        if (c == '}') {
+            return -1;
+        }
+
+        while (c == '"') {
+            var matches = matchKey(name);
+            if (next() != ':') {
+                return -1;
+            }
+
+            c = next();
+            if (matches) {
+                return c == '[' ? elements(consumer) : -1;
+            }
+            if (!skipValue(c)) {
+                return -1;
+            }
+
+            c = next();
+            if (c != ',') {
+                return -1;
+            }
+            c = next();
+        }
+
+        return -1;
+    }
+
+    private int elements(Consumer<JsonReader> consumer) throws IOException {
+        var count = 0;
+        var c = next();
+        if (c == ']') {
+            return count;
+        }
+
+        while (c >= 0) {
+            if (c == '{') {
+                element.setLength(0);
+                element.append('{');
+                if (!capture()) {
+                    return -1;
+                }
+                consumer.accept(JsonReader.of(element.toString()));
+                count++;
+            } else if (!skipValue(c)) {
+                return -1;
+            }
+
+            c = next();
+            if (c == ']') {
+                return count;
+            } else if (c != ',') {
+                return -1;
+            }
+            c = next();
+        }
+
+        return -1;
+    }
+
+    private boolean matchKey(String name) throws IOException {
+        var index = 0;
+        var matches = true;
+        var c = read();
+        while (c >= 0 && c != '"') {
+            if (c == '\\') {
+                matches = false;
+                read();
+            } else {
+                matches = matches && index < name.length() && name.charAt(index) == c;
+                index++;
+            }
+            c = read();
+        }
+
+        return matches && c == '"' && index == name.length();
+    }
+
+    private boolean capture() throws IOException {
+        var depth = 1;
+        var string = false;
+        var escaped = false;
+        while (depth > 0) {
+            var c = read();
+            if (c < 0) {
+                return false;
+            }
+            if (element.length() >= MAX_ELEMENT_SIZE) {
+                throw new IOException("JSON element exceeds " + MAX_ELEMENT_SIZE + " characters");
+            }
+            element.append((char) c);
+
+            if (string) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    string = false;
+                }
+            } else if (c == '"') {
+                string = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean skipValue(int first) throws IOException {
+        var depth = 0;
+        var c = first;
+        while (c >= 0) {
+            if (c == '"') {
+                if (!skipString()) {
+                    return false;
+                }
+                if (depth == 0) {
+                    return true;
+                }
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0) {
+                    return false;
+                }
+                depth--;
+                if (depth == 0) {
+                    return true;
+                }
+            } else if (depth == 0 && (c == ',' || Character.isWhitespace(c))) {
+                position--;
+                return true;
+            }
+            c = read();
+            if (depth == 0 && (c == '}' || c == ']')) {
+                position--;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean skipString() throws IOException {
+        var c = read();
+        while (c >= 0) {
+            if (c == '\\') {
+                read();
+            } else if (c == '"') {
+                return true;
+            }
+            c = read();
+        }
+
+        return false;
+    }
+
+    private int next() throws IOException {
+        var c = read();
+        while (c >= 0 && Character.isWhitespace(c)) {
+            c = read();
+        }
+
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+
+        return buffer[position++];
+    }
+
+    private void drain() throws IOException {
+        while (reader.read(buffer, 0, BUFFER_SIZE) >= 0) {
+            // discard the remaining document
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package de.svenkubiak.jpushover.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Minimal streaming JSON encoder which writes UTF-8 bytes straight into a reusable,
+ * per-thread buffer. Strings are escaped according to RFC 8259.
+ *
+ * Virtual threads are usually created per task, so a per-thread buffer would not be
+ * reused; on virtual threads {@link #get()} returns a new writer which is not cached.
+ * Code encoding many bodies on a virtual thread can keep its own writer from
+ * {@link #create()} and reset it between bodies.
+ */
+public final class JsonWriter {
+    private static final ThreadLocal<JsonWriter> WRITERS = ThreadLocal.withInitial(JsonWriter::new);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int position;
+    private boolean first = true;
+
+    private JsonWriter() {
+    }
+
+    /**
+     * Returns the writer of the current thread, reset to an empty state.
+     * The writer must not be shared with other threads. On a virtual thread
+     * a new writer is returned every time.
+     *
+     * @return JsonWriter instance
+     */
+    public static JsonWriter get() {
+        if (Thread.currentThread().isVirtual()) {
+            return new JsonWriter();
+        }
+
+        var jsonWriter = WRITERS.get();
+        jsonWriter.reset();
+
+        return jsonWriter;
+    }
+
+    /**
+     * Creates a new writer owned by the caller, e.g. to reuse one buffer for many
+     * bodies encoded on a virtual thread
+     *
+     * @return JsonWriter instance
+     */
+    public static JsonWriter create() {
+        return new JsonWriter();
+    }
+
+    public JsonWriter beginObject() {
+        write((byte) '{');
+        first = true;
+
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        write((byte) '}');
+        first = false;
+
+        return this;
+    }
+
+    /**
+     * Writes a field with a string value, separated from a previous field by a comma
+     *
+     * @param name the name of the field
+     * @param value the value of the field
+     * @return JsonWriter instance
+     */
+    public JsonWriter field(String name, String value) {
+        Objects.requireNonNull(name, "name can not be null");
+        Objects.requireNonNull(value, "value can not be null");
+
+        if (!first) {
+            write((byte) ',');
+        }
+        string(name);
+        write((byte) ':');
+        string(value);
+        first = false;
+
+        return this;
+    }
+
+    /**
+     * Writes a field with a number value, separated from a previous field by a comma
+     *
+     * @param name the name of the field
+     * @param value the value of the field
+     * @return JsonWriter instance
+     */
+    public JsonWriter field(String name, long value) {
+        Objects.requireNonNull(name, "name can not be null");
+
+        if (!first) {
+            write((byte) ',');
+        }
+        string(name);
+        write((byte) ':');
+        var digits = Long.toString(value);
+        ensureCapacity(digits.length());
+        for (var i = 0; i < digits.length(); i++) {
+            buffer[position++] = (byte) digits.charAt(i);
+        }
+        first = false;
+
+        return this;
+    }
+
+    /**
+     * Writes previously encoded, comma-separated fields as they are
+     *
+     * @param fields the encoded fields
+     * @return JsonWriter instance
+     */
+    public JsonWriter fields(byte[] fields) {
+        Objects.requireNonNull(fields, "fields can not be null");
+
+        if (fields.length > 0) {
+            if (!first) {
+                write((byte) ',');
+            }
+            ensureCapacity(fields.length);
+            System.arraycopy(fields, 0, buffer, position, fields.length);
+            position += fields.length;
+            first = false;
+        }
+
+        return this;
+    }
+
+    /**
+     * Discards the bytes written so far, so the writer can encode the next body
+     *
+     * @return JsonWriter instance
+     */
+    public JsonWriter reset() {
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+        position = 0;
+        first = true;
+
+        return this;
+    }
+
+    /**
+     * @return A copy of the bytes written so far
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public int size() {
+        return position;
+    }
+
+    private void string(String value) {
+        var length = value.length();
+        ensureCapacity(length + 2);
+        write((byte) '"');
+
+        for (var i = 0; i < length; i++) {
+            var c = value.charAt(i);
+            if (c < 0x80) {
+                ascii(c);
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                buffer[position++] = (byte) (0xc0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                var codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensureCapacity(4);
+                buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                unicodeEscape(c);
+            } else {
+                ensureCapacity(3);
+                buffer[position++] = (byte) (0xe0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+
+        write((byte) '"');
+    }
+
+    private void ascii(char c) {
+        switch (c) {
+            case '"' -> escape('"');
+            case '\\' -> escape('\\');
+            case '\b' -> escape('b');
+            case '\f' -> escape('f');
+            case '\n' -> escape('n');
+            case '\r' -> escape('r');
+            case '\t' -> escape('t');
+            default -> {
+                if (c < 0x20) {
+                    unicodeEscape(c);
+                } else {
+                    write((byte) c);
+                }
+            }
+        }
+    }
+
+    private void escape(char c) {
+        ensureCapacity(2);
+        buffer[position++] = '\\';
+        buffer[position++] = (byte) c;
+    }
+
+    private void unicodeEscape(char c) {
+        ensureCapacity(6);
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[(c >> 12) & 0xf];
+        buffer[position++] = HEX[(c >> 8) & 0xf];
+        buffer[position++] = HEX[(c >> 4) & 0xf];
+        buffer[position++] = HEX[c & 0xf];
+    }
+
+    private void write(byte b) {
+        ensureCapacity(1);
+        buffer[position++] = b;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+        }
+    }
+}
@@ -146,4 +146,18 @@ class GlanceTests {
         //then
         assertTrue(actualMessage.contains(expectedMessage));
     }
+
+    @Test
+    void testCopy() {
+        //given
+        Glance glance = JPushover.glanceAPI().withToken("myToken").withCount(1);
+
+        //when
+        Glance copy = glance.copy().withCount(2);
+
+        //then
+        assertTrue(copy.getValue(Param.TOKEN).equals("myToken"));
+        assertTrue(glance.getValue(Param.COUNT).equals("1"));
+        assertTrue(copy.getValue(Param.COUNT).equals("2"));
+    }
 }
@@ -0,0 +1,175 @@
+package jpushover.apis;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.JPushover;
+import de.svenkubiak.jpushover.apis.Message;
+import de.svenkubiak.jpushover.apis.MessageTemplate;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.enums.Priority;
+import de.svenkubiak.jpushover.http.BaseUrlTransport;
+import de.svenkubiak.jpushover.http.Transports;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageTemplateTests {
+    private static final List<byte[]> BODIES = new CopyOnWriteArrayList<>();
+    private static HttpServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            BODIES.add(exchange.getRequestBody().readAllBytes());
+            byte[] response = "{\"status\":1,\"request\":\"foo\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        Transports.setDefault(BaseUrlTransport.create("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @AfterAll
+    static void stop() {
+        Transports.reset();
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        BODIES.clear();
+    }
+
+    @Test
+    void testMissingToken() {
+        //given
+        String expectedMessage = "Token is required for a message";
+
+        //when
+        Exception exception = assertThrows(NullPointerException.class, () -> {
+            JPushover.messageAPI().toTemplate();
+        });
+
+        //then
+        assertTrue(exception.getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testTemplateIsDetached() {
+        //given
+        Message message = JPushover.messageAPI().withToken("foo").withTitle("myTitle");
+
+        //when
+        MessageTemplate template = message.toTemplate();
+        message.withTitle("otherTitle");
+
+        //then
+        assertEquals("myTitle", template.getValue(Param.TITLE));
+        assertEquals("foo", template.getValue(Param.TOKEN));
+    }
+
+    @Test
+    void testEmergencyDefaults() {
+        //given
+        Message message = JPushover.messageAPI().withToken("foo").withPriority(Priority.EMERGENCY);
+
+        //when
+        MessageTemplate template = message.toTemplate();
+
+        //then
+        assertEquals("60", template.getValue(Param.RETRY));
+        assertEquals("3600", template.getValue(Param.EXPIRE));
+        assertNull(message.getValue(Param.RETRY));
+        assertNull(message.getValue(Param.EXPIRE));
+    }
+
+    @Test
+    void testBodyMatchesMessage() throws Exception {
+        //given
+        Message message = JPushover.messageAPI()
+                .withToken("foo")
+                .withUser("bar")
+                .withTitle("Disk \"/var\"")
+                .withMessage("Disk is 95% full ✓")
+                .withPriority(Priority.HIGH);
+        MessageTemplate template = message.toTemplate();
+
+        //when
+        message.push();
+        template.push();
+
+        //then
+        assertEquals(2, BODIES.size());
+        assertArrayEquals(BODIES.get(0), BODIES.get(1));
+    }
+
+    @Test
+    void testEmergencyOverride() throws Exception {
+        //given
+        MessageTemplate template = JPushover.messageAPI().withToken("foo").withTitle("myTitle").toTemplate();
+        Map<Param, String> overrides = new EnumMap<>(Param.class);
+        overrides.put(Param.USER, "bar");
+        overrides.put(Param.MESSAGE, "Disk full");
+        overrides.put(Param.PRIORITY, Priority.EMERGENCY.toString());
+
+        //when
+        template.push(overrides);
+        JPushover.messageAPI()
+                .withToken("foo")
+                .withUser("bar")
+                .withTitle("myTitle")
+                .withMessage("Disk full")
+                .withPriority(Priority.EMERGENCY)
+                .push();
+
+        //then
+        assertEquals(2, BODIES.size());
+        assertArrayEquals(BODIES.get(1), BODIES.get(0));
+        String json = new String(BODIES.get(0), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"retry\":\"60\""));
+        assertTrue(json.contains("\"expire\":\"3600\""));
+    }
+
+    @Test
+    void testMissingUser() {
+        //given
+        MessageTemplate template = JPushover.messageAPI().withToken("foo").withMessage("bar").toTemplate();
+
+        //when
+        Exception exception = assertThrows(NullPointerException.class, template::push);
+
+        //then
+        assertTrue(exception.getMessage().contains("User is required for a message"));
+    }
+
+    @Test
+    void testOverrideLimit() {
+        //given
+        MessageTemplate template = JPushover.messageAPI().withToken("foo").toTemplate();
+        String message = "x".repeat(1025);
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            template.push("bar", message);
+        });
+
+        //then
+        assertTrue(exception.getMessage().contains("Message can not exceed more than 1024 characters"));
+    }
+}
@@ -5,10 +5,16 @@ import de.svenkubiak.jpushover.apis.Message;
 import de.svenkubiak.jpushover.enums.Param;
 import de.svenkubiak.jpushover.enums.Priority;
 import de.svenkubiak.jpushover.enums.Sound;
+import de.svenkubiak.jpushover.http.PushoverResponse;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -45,6 +51,19 @@ class MessageTests {
         assertTrue(message.getValue(Param.TOKEN.toString()).equals(value));
     }
     
+    @Test
+    void testGetValueByParam() {
+        //given
+        String value = "myToken";
+        
+        //when
+        Message message = JPushover.messageAPI().withToken(value);
+        
+        //then
+        assertTrue(message.getValue(Param.TOKEN).equals(value));
+        assertNull(message.getValue("unknown"));
+    }
+    
     @Test
     void testWithUser() {
         //given
@@ -329,4 +348,47 @@ class MessageTests {
         //then
         assertTrue(actualMessage.contains(expectedMessage));
     }
+    
+    @Test
+    void testPushAllMissingMessage() {
+        //given
+        String expectedMessage = "Message is required for a message";
+        
+        //when
+        Exception exception = assertThrows(NullPointerException.class, () -> {
+            JPushover.messageAPI().withToken("foo").pushAll(List.of("bar"));
+        });
+        String actualMessage = exception.getMessage();
+     
+        //then
+        assertTrue(actualMessage.contains(expectedMessage));
+    }
+    
+    @Test
+    void testPushAsyncMissingToken() throws Exception {
+        //given
+        String expectedMessage = "Token is required for a message";
+        
+        //when
+        CompletableFuture<PushoverResponse> future = JPushover.messageAPI().pushAsync();
+        Exception exception = assertThrows(ExecutionException.class, future::get);
+     
+        //then
+        assertTrue(exception.getCause() instanceof NullPointerException);
+        assertTrue(exception.getCause().getMessage().contains(expectedMessage));
+    }
+
+    @Test
+    void testCopy() {
+        //given
+        Message message = JPushover.messageAPI().withToken("foo").withMessage("bar");
+
+        //when
+        Message copy = message.copy().withMessage("baz");
+
+        //then
+        assertEquals("bar", message.getValue(Param.MESSAGE));
+        assertEquals("baz", copy.getValue(Param.MESSAGE));
+        assertEquals("foo", copy.getValue(Param.TOKEN));
+    }
 }
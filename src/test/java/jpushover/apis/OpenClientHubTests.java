@@ -0,0 +1,253 @@
+package jpushover.apis;
+
+import de.svenkubiak.jpushover.apis.OpenClientHub;
+import de.svenkubiak.jpushover.enums.SessionState;
+import de.svenkubiak.jpushover.listener.MessageListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenClientHubTests {
+    private final Map<String, Socket> connections = new ConcurrentHashMap<>();
+    private ServerSocket server;
+    private OpenClientHub hub;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread.ofVirtual().start(() -> handshake(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+
+        hub = OpenClientHub.create()
+                .withUrl("ws://localhost:" + server.getLocalPort() + "/push")
+                .withBackoff(Duration.ofMillis(10), Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        hub.close();
+        server.close();
+        for (Socket socket : connections.values()) {
+            socket.close();
+        }
+    }
+
+    @Test
+    void testOpen() throws Exception {
+        //given
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        //when
+        for (int i = 0; i < 20; i++) {
+            String deviceId = "device" + i;
+            hub.open("mySecret", deviceId, listener(() -> events.add(deviceId), () -> { }));
+        }
+        await(() -> connections.size() == 20);
+        for (Socket socket : connections.values()) {
+            send(socket, '!');
+        }
+
+        //then
+        await(() -> events.size() == 20);
+        assertEquals(20, hub.size());
+        assertEquals(SessionState.CONNECTED, hub.getSession("device7").orElseThrow().getState());
+    }
+
+    @Test
+    void testOrdering() throws Exception {
+        //given
+        List<String> events = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        hub.open("mySecret", "myDevice", listener(() -> {
+            events.add("message");
+            awaitLatch(release);
+        }, () -> events.add("error")));
+        await(() -> connections.containsKey("myDevice"));
+
+        //when
+        send(connections.get("myDevice"), '!');
+        await(() -> events.size() == 1);
+        send(connections.get("myDevice"), '!');
+        send(connections.get("myDevice"), '!');
+        send(connections.get("myDevice"), 'E');
+        Thread.sleep(100);
+        int blocked = events.size();
+        release.countDown();
+
+        //then
+        await(() -> events.contains("error"));
+        assertEquals(1, blocked);
+        assertEquals(List.of("message", "message", "error"), events);
+    }
+
+    @Test
+    void testConnectionError() throws Exception {
+        //given
+        List<String> events = new CopyOnWriteArrayList<>();
+        hub.open("mySecret", "myDevice", listener(() -> { }, () -> events.add("error")));
+        await(() -> connections.containsKey("myDevice"));
+        Socket first = connections.get("myDevice");
+
+        //when
+        first.setSoLinger(true, 0);
+        first.close();
+
+        //then
+        await(() -> events.contains("error"));
+        await(() -> connections.get("myDevice") != first && hub.getSession("myDevice").orElseThrow().getState() == SessionState.CONNECTED);
+    }
+
+    @Test
+    void testSlowDevice() throws Exception {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fast = new CountDownLatch(1);
+        hub.open("mySecret", "slowDevice", listener(() -> awaitLatch(release), () -> { }));
+        hub.open("mySecret", "fastDevice", listener(fast::countDown, () -> { }));
+        await(() -> connections.size() == 2);
+
+        //when
+        send(connections.get("slowDevice"), '!');
+        send(connections.get("fastDevice"), '!');
+
+        //then
+        assertTrue(fast.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void testClose() throws Exception {
+        //given
+        hub.open("mySecret", "myDevice", listener(() -> { }, () -> { }));
+
+        //when
+        boolean closed = hub.close("myDevice");
+
+        //then
+        assertTrue(closed);
+        assertFalse(hub.close("myDevice"));
+        assertEquals(0, hub.size());
+        hub.close();
+        assertThrows(IllegalArgumentException.class, () -> hub.open("mySecret", "myDevice", listener(() -> { }, () -> { })));
+    }
+
+    private static MessageListener listener(Runnable onMessage, Runnable onError) {
+        return new MessageListener() {
+            @Override
+            public void onMessage() {
+                onMessage.run();
+            }
+
+            @Override
+            public void onError() {
+                onError.run();
+            }
+        };
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handshake(Socket socket) {
+        try {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            String key = null;
+            for (String line : readHeaders(in).split("\r\n")) {
+                if (line.toLowerCase().startsWith("sec-websocket-key:")) {
+                    key = line.substring(line.indexOf(':') + 1).trim();
+                }
+            }
+            String accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                    .digest((key + "258EAFA5-E914-47DA-95CA-C5AB0DC85B11").getBytes(StandardCharsets.US_ASCII)));
+            out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\nSec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String[] login = readFrame(in).split(":");
+            if (login.length > 1) {
+                connections.put(login[1], socket);
+            }
+        } catch (IOException | NoSuchAlgorithmException e) {
+            // connection closed by the test
+        }
+    }
+
+    private static String readHeaders(InputStream in) throws IOException {
+        var headers = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("connection closed");
+            }
+            headers.write(b);
+            matched = (b == '\r' && matched % 2 == 0) || (b == '\n' && matched % 2 == 1) ? matched + 1 : 0;
+        }
+
+        return headers.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String readFrame(InputStream in) throws IOException {
+        in.read();
+        int length = in.read() & 0x7f;
+        byte[] mask = in.readNBytes(4);
+        byte[] payload = in.readNBytes(length);
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] ^= mask[i % 4];
+        }
+
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    private static void send(Socket socket, char frame) throws IOException {
+        synchronized (socket) {
+            socket.getOutputStream().write(new byte[] {(byte) 0x82, 1, (byte) frame});
+            socket.getOutputStream().flush();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+}
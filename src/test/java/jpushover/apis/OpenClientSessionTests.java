@@ -0,0 +1,317 @@
+package jpushover.apis;
+
+import de.svenkubiak.jpushover.apis.OpenClientSession;
+import de.svenkubiak.jpushover.enums.SessionState;
+import de.svenkubiak.jpushover.listener.MessageListener;
+import de.svenkubiak.jpushover.listener.OpenClientListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenClientSessionTests {
+    private final List<Socket> connections = new CopyOnWriteArrayList<>();
+    private final List<String> logins = new CopyOnWriteArrayList<>();
+    private final List<SessionState> states = new CopyOnWriteArrayList<>();
+    private final AtomicInteger messages = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private ServerSocket server;
+    private OpenClientSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread.ofVirtual().start(() -> handshake(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+
+        session = OpenClientSession.create("mySecret", "myDevice", new MessageListener() {
+                    @Override
+                    public void onMessage() {
+                        messages.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError() {
+                        errors.incrementAndGet();
+                    }
+                })
+                .withUrl("ws://localhost:" + server.getLocalPort() + "/push")
+                .withBackoff(Duration.ofMillis(10), Duration.ofMillis(50))
+                .withSessionListener((previous, current) -> states.add(current));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        session.close();
+        server.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+
+    @Test
+    void testOpen() throws Exception {
+        //when
+        session.open();
+        await(() -> session.getState() == SessionState.CONNECTED && logins.size() == 1);
+        send(connections.getFirst(), '!');
+
+        //then
+        await(() -> messages.get() == 1);
+        assertEquals("login:myDevice:mySecret\n", logins.getFirst());
+        assertEquals(List.of(SessionState.CONNECTING, SessionState.CONNECTED), states);
+    }
+
+    @Test
+    void testReload() throws Exception {
+        //given
+        session.open();
+        await(() -> logins.size() == 1);
+
+        //when
+        send(connections.getFirst(), 'R');
+
+        //then
+        await(() -> logins.size() == 2 && session.getState() == SessionState.CONNECTED);
+        assertEquals(1, session.getReconnects());
+        assertEquals(List.of(SessionState.CONNECTING, SessionState.CONNECTED, SessionState.RECONNECTING, SessionState.CONNECTING, SessionState.CONNECTED), states);
+        assertEquals(0, errors.get());
+    }
+
+    @Test
+    void testDroppedConnection() throws Exception {
+        //given
+        session.open();
+        await(() -> logins.size() == 1);
+
+        //when
+        connections.getFirst().close();
+
+        //then
+        await(() -> logins.size() == 2 && session.getState() == SessionState.CONNECTED);
+    }
+
+    @Test
+    void testConnectionError() throws Exception {
+        //given
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        session.close();
+        session = OpenClientSession.create("mySecret", "myDevice", new OpenClientListener() {
+                    @Override
+                    public void onConnectionError(Throwable error) {
+                        failures.add(error);
+                    }
+                })
+                .withUrl("ws://localhost:" + server.getLocalPort() + "/push")
+                .withBackoff(Duration.ofMillis(10), Duration.ofMillis(50));
+        session.open();
+        await(() -> logins.size() == 1);
+
+        //when
+        Socket socket = connections.getFirst();
+        socket.setSoLinger(true, 0);
+        socket.close();
+
+        //then
+        await(() -> !failures.isEmpty());
+        await(() -> logins.size() == 2 && session.getState() == SessionState.CONNECTED);
+    }
+
+    @Test
+    void testKeepAliveTimeout() throws Exception {
+        //given
+        session.withKeepAliveTimeout(Duration.ofMillis(300));
+
+        //when
+        session.open();
+        await(() -> logins.size() == 1);
+        for (int i = 0; i < 4; i++) {
+            send(connections.getFirst(), '#');
+            Thread.sleep(100);
+        }
+        boolean kept = logins.size() == 1;
+
+        //then
+        await(() -> logins.size() == 2);
+        assertTrue(kept);
+    }
+
+    @Test
+    void testPermanentError() throws Exception {
+        //given
+        session.open();
+        await(() -> logins.size() == 1);
+
+        //when
+        send(connections.getFirst(), 'E');
+
+        //then
+        await(() -> session.getState() == SessionState.FAILED);
+        Thread.sleep(100);
+        assertEquals(1, errors.get());
+        assertEquals(1, logins.size());
+    }
+
+    @Test
+    void testClose() throws Exception {
+        //given
+        session.open();
+        await(() -> logins.size() == 1);
+
+        //when
+        session.close();
+
+        //then
+        assertEquals(SessionState.CLOSED, session.getState());
+        Thread.sleep(100);
+        assertEquals(1, logins.size());
+    }
+
+    @Test
+    void testReopen() throws Exception {
+        //given
+        session.open();
+        await(() -> logins.size() == 1);
+        session.close();
+
+        //when
+        session.open();
+
+        //then
+        await(() -> logins.size() == 2 && session.getState() == SessionState.CONNECTED);
+    }
+
+    @Test
+    void testFragmentedFrame() throws Exception {
+        //given
+        session.open();
+        await(() -> logins.size() == 1);
+
+        //when
+        Socket socket = connections.getFirst();
+        socket.getOutputStream().write(new byte[] {0x02, 1, '!', (byte) 0x80, 0});
+        socket.getOutputStream().flush();
+
+        //then
+        await(() -> messages.get() == 1);
+    }
+
+    @Test
+    void testSessionReplaced() throws Exception {
+        //given
+        List<String> events = new CopyOnWriteArrayList<>();
+        session.close();
+        session = OpenClientSession.create("mySecret", "myDevice", new OpenClientListener() {
+                    @Override
+                    public void onKeepAlive() {
+                        events.add("keepAlive");
+                    }
+
+                    @Override
+                    public void onSessionReplaced() {
+                        events.add("sessionReplaced");
+                    }
+                })
+                .withUrl("ws://localhost:" + server.getLocalPort() + "/push");
+        session.open();
+        await(() -> logins.size() == 1);
+
+        //when
+        send(connections.getFirst(), '#');
+        send(connections.getFirst(), 'A');
+
+        //then
+        await(() -> session.getState() == SessionState.FAILED);
+        await(() -> events.size() == 2);
+        assertEquals(List.of("keepAlive", "sessionReplaced"), events);
+    }
+
+    private void handshake(Socket socket) {
+        try {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            String key = null;
+            for (String line : readHeaders(in).split("\r\n")) {
+                if (line.toLowerCase().startsWith("sec-websocket-key:")) {
+                    key = line.substring(line.indexOf(':') + 1).trim();
+                }
+            }
+            String accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                    .digest((key + "258EAFA5-E914-47DA-95CA-C5AB0DC85B11").getBytes(StandardCharsets.US_ASCII)));
+            out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\nSec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            connections.add(socket);
+            logins.add(readFrame(in));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            // connection closed by the test
+        }
+    }
+
+    private static String readHeaders(InputStream in) throws IOException {
+        var headers = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("connection closed");
+            }
+            headers.write(b);
+            matched = (b == '\r' && matched % 2 == 0) || (b == '\n' && matched % 2 == 1) ? matched + 1 : 0;
+        }
+
+        return headers.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String readFrame(InputStream in) throws IOException {
+        in.read();
+        int length = in.read() & 0x7f;
+        byte[] mask = in.readNBytes(4);
+        byte[] payload = in.readNBytes(length);
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] ^= mask[i % 4];
+        }
+
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    private static void send(Socket socket, char frame) throws IOException {
+        socket.getOutputStream().write(new byte[] {(byte) 0x82, 1, (byte) frame});
+        socket.getOutputStream().flush();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+}
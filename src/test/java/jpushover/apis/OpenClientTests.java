@@ -2,11 +2,27 @@ package jpushover.apis;
 
 import de.svenkubiak.jpushover.JPushover;
 import de.svenkubiak.jpushover.apis.OpenClient;
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.StubTransport;
+import de.svenkubiak.jpushover.http.Transports;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class OpenClientTests {
+
+    @AfterEach
+    void tearDown() {
+        Transports.reset();
+    }
+
     @Test
     void testConstruct() {
         //given
@@ -15,4 +31,47 @@ public class OpenClientTests {
         //then
         assertNotNull(openClient);
     }
+
+    @Test
+    void testMessages() throws JPushoverException {
+        //given
+        Transports.setDefault(StubTransport.create().withResponse(200,
+                "{\"messages\":[{\"id\":1,\"message\":\"foo\"},{\"id\":2,\"message\":\"bar\"},{\"id\":3,\"message\":\"baz\"}],\"status\":1}"));
+        List<String> messages = new ArrayList<>();
+
+        //when
+        int count = JPushover.openClientAPI().messages("mySecret", "myDevice", message -> messages.add(message.getId() + ":" + message.getMessage()));
+
+        //then
+        assertEquals(3, count);
+        assertEquals(List.of("1:foo", "2:bar", "3:baz"), messages);
+    }
+
+    @Test
+    void testNoMessages() throws JPushoverException {
+        //given
+        Transports.setDefault(StubTransport.create().withResponse(200, "{\"messages\":[],\"status\":1}"));
+        List<String> messages = new ArrayList<>();
+
+        //when
+        int count = JPushover.openClientAPI().messages("mySecret", "myDevice", message -> messages.add(message.getMessage()));
+
+        //then
+        assertEquals(0, count);
+        assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    void testMessagesFailure() {
+        //given
+        Transports.setDefault(StubTransport.create().withResponse(400, "{\"secret\":\"invalid\",\"status\":0}"));
+
+        //when
+        Exception exception = assertThrows(JPushoverException.class, () -> {
+            JPushover.openClientAPI().messages("mySecret", "myDevice", message -> { });
+        });
+
+        //then
+        assertTrue(exception.getMessage().contains("HTTP status 400"));
+    }
 }
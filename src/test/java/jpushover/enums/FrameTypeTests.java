@@ -0,0 +1,19 @@
+package jpushover.enums;
+
+import de.svenkubiak.jpushover.enums.FrameType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FrameTypeTests {
+    @Test
+    void testOf() {
+        for (FrameType frameType : FrameType.values()) {
+            assertEquals(frameType, FrameType.of(frameType.toByte()));
+        }
+        assertEquals(FrameType.NEW_MESSAGE, FrameType.of((byte) '!'));
+        assertEquals(FrameType.SESSION_REPLACED, FrameType.of((byte) 'A'));
+        assertNull(FrameType.of((byte) 'x'));
+    }
+}
@@ -4,6 +4,7 @@ import de.svenkubiak.jpushover.enums.Param;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class ParamTests {
 
@@ -30,4 +31,11 @@ class ParamTests {
         assertEquals(Param.USER.toString(), "user");
         assertEquals(Param.TTL.toString(), "ttl");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFromString() {
+        assertEquals(Param.URL_TITLE, Param.fromString("url_title"));
+        assertEquals(Param.TTL, Param.fromString("ttl"));
+        assertNull(Param.fromString("foo"));
+    }
+}
@@ -0,0 +1,22 @@
+package jpushover.enums;
+
+import de.svenkubiak.jpushover.enums.Priority;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PriorityTests {
+    @Test
+    void testFromString() {
+        assertEquals(Priority.EMERGENCY, Priority.fromString("2"));
+        assertEquals(Priority.LOWEST, Priority.fromString("-2"));
+        assertNull(Priority.fromString("3"));
+    }
+
+    @Test
+    void testToInt() {
+        assertEquals(2, Priority.EMERGENCY.toInt());
+        assertEquals(-1, Priority.LOW.toInt());
+    }
+}
@@ -14,7 +14,19 @@ class UrlTests {
         assertEquals(Url.GLANCES.toString(), "https://api.pushover.net/1/glances.json");
         assertEquals(Url.LOGIN.toString(), "https://api.pushover.net/1/users/login.json");
         assertEquals(Url.MESSAGES.toString(), "https://api.pushover.net/1/messages.json");
+        assertEquals(Url.RECEIPT.toString(), "https://api.pushover.net/1/receipts/###RECEIPT###.json");
+        assertEquals(Url.RECEIPT_CANCEL.toString(), "https://api.pushover.net/1/receipts/###RECEIPT###/cancel.json");
+        assertEquals(Url.RECEIPT_CANCEL_BY_TAG.toString(), "https://api.pushover.net/1/receipts/cancel_by_tag/###TAG###.json");
         assertEquals(Url.VALIDATE.toString(), "https://api.pushover.net/1/users/validate.json");
         assertEquals(Url.WEBSOCKET.toString(), "wss://client.pushover.net/push");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testToEndpoint() {
+        assertEquals(Url.RECEIPT.toString(), Url.toEndpoint("https://api.pushover.net/1/receipts/r1234.json?token=secretToken"));
+        assertEquals(Url.RECEIPT_CANCEL.toString(), Url.toEndpoint("https://api.pushover.net/1/receipts/r1234/cancel.json"));
+        assertEquals(Url.RECEIPT_CANCEL_BY_TAG.toString(), Url.toEndpoint("https://api.pushover.net/1/receipts/cancel_by_tag/db.json"));
+        assertEquals(Url.MESSAGES.toString(), Url.toEndpoint("https://api.pushover.net/1/messages.json?secret=foo&device_id=bar"));
+        assertEquals("http://localhost:8080/other.json", Url.toEndpoint("http://localhost:8080/other.json?token=foo"));
+    }
+}
@@ -0,0 +1,84 @@
+package jpushover.http;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.JPushover;
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.BaseUrlTransport;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.Transports;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaseUrlTransportTests {
+    private static volatile String path;
+    private static HttpServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            path = exchange.getRequestURI().toString();
+            byte[] response = "{\"status\":1,\"request\":\"foo\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Transports.reset();
+    }
+
+    @Test
+    void testPush() throws JPushoverException {
+        //given
+        Transports.setDefault(BaseUrlTransport.create("http://localhost:" + server.getAddress().getPort() + "/stub"));
+
+        //when
+        PushoverResponse pushoverResponse = JPushover.messageAPI()
+                .withToken("baseUrlToken")
+                .withUser("baseUrlUser")
+                .withMessage("foo")
+                .push();
+
+        //then
+        assertTrue(pushoverResponse.isSuccessful());
+        assertEquals("/stub/1/messages.json", path);
+    }
+
+    @Test
+    void testRewrite() {
+        //given
+        BaseUrlTransport transport = BaseUrlTransport.create("http://localhost:8080/");
+
+        //when
+        URI uri = transport.rewrite(URI.create("https://api.pushover.net/1/messages.json?secret=foo&device_id=bar"));
+
+        //then
+        assertEquals("http://localhost:8080/1/messages.json?secret=foo&device_id=bar", uri.toString());
+    }
+
+    @Test
+    void testInvalidBaseUrl() {
+        assertThrows(IllegalArgumentException.class, () -> BaseUrlTransport.create("localhost"));
+    }
+}
@@ -0,0 +1,156 @@
+package jpushover.http;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.http.HttpClientPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class HttpClientPoolTests {
+    private static final Set<Integer> CONNECTIONS = ConcurrentHashMap.newKeySet();
+    private static final CountDownLatch RECEIVED = new CountDownLatch(1);
+    private static final CountDownLatch RELEASED = new CountDownLatch(1);
+    private static HttpServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            CONNECTIONS.add(exchange.getRemoteAddress().getPort());
+            byte[] response = "{\"status\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            RECEIVED.countDown();
+            try {
+                RELEASED.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"status\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+        HttpClientPool.getInstance().close();
+    }
+
+    @Test
+    void testSendReusesConnection() throws IOException, InterruptedException {
+        //given
+        HttpClientPool pool = HttpClientPool.getInstance();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getAddress().getPort() + "/"))
+                .GET()
+                .build();
+        CONNECTIONS.clear();
+
+        //when
+        for (int i = 0; i < 5; i++) {
+            HttpResponse<String> response = pool.send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+            assertEquals(200, response.statusCode());
+        }
+
+        //then
+        assertEquals(1, pool.size());
+        assertEquals(1, CONNECTIONS.size());
+    }
+
+    @Test
+    void testClose() throws IOException, InterruptedException {
+        //given
+        HttpClientPool pool = HttpClientPool.getInstance();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getAddress().getPort() + "/"))
+                .GET()
+                .build();
+        pool.send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+
+        //when
+        pool.close();
+
+        //then
+        assertEquals(0, pool.size());
+        assertEquals(200, pool.send(request, HttpResponse.BodyHandlers.ofString(), null, 0).statusCode());
+    }
+
+    @Test
+    void testCloseKeepsInFlightRequests() throws Exception {
+        //given
+        HttpClientPool pool = HttpClientPool.getInstance();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getAddress().getPort() + "/slow"))
+                .GET()
+                .build();
+        CompletableFuture<HttpResponse<String>> response = pool.sendAsync(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+        RECEIVED.await();
+
+        //when
+        assertTimeoutPreemptively(Duration.ofSeconds(5), pool::close);
+        RELEASED.countDown();
+
+        //then
+        assertEquals(0, pool.size());
+        assertEquals(200, response.get(5, TimeUnit.SECONDS).statusCode());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        //given
+        HttpClientPool pool = HttpClientPool.getInstance();
+
+        //then
+        assertThrows(IllegalArgumentException.class, () -> pool.withMaxConnections(0));
+        assertThrows(IllegalArgumentException.class, () -> pool.withIdleTimeout(Duration.ZERO));
+    }
+
+    @Test
+    void testHttp2FallsBackToHttp11() throws IOException, InterruptedException {
+        //given
+        HttpClientPool pool = HttpClientPool.getInstance().withVersion(HttpClient.Version.HTTP_2);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getAddress().getPort() + "/"))
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+
+        //when
+        HttpResponse<String> response;
+        try {
+            response = pool.send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+        } finally {
+            pool.withVersion(HttpClient.Version.HTTP_1_1);
+        }
+
+        //then
+        assertEquals(200, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+    }
+}
@@ -0,0 +1,111 @@
+package jpushover.http;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.http.BatchResponse;
+import de.svenkubiak.jpushover.http.PushoverRequest;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PushoverRequestTests {
+    private static final Queue<String> REQUESTS = new ConcurrentLinkedQueue<>();
+    private static HttpServer server;
+    private static String url;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            REQUESTS.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] response = "{\"status\":1,\"request\":\"foo\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("X-Limit-App-Limit", "10000");
+            exchange.getResponseHeaders().add("X-Limit-App-Remaining", "9999");
+            exchange.getResponseHeaders().add("X-Limit-App-Reset", "1393653600");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/1/messages.json";
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void clear() {
+        REQUESTS.clear();
+    }
+
+    @Test
+    void testPush() throws Exception {
+        //given
+        Map<Param, String> body = new EnumMap<>(Param.class);
+        body.put(Param.TOKEN, "myToken");
+        body.put(Param.USER, "myUser");
+
+        //when
+        PushoverResponse response = new PushoverRequest().push(url, body, null, 0);
+
+        //then
+        assertTrue(response.isSuccessful());
+        assertEquals(200, response.getHttpStatus());
+        assertEquals(10000, response.getLimit());
+        assertEquals(9999, response.getRemaining());
+        assertEquals(1393653600, response.getReset());
+        assertEquals("{\"token\":\"myToken\",\"user\":\"myUser\"}", REQUESTS.poll());
+    }
+
+    @Test
+    void testPushAll() throws Exception {
+        //given
+        Map<Param, String> body = new EnumMap<>(Param.class);
+        body.put(Param.MESSAGE, "myMessage");
+        body.put(Param.TOKEN, "myToken");
+        body.put(Param.USER, "ignored");
+
+        //when
+        BatchResponse response = new PushoverRequest().pushAll(url, body, List.of("a", "b", "c", "a"), 2, null, 0);
+
+        //then
+        assertTrue(response.isSuccessful());
+        assertEquals(3, response.getSuccessful());
+        assertEquals(3, REQUESTS.size());
+        assertTrue(REQUESTS.contains("{\"message\":\"myMessage\",\"token\":\"myToken\",\"user\":\"b\"}"));
+        assertTrue(response.getResponse("c").isSuccessful());
+    }
+
+    @Test
+    void testPushAsync() throws Exception {
+        //given
+        Map<Param, String> body = new EnumMap<>(Param.class);
+        body.put(Param.TOKEN, "myToken");
+        body.put(Param.USER, "myUser");
+
+        //when
+        PushoverResponse response = new PushoverRequest().pushAsync(url, body, null, 0).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(response.isSuccessful());
+        assertEquals(9999, response.getRemaining());
+        assertEquals("{\"token\":\"myToken\",\"user\":\"myUser\"}", REQUESTS.poll());
+    }
+}
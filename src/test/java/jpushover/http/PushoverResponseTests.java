@@ -3,6 +3,7 @@ package jpushover.http;
 import de.svenkubiak.jpushover.http.PushoverResponse;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,4 +31,41 @@ class PushoverResponseTests {
         assertEquals(30, response.getReset());
         assertEquals(body, response.getResponse());
     }
+
+    @Test
+    void testTypedFields() {
+        //given
+        PushoverResponse response = PushoverResponse.create()
+                .response("{\"status\":1,\"request\":\"647d2300-702c-4b38-8b2f-d56326ae460b\",\"receipt\":\"rLqVuqTRh62UzxtmqiaLzQmVcPgiCy\",\"devices\":[\"iphone\",\"desktop\"]}");
+
+        //then
+        assertEquals(1, response.getStatus());
+        assertEquals("647d2300-702c-4b38-8b2f-d56326ae460b", response.getRequest());
+        assertEquals("rLqVuqTRh62UzxtmqiaLzQmVcPgiCy", response.getReceipt());
+        assertEquals(List.of("iphone", "desktop"), response.getDevices());
+        assertEquals(List.of(), response.getErrors());
+    }
+
+    @Test
+    void testErrors() {
+        //given
+        PushoverResponse response = PushoverResponse.create()
+                .response("{\"user\":\"invalid\",\"errors\":[\"user identifier is invalid\"],\"status\":0}");
+
+        //then
+        assertEquals(0, response.getStatus());
+        assertNull(response.getReceipt());
+        assertEquals(List.of("user identifier is invalid"), response.getErrors());
+    }
+
+    @Test
+    void testWithoutBody() {
+        //given
+        PushoverResponse response = PushoverResponse.create();
+
+        //then
+        assertEquals(0, response.getStatus());
+        assertNull(response.getRequest());
+        assertEquals(List.of(), response.getDevices());
+    }
 }
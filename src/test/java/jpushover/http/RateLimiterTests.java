@@ -0,0 +1,82 @@
+package jpushover.http;
+
+import de.svenkubiak.jpushover.enums.RateLimitMode;
+import de.svenkubiak.jpushover.exceptions.RateLimitException;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTests {
+
+    @AfterEach
+    void reset() {
+        RateLimiter.getInstance()
+            .withMode(RateLimitMode.FAIL)
+            .withMaxWait(Duration.ofMinutes(1))
+            .withPacing(false)
+            .clear();
+    }
+
+    @Test
+    void testUnknownToken() {
+        //given
+        RateLimiter rateLimiter = RateLimiter.getInstance();
+
+        //then
+        assertEquals(-1, rateLimiter.getRemaining("unknown"));
+        assertDoesNotThrow(() -> rateLimiter.acquire("unknown"));
+    }
+
+    @Test
+    void testUpdateAndAcquire() throws Exception {
+        //given
+        RateLimiter rateLimiter = RateLimiter.getInstance();
+        long reset = Instant.now().plusSeconds(3600).getEpochSecond();
+
+        //when
+        rateLimiter.update("token", PushoverResponse.create().httpStatus(200).limit(10).remaining(2).reset(reset));
+        rateLimiter.acquire("token");
+
+        //then
+        assertEquals(1, rateLimiter.getRemaining("token"));
+    }
+
+    @Test
+    void testFailWhenExhausted() {
+        //given
+        RateLimiter rateLimiter = RateLimiter.getInstance();
+        long reset = Instant.now().plusSeconds(3600).getEpochSecond();
+
+        //when
+        rateLimiter.update("token", PushoverResponse.create().httpStatus(429).limit(10).remaining(0).reset(reset));
+        RateLimitException exception = assertThrows(RateLimitException.class, () -> rateLimiter.acquire("token"));
+
+        //then
+        assertEquals(reset, exception.getReset());
+    }
+
+    @Test
+    void testQueueWhenExhausted() throws Exception {
+        //given
+        RateLimiter rateLimiter = RateLimiter.getInstance().withMode(RateLimitMode.QUEUE).withMaxWait(Duration.ofSeconds(5));
+        long reset = Instant.now().plusSeconds(1).getEpochSecond();
+        rateLimiter.update("token", PushoverResponse.create().httpStatus(200).limit(10).remaining(0).reset(reset));
+
+        //when
+        long start = System.currentTimeMillis();
+        rateLimiter.acquire("token");
+
+        //then
+        assertTrue(System.currentTimeMillis() >= Instant.ofEpochSecond(reset).toEpochMilli() - 5);
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+}
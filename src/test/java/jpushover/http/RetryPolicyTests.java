@@ -0,0 +1,177 @@
+package jpushover.http;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.http.PushoverRequest;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.RetryPolicy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTests {
+    private static final AtomicInteger REQUESTS = new AtomicInteger();
+    private static final AtomicInteger FAILURES = new AtomicInteger();
+    private static volatile int failureStatus;
+    private static HttpServer server;
+    private static String url;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            REQUESTS.incrementAndGet();
+            var status = FAILURES.getAndDecrement() > 0 ? failureStatus : 200;
+            byte[] response = "{\"status\":1,\"request\":\"foo\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/1/messages.json";
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        REQUESTS.set(0);
+        RetryPolicy.setInstance(RetryPolicy.create().withBaseDelay(Duration.ofMillis(1)).withMaxDelay(Duration.ofMillis(10)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        FAILURES.set(0);
+        RetryPolicy.setInstance(RetryPolicy.none());
+    }
+
+    @Test
+    void testRetryServerError() throws Exception {
+        //given
+        fail(503, 2);
+
+        //when
+        PushoverResponse response = new PushoverRequest().push(url, body(), null, 0);
+
+        //then
+        assertTrue(response.isSuccessful());
+        assertEquals(3, REQUESTS.get());
+    }
+
+    @Test
+    void testRetryAsync() throws Exception {
+        //given
+        fail(500, 1);
+
+        //when
+        PushoverResponse response = new PushoverRequest().pushAsync(url, body(), null, 0).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(response.isSuccessful());
+        assertEquals(2, REQUESTS.get());
+    }
+
+    @Test
+    void testClientErrorIsFatal() throws Exception {
+        //given
+        fail(400, 1);
+
+        //when
+        PushoverResponse response = new PushoverRequest().push(url, body(), null, 0);
+
+        //then
+        assertEquals(400, response.getHttpStatus());
+        assertEquals(1, REQUESTS.get());
+    }
+
+    @Test
+    void testMaxAttempts() throws Exception {
+        //given
+        fail(503, 5);
+
+        //when
+        PushoverResponse response = new PushoverRequest().push(url, body(), null, 0);
+
+        //then
+        assertEquals(503, response.getHttpStatus());
+        assertEquals(3, REQUESTS.get());
+    }
+
+    @Test
+    void testRetryBudget() throws Exception {
+        //given
+        RetryPolicy.setInstance(RetryPolicy.create().withBaseDelay(Duration.ofMillis(1)).withRetryBudget(0, 1));
+        fail(503, 10);
+
+        //when
+        new PushoverRequest().push(url, body(), null, 0);
+        new PushoverRequest().push(url, body(), null, 0);
+
+        //then
+        assertEquals(3, REQUESTS.get());
+        assertEquals(0, RetryPolicy.getInstance().getBudget());
+    }
+
+    @Test
+    void testNone() throws Exception {
+        //given
+        RetryPolicy.setInstance(RetryPolicy.none());
+        fail(503, 1);
+
+        //when
+        PushoverResponse response = new PushoverRequest().push(url, body(), null, 0);
+
+        //then
+        assertEquals(503, response.getHttpStatus());
+        assertEquals(1, REQUESTS.get());
+    }
+
+    @Test
+    void testIsRetryable() {
+        //given
+        RetryPolicy retryPolicy = RetryPolicy.create();
+
+        //then
+        assertTrue(retryPolicy.isRetryable(new HttpTimeoutException("timeout")));
+        assertTrue(retryPolicy.isRetryable(new ConnectException("refused")));
+        assertTrue(retryPolicy.isRetryable(new IOException("Connection reset")));
+        assertFalse(retryPolicy.isRetryable(new InterruptedException()));
+        assertFalse(retryPolicy.isRetryable((Throwable) null));
+        assertTrue(retryPolicy.isRetryable(new PushoverResponse().httpStatus(429)));
+        assertFalse(retryPolicy.isRetryable(new PushoverResponse().httpStatus(404)));
+    }
+
+    private static void fail(int status, int times) {
+        failureStatus = status;
+        FAILURES.set(times);
+    }
+
+    private static Map<Param, String> body() {
+        Map<Param, String> body = new EnumMap<>(Param.class);
+        body.put(Param.TOKEN, "retryToken");
+        body.put(Param.USER, "myUser");
+
+        return body;
+    }
+}
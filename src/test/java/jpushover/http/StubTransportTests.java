@@ -0,0 +1,111 @@
+package jpushover.http;
+
+import de.svenkubiak.jpushover.JPushover;
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.StubTransport;
+import de.svenkubiak.jpushover.http.Transports;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubTransportTests {
+
+    @AfterEach
+    void tearDown() {
+        Transports.reset();
+    }
+
+    @Test
+    void testPush() throws JPushoverException {
+        //given
+        StubTransport stubTransport = StubTransport.create();
+        Transports.setDefault(stubTransport);
+
+        //when
+        PushoverResponse pushoverResponse = JPushover.messageAPI()
+                .withToken("stubToken")
+                .withUser("stubUser")
+                .withMessage("foo")
+                .push();
+
+        //then
+        assertTrue(pushoverResponse.isSuccessful());
+        assertTrue(pushoverResponse.getResponse().contains("\"status\":1"));
+        assertEquals(1, stubTransport.getRequests());
+    }
+
+    @Test
+    void testResponse() throws Exception {
+        //given
+        StubTransport stubTransport = StubTransport.create().withResponse(400, "{\"status\":0}");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("https://api.pushover.net/1/messages.json")).build();
+
+        //when
+        HttpResponse<String> response = stubTransport.send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+
+        //then
+        assertEquals(400, response.statusCode());
+        assertEquals("{\"status\":0}", response.body());
+        assertEquals(request.uri(), response.uri());
+    }
+
+    @Test
+    void testLatency() throws InterruptedException, ExecutionException {
+        //given
+        StubTransport stubTransport = StubTransport.create().withLatency(Duration.ofMillis(100));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("https://api.pushover.net/1/messages.json")).build();
+
+        //when
+        long start = System.nanoTime();
+        var future = stubTransport.sendAsync(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+        boolean done = future.isDone();
+        future.get();
+
+        //then
+        assertFalse(done);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    void testRateLimit() throws Exception {
+        //given
+        StubTransport stubTransport = StubTransport.create().withRateLimit(2, Duration.ofHours(1));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("https://api.pushover.net/1/messages.json")).build();
+
+        //when
+        HttpResponse<String> first = stubTransport.send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+        stubTransport.send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+        HttpResponse<String> third = stubTransport.send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+
+        //then
+        assertEquals(200, first.statusCode());
+        assertEquals(2, first.headers().firstValueAsLong("X-Limit-App-Limit").orElseThrow());
+        assertEquals(1, first.headers().firstValueAsLong("X-Limit-App-Remaining").orElseThrow());
+        assertTrue(first.headers().firstValueAsLong("X-Limit-App-Reset").orElseThrow() > 0);
+        assertEquals(429, third.statusCode());
+        assertEquals(0, third.headers().firstValueAsLong("X-Limit-App-Remaining").orElseThrow());
+    }
+
+    @Test
+    void testThrottleRate() throws Exception {
+        //given
+        StubTransport stubTransport = StubTransport.create().withThrottleRate(1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("https://api.pushover.net/1/messages.json")).build();
+
+        //when
+        HttpResponse<String> response = stubTransport.send(request, HttpResponse.BodyHandlers.ofString(), null, 0);
+
+        //then
+        assertEquals(429, response.statusCode());
+    }
+}
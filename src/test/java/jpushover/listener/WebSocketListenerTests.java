@@ -0,0 +1,177 @@
+package jpushover.listener;
+
+import de.svenkubiak.jpushover.listener.MessageListener;
+import de.svenkubiak.jpushover.listener.OpenClientListener;
+import de.svenkubiak.jpushover.listener.WebSocketListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebSocketListenerTests {
+    private final List<String> events = new ArrayList<>();
+    private final StubWebSocket webSocket = new StubWebSocket();
+
+    @Test
+    void testFrames() {
+        //given
+        WebSocketListener listener = new WebSocketListener(new RecordingListener());
+
+        //when
+        for (char frame : "#!RAEx".toCharArray()) {
+            listener.onBinary(webSocket, frame(frame), true);
+        }
+
+        //then
+        assertEquals(List.of("keepAlive", "newMessage", "reload", "sessionReplaced", "error"), events);
+        assertEquals(6, webSocket.requested);
+    }
+
+    @Test
+    void testFragments() {
+        //given
+        WebSocketListener listener = new WebSocketListener(new RecordingListener());
+
+        //when
+        listener.onBinary(webSocket, ByteBuffer.allocate(0), false);
+        listener.onBinary(webSocket, frame('!'), false);
+        boolean pending = events.isEmpty();
+        listener.onBinary(webSocket, frame('#'), true);
+        listener.onBinary(webSocket, frame('#'), true);
+
+        //then
+        assertTrue(pending);
+        assertEquals(List.of("newMessage", "keepAlive"), events);
+    }
+
+    @Test
+    void testPosition() {
+        //given
+        WebSocketListener listener = new WebSocketListener(new RecordingListener());
+        ByteBuffer data = ByteBuffer.wrap(new byte[] {'x', '!'}).position(1);
+
+        //when
+        listener.onBinary(webSocket, data, true);
+
+        //then
+        assertEquals(List.of("newMessage"), events);
+        assertEquals(1, data.position());
+    }
+
+    @Test
+    void testMessageListener() {
+        //given
+        WebSocketListener listener = new WebSocketListener(new MessageListener() {
+            @Override
+            public void onMessage() {
+                events.add("message");
+            }
+
+            @Override
+            public void onError() {
+                events.add("error");
+            }
+        });
+
+        //when
+        for (char frame : "#!RAE".toCharArray()) {
+            listener.onBinary(webSocket, frame(frame), true);
+        }
+        listener.onError(webSocket, new IOException("connection reset"));
+
+        //then
+        assertEquals(List.of("message", "error", "error", "error", "error"), events);
+    }
+
+    private static ByteBuffer frame(char frame) {
+        return ByteBuffer.wrap(new byte[] {(byte) frame});
+    }
+
+    private final class RecordingListener implements OpenClientListener {
+        @Override
+        public void onKeepAlive() {
+            events.add("keepAlive");
+        }
+
+        @Override
+        public void onNewMessage() {
+            events.add("newMessage");
+        }
+
+        @Override
+        public void onReload() {
+            events.add("reload");
+        }
+
+        @Override
+        public void onError() {
+            events.add("error");
+        }
+
+        @Override
+        public void onSessionReplaced() {
+            events.add("sessionReplaced");
+        }
+    }
+
+    private static final class StubWebSocket implements WebSocket {
+        private long requested;
+
+        @Override
+        public CompletableFuture<WebSocket> sendText(CharSequence data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendBinary(ByteBuffer data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPing(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPong(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendClose(int statusCode, String reason) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public String getSubprotocol() {
+            return "";
+        }
+
+        @Override
+        public boolean isOutputClosed() {
+            return false;
+        }
+
+        @Override
+        public boolean isInputClosed() {
+            return false;
+        }
+
+        @Override
+        public void abort() {
+            // nothing to abort
+        }
+    }
+}
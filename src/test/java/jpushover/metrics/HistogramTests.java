@@ -0,0 +1,73 @@
+package jpushover.metrics;
+
+import de.svenkubiak.jpushover.metrics.Histogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTests {
+
+    @Test
+    void testEmpty() {
+        //given
+        Histogram histogram = new Histogram();
+
+        //then
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testPercentiles() {
+        //given
+        Histogram histogram = new Histogram();
+
+        //when
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        //then
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5000.5, histogram.getMean());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(100, histogram.getValueAtPercentile(1));
+        assertWithinPrecision(5000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(9900, histogram.getValueAtPercentile(99));
+        assertEquals(10_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testClamp() {
+        //given
+        Histogram histogram = new Histogram();
+
+        //when
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        //then
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals((1L << 40) - 1, histogram.getMax());
+    }
+
+    @Test
+    void testInvalidPercentile() {
+        //given
+        Histogram histogram = new Histogram();
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+
+        //then
+        assertTrue(exception.getMessage().contains("percentile must be between 0 and 100"));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected / 50, "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,145 @@
+package jpushover.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.enums.Url;
+import de.svenkubiak.jpushover.http.BaseUrlTransport;
+import de.svenkubiak.jpushover.http.PushoverRequest;
+import de.svenkubiak.jpushover.http.Transports;
+import de.svenkubiak.jpushover.metrics.JmxExporter;
+import de.svenkubiak.jpushover.metrics.Metrics;
+import de.svenkubiak.jpushover.metrics.MetricsRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsTests {
+    private static HttpServer server;
+    private static String url;
+    private Metrics metrics;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            var status = exchange.getRequestURI().getPath().endsWith("invalid.json") ? 400 : 200;
+            byte[] response = "{\"status\":1,\"request\":\"foo\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("X-Limit-App-Limit", "10000");
+            exchange.getResponseHeaders().add("X-Limit-App-Remaining", "4242");
+            exchange.getResponseHeaders().add("X-Limit-App-Reset", "4102444800");
+            exchange.sendResponseHeaders(status, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/1/";
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        metrics = Metrics.create();
+        Metrics.setRecorder(metrics);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Metrics.setRecorder(new MetricsRecorder() { });
+        JmxExporter.unregister();
+    }
+
+    @Test
+    void testRecording() throws Exception {
+        //when
+        new PushoverRequest().push(url + "messages.json", body(), null, 0);
+        new PushoverRequest().pushAsync(url + "messages.json", body(), null, 0).get(5, TimeUnit.SECONDS);
+        new PushoverRequest().push(url + "invalid.json", body(), null, 0);
+
+        //then
+        assertEquals(2, metrics.getSuccessful());
+        assertEquals(1, metrics.getResponses(400));
+        assertEquals(Map.of(200, 2L, 400, 1L), metrics.getResponses());
+        assertEquals(0, metrics.getFailures());
+        assertEquals(4242, metrics.getRemaining());
+        assertEquals(2, metrics.getLatency(url + "messages.json").getCount());
+        assertEquals(1, metrics.getLatency(url + "invalid.json").getCount());
+    }
+
+    @Test
+    void testEndpoint() throws Exception {
+        //given
+        Transports.setDefault(BaseUrlTransport.create("http://localhost:" + server.getAddress().getPort()));
+
+        //when
+        try {
+            new PushoverRequest().getAsync(Url.RECEIPT.toString().replace("###RECEIPT###", "r1") + "?token=secretToken", null, 0).get(5, TimeUnit.SECONDS);
+            new PushoverRequest().getAsync(Url.RECEIPT.toString().replace("###RECEIPT###", "r2") + "?token=secretToken", null, 0).get(5, TimeUnit.SECONDS);
+        } finally {
+            Transports.reset();
+        }
+
+        //then
+        assertEquals(Map.of(Url.RECEIPT.toString(), 2L), metrics.getLatencies().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getCount())));
+        assertTrue(metrics.getLatencies().keySet().stream().noneMatch(key -> key.contains("secretToken")));
+    }
+
+    @Test
+    void testFailure() {
+        //when
+        try {
+            new PushoverRequest().push("http://localhost:1/1/messages.json", body(), null, 0);
+        } catch (Exception e) {
+            //expected
+        }
+
+        //then
+        assertEquals(1, metrics.getFailures());
+        assertEquals(0, metrics.getSuccessful());
+    }
+
+    @Test
+    void testJmxExporter() throws Exception {
+        //given
+        new PushoverRequest().push(url + "messages.json", body(), null, 0);
+
+        //when
+        ObjectName objectName = JmxExporter.register(metrics);
+        var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        //then
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "Successful"));
+        assertEquals(4242L, mBeanServer.getAttribute(objectName, "Remaining"));
+        assertEquals(0, mBeanServer.getAttribute(objectName, "QueueSize"));
+        assertNotNull(mBeanServer.getAttribute(objectName, "Latencies"));
+    }
+
+    private static Map<Param, String> body() {
+        Map<Param, String> body = new EnumMap<>(Param.class);
+        body.put(Param.TOKEN, "metricsToken");
+        body.put(Param.USER, "myUser");
+
+        return body;
+    }
+}
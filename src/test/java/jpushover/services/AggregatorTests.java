@@ -0,0 +1,158 @@
+package jpushover.services;
+
+import de.svenkubiak.jpushover.JPushover;
+import de.svenkubiak.jpushover.apis.Message;
+import de.svenkubiak.jpushover.enums.DigestFormat;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.enums.Priority;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.services.Aggregator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AggregatorTests {
+    private final Queue<Message> sent = new ConcurrentLinkedQueue<>();
+    private final PushoverResponse response = new PushoverResponse().httpStatus(200).isSuccessful(true);
+
+    @Test
+    void testDigest() throws Exception {
+        //given
+        Aggregator aggregator = aggregator().withLinger(Duration.ofMillis(50));
+
+        //when
+        CompletableFuture<PushoverResponse> first = aggregator.push(message("Disk", "/var is <95%> full"));
+        CompletableFuture<PushoverResponse> second = aggregator.push(message("Disk", "/tmp is full").withPriority(Priority.HIGH));
+        CompletableFuture<PushoverResponse> third = aggregator.push(message("CPU", "load is high").withUser("otherUser"));
+
+        //then
+        assertSame(response, first.get(5, TimeUnit.SECONDS));
+        assertSame(response, third.get(5, TimeUnit.SECONDS));
+        assertSame(response, second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, sent.size());
+
+        Message digest = sent.stream().filter(message -> "myUser".equals(message.getValue(Param.USER))).findFirst().orElseThrow();
+        assertEquals("Disk (2)", digest.getValue(Param.TITLE));
+        assertEquals("<b>Disk</b> /var is &lt;95%&gt; full\n<b>Disk</b> /tmp is full", digest.getValue(Param.MESSAGE));
+        assertEquals(Priority.HIGH.toString(), digest.getValue(Param.PRIORITY));
+        assertEquals("1", digest.getValue(Param.HTML));
+    }
+
+    @Test
+    void testHtmlMessage() {
+        //given
+        Aggregator aggregator = aggregator();
+
+        //when
+        aggregator.push(message("Disk", "/var is <b>full</b> &amp; growing").enableHtml());
+        aggregator.push(message("Disk", "/tmp is <95%> full"));
+        aggregator.flush();
+
+        //then
+        Message digest = sent.poll();
+        assertEquals("<b>Disk</b> /var is <b>full</b> &amp; growing\n<b>Disk</b> /tmp is &lt;95%&gt; full", digest.getValue(Param.MESSAGE));
+        assertEquals("1", digest.getValue(Param.HTML));
+    }
+
+    @Test
+    void testLowPriority() {
+        //given
+        Aggregator aggregator = aggregator();
+
+        //when
+        aggregator.push(message("Disk", "/var is full").withPriority(Priority.LOW));
+        aggregator.push(message("Disk", "/tmp is full").withPriority(Priority.LOWEST));
+        aggregator.push(message("Disk", "/opt is full").withPriority(Priority.LOW));
+        aggregator.flush();
+
+        //then
+        assertEquals(1, sent.size());
+        assertEquals(Priority.LOW.toString(), sent.peek().getValue(Param.PRIORITY));
+    }
+
+    @Test
+    void testMonospace() {
+        //given
+        Aggregator aggregator = aggregator().withFormat(DigestFormat.MONOSPACE);
+
+        //when
+        aggregator.push(message("Disk", "/var is full"));
+        aggregator.push(message("CPU", "load is high"));
+        aggregator.flush();
+
+        //then
+        Message digest = sent.poll();
+        assertEquals("2 messages", digest.getValue(Param.TITLE));
+        assertEquals("Disk: /var is full\nCPU: load is high", digest.getValue(Param.MESSAGE));
+        assertEquals("1", digest.getValue(Param.MONOSPACE));
+    }
+
+    @Test
+    void testMessageLimit() {
+        //given
+        Aggregator aggregator = aggregator();
+        String text = "x".repeat(600);
+
+        //when
+        aggregator.push(message(null, text));
+        aggregator.push(message(null, text));
+
+        //then
+        assertEquals(1, sent.size());
+        assertEquals(text, sent.poll().getValue(Param.MESSAGE));
+        assertEquals(1, aggregator.size());
+    }
+
+    @Test
+    void testEmergencyIsNotBuffered() {
+        //given
+        Aggregator aggregator = aggregator();
+
+        //when
+        aggregator.push(message("Disk", "/var is full").withPriority(Priority.EMERGENCY));
+
+        //then
+        assertEquals(1, sent.size());
+        assertEquals(0, aggregator.size());
+    }
+
+    @Test
+    void testMaxMessages() {
+        //given
+        Aggregator aggregator = aggregator().withMaxMessages(2);
+
+        //when
+        for (String text : List.of("a", "b", "c")) {
+            aggregator.push(message(null, text));
+        }
+
+        //then
+        assertEquals("a\nb", sent.poll().getValue(Param.MESSAGE));
+        assertEquals(1, aggregator.size());
+    }
+
+    private Aggregator aggregator() {
+        return Aggregator.create().withSender(message -> {
+            sent.add(message);
+            return CompletableFuture.completedFuture(response);
+        });
+    }
+
+    private static Message message(String title, String text) {
+        Message message = JPushover.messageAPI()
+                .withToken("myToken")
+                .withUser("myUser")
+                .withMessage(text);
+
+        return title != null ? message.withTitle(title) : message;
+    }
+}
@@ -1,10 +1,29 @@
 package jpushover.services;
 
+import de.svenkubiak.jpushover.enums.Backpressure;
+import de.svenkubiak.jpushover.enums.Priority;
+import de.svenkubiak.jpushover.exceptions.RateLimitException;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.RateLimiter;
+import de.svenkubiak.jpushover.services.AsyncExecutor;
 import de.svenkubiak.jpushover.services.AsyncService;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AsyncServiceTests {
     @Test
@@ -18,4 +37,198 @@ class AsyncServiceTests {
         assertNotNull(b);
         assertEquals(a, b);
     }
+
+    @Test
+    void testBoundedConcurrency() throws Exception {
+        //given
+        CountDownLatch latch = new CountDownLatch(1);
+        AsyncService<PushoverResponse> asyncService = AsyncService.create().withMaxConcurrency(1);
+
+        //when
+        Future<PushoverResponse> first = asyncService.execute(new AsyncExecutor<>(() -> {
+            await(latch);
+            return PushoverResponse.create().httpStatus(200);
+        }));
+        Future<PushoverResponse> second = asyncService.execute(new AsyncExecutor<>(() -> PushoverResponse.create().httpStatus(201)));
+
+        //then
+        assertEquals(1, asyncService.getQueueSize());
+        latch.countDown();
+        assertEquals(200, first.get().getHttpStatus());
+        assertEquals(201, second.get().getHttpStatus());
+        assertTrue(asyncService.shutdown(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testReject() {
+        //given
+        CountDownLatch latch = new CountDownLatch(1);
+        AsyncService<PushoverResponse> asyncService = AsyncService.create()
+                .withMaxConcurrency(1)
+                .withQueueCapacity(1)
+                .withBackpressure(Backpressure.REJECT);
+
+        //when
+        asyncService.execute(new AsyncExecutor<>(() -> {
+            await(latch);
+            return PushoverResponse.create();
+        }));
+        asyncService.execute(new AsyncExecutor<>(PushoverResponse::create));
+
+        //then
+        assertThrows(RejectedExecutionException.class, () -> asyncService.execute(new AsyncExecutor<>(PushoverResponse::create)));
+        latch.countDown();
+        assertTrue(asyncService.shutdown(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testRejectAsync() throws Exception {
+        //given
+        CompletableFuture<PushoverResponse> blocker = new CompletableFuture<>();
+        AsyncService<PushoverResponse> asyncService = AsyncService.create()
+                .withMaxConcurrency(1)
+                .withQueueCapacity(1);
+        asyncService.executeAsync(() -> blocker);
+        CompletableFuture<PushoverResponse> queued = asyncService.executeAsync(() -> CompletableFuture.completedFuture(PushoverResponse.create()));
+
+        //when
+        CompletableFuture<PushoverResponse> rejected = asyncService.executeAsync(() -> CompletableFuture.completedFuture(PushoverResponse.create()));
+
+        //then
+        Exception exception = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof RejectedExecutionException);
+        blocker.complete(PushoverResponse.create());
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        assertTrue(asyncService.shutdown(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testDropOldest() throws Exception {
+        //given
+        CountDownLatch latch = new CountDownLatch(1);
+        AsyncService<PushoverResponse> asyncService = AsyncService.create()
+                .withMaxConcurrency(1)
+                .withQueueCapacity(1)
+                .withBackpressure(Backpressure.DROP_OLDEST);
+
+        //when
+        asyncService.execute(new AsyncExecutor<>(() -> {
+            await(latch);
+            return PushoverResponse.create();
+        }));
+        Future<PushoverResponse> dropped = asyncService.execute(new AsyncExecutor<>(PushoverResponse::create));
+        Future<PushoverResponse> kept = asyncService.execute(new AsyncExecutor<>(() -> PushoverResponse.create().httpStatus(200)));
+        latch.countDown();
+
+        //then
+        assertTrue(dropped.isCancelled());
+        assertEquals(200, kept.get().getHttpStatus());
+        assertTrue(asyncService.shutdown(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testExecuteAsync() throws Exception {
+        //given
+        CompletableFuture<PushoverResponse> pending = new CompletableFuture<>();
+        AsyncService<PushoverResponse> asyncService = AsyncService.create().withMaxConcurrency(1);
+
+        //when
+        CompletableFuture<PushoverResponse> first = asyncService.executeAsync(() -> pending);
+        CompletableFuture<PushoverResponse> second = asyncService.executeAsync(() -> CompletableFuture.completedFuture(PushoverResponse.create().httpStatus(201)));
+
+        //then
+        assertEquals(1, asyncService.getRunning());
+        assertEquals(1, asyncService.getQueueSize());
+        pending.complete(PushoverResponse.create().httpStatus(200));
+        assertEquals(200, first.get().getHttpStatus());
+        assertEquals(201, second.get().getHttpStatus());
+        assertTrue(asyncService.shutdown(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testShutdown() {
+        //given
+        AsyncService<PushoverResponse> asyncService = AsyncService.create();
+
+        //when
+        asyncService.shutdown();
+
+        //then
+        assertThrows(RejectedExecutionException.class, () -> asyncService.execute(new AsyncExecutor<>(PushoverResponse::create)));
+    }
+
+    @Test
+    void testPriorities() throws Exception {
+        //given
+        CompletableFuture<PushoverResponse> blocker = new CompletableFuture<>();
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        AsyncService<PushoverResponse> asyncService = AsyncService.create().withMaxConcurrency(1);
+        asyncService.executeAsync(() -> blocker);
+
+        //when
+        List<CompletableFuture<PushoverResponse>> futures = new ArrayList<>();
+        for (Priority priority : List.of(Priority.LOWEST, Priority.LOWEST, Priority.HIGH, Priority.EMERGENCY)) {
+            futures.add(asyncService.executeAsync(priority, null, () -> {
+                order.add(priority);
+                return CompletableFuture.completedFuture(PushoverResponse.create());
+            }));
+        }
+        blocker.complete(PushoverResponse.create());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(List.of(Priority.EMERGENCY, Priority.HIGH, Priority.LOWEST, Priority.LOWEST), order);
+    }
+
+    @Test
+    void testMaxQueueTime() throws Exception {
+        //given
+        CompletableFuture<PushoverResponse> blocker = new CompletableFuture<>();
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        AsyncService<PushoverResponse> asyncService = AsyncService.create()
+                .withMaxConcurrency(1)
+                .withMaxQueueTime(Duration.ZERO);
+        asyncService.executeAsync(() -> blocker);
+
+        //when
+        List<CompletableFuture<PushoverResponse>> futures = new ArrayList<>();
+        for (Priority priority : List.of(Priority.LOWEST, Priority.NORMAL, Priority.HIGH)) {
+            futures.add(asyncService.executeAsync(priority, null, () -> {
+                order.add(priority);
+                return CompletableFuture.completedFuture(PushoverResponse.create());
+            }));
+        }
+        blocker.complete(PushoverResponse.create());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(List.of(Priority.LOWEST, Priority.NORMAL, Priority.HIGH), order);
+    }
+
+    @Test
+    void testEmergencyReserve() throws Exception {
+        //given
+        RateLimiter.getInstance().update("reserveToken", PushoverResponse.create().httpStatus(200).limit(10000).remaining(5).reset(4102444800L));
+        AsyncService<PushoverResponse> asyncService = AsyncService.create().withEmergencyReserve(10);
+
+        //when
+        CompletableFuture<PushoverResponse> normal = asyncService.executeAsync(Priority.NORMAL, "reserveToken",
+                () -> CompletableFuture.completedFuture(PushoverResponse.create()));
+        CompletableFuture<PushoverResponse> emergency = asyncService.executeAsync(Priority.EMERGENCY, "reserveToken",
+                () -> CompletableFuture.completedFuture(PushoverResponse.create().httpStatus(200)));
+
+        //then
+        Exception exception = assertThrows(ExecutionException.class, () -> normal.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof RateLimitException);
+        assertEquals(200, emergency.get(5, TimeUnit.SECONDS).getHttpStatus());
+        RateLimiter.getInstance().clear();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
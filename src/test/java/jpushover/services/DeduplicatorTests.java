@@ -0,0 +1,167 @@
+package jpushover.services;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.JPushover;
+import de.svenkubiak.jpushover.apis.Message;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.http.BaseUrlTransport;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.Transports;
+import de.svenkubiak.jpushover.services.Deduplicator;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeduplicatorTests {
+
+    @Test
+    void testDuplicateIsSuppressed() {
+        //given
+        Deduplicator deduplicator = Deduplicator.create();
+
+        //when
+        boolean first = deduplicator.admit(message("Disk full"));
+        boolean second = deduplicator.admit(message("Disk full"));
+        boolean other = deduplicator.admit(message("CPU hot"));
+
+        //then
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(other);
+        assertEquals(2, deduplicator.size());
+    }
+
+    @Test
+    void testWindowCloses() throws InterruptedException {
+        //given
+        Deduplicator deduplicator = Deduplicator.create().withWindow(Duration.ofMillis(50));
+        deduplicator.admit(message("Disk full"));
+
+        //when
+        Thread.sleep(100);
+
+        //then
+        assertTrue(deduplicator.admit(message("Disk full")));
+    }
+
+    @Test
+    void testWindowIsNotExtended() throws InterruptedException {
+        //given
+        Deduplicator deduplicator = Deduplicator.create().withWindow(Duration.ofMillis(300));
+        deduplicator.admit(message("Disk full"));
+
+        //when
+        Thread.sleep(200);
+        boolean suppressed = deduplicator.admit(message("Disk full"));
+        Thread.sleep(200);
+        boolean sent = deduplicator.admit(message("Disk full"));
+
+        //then
+        assertFalse(suppressed);
+        assertTrue(sent);
+    }
+
+    @Test
+    void testFailedPushIsNotRecorded() throws Exception {
+        //given
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            byte[] response = "{\"status\":0,\"request\":\"foo\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(400, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        Transports.setDefault(BaseUrlTransport.create("http://localhost:" + server.getAddress().getPort()));
+        Deduplicator deduplicator = Deduplicator.create();
+
+        //when
+        Optional<PushoverResponse> response;
+        try {
+            response = deduplicator.push(message("Disk full"));
+        } finally {
+            Transports.reset();
+            server.stop(0);
+        }
+
+        //then
+        assertTrue(response.isPresent());
+        assertFalse(response.get().isSuccessful());
+        assertEquals(0, deduplicator.size());
+        assertTrue(deduplicator.admit(message("Disk full")));
+    }
+
+    @Test
+    void testMaxSize() {
+        //given
+        Deduplicator deduplicator = Deduplicator.create().withMaxSize(2);
+
+        //when
+        deduplicator.admit(message("a"));
+        deduplicator.admit(message("b"));
+        deduplicator.admit(message("a"));
+        deduplicator.admit(message("c"));
+
+        //then
+        assertEquals(2, deduplicator.size());
+        assertFalse(deduplicator.admit(message("b")));
+        assertTrue(deduplicator.admit(message("a")));
+    }
+
+    @Test
+    void testExpiredKeysAreEvicted() throws InterruptedException {
+        //given
+        Deduplicator deduplicator = Deduplicator.create().withWindow(Duration.ofMillis(300));
+        deduplicator.admit(message("a"));
+        Thread.sleep(150);
+        deduplicator.admit(message("b"));
+        deduplicator.admit(message("a"));
+
+        //when
+        Thread.sleep(200);
+        deduplicator.admit(message("c"));
+
+        //then
+        assertEquals(2, deduplicator.size());
+    }
+
+    @Test
+    void testCustomKey() {
+        //given
+        Deduplicator deduplicator = Deduplicator.create().withKey(message -> message.getValue(Param.USER));
+
+        //when
+        deduplicator.admit(message("Disk full"));
+
+        //then
+        assertFalse(deduplicator.admit(message("CPU hot")));
+    }
+
+    @Test
+    void testInvalidWindow() {
+        //given
+        Deduplicator deduplicator = Deduplicator.create();
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> deduplicator.withWindow(Duration.ZERO));
+
+        //then
+        assertTrue(exception.getMessage().contains("window must be positive"));
+    }
+
+    private static Message message(String text) {
+        return JPushover.messageAPI()
+                .withToken("myToken")
+                .withUser("myUser")
+                .withMessage(text);
+    }
+}
@@ -0,0 +1,178 @@
+package jpushover.services;
+
+import de.svenkubiak.jpushover.JPushover;
+import de.svenkubiak.jpushover.apis.Glance;
+import de.svenkubiak.jpushover.enums.Param;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.services.GlancePublisher;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GlancePublisherTests {
+    private final Queue<Glance> sent = new ConcurrentLinkedQueue<>();
+    private final PushoverResponse response = new PushoverResponse().httpStatus(200).isSuccessful(true);
+
+    @Test
+    void testCoalesce() throws Exception {
+        //given
+        GlancePublisher publisher = publisher(Duration.ofMillis(200));
+        publisher.publish(glance().withCount(1)).get(5, TimeUnit.SECONDS);
+
+        //when
+        List<CompletableFuture<PushoverResponse>> futures = List.of(
+                publisher.publish(glance().withCount(2)),
+                publisher.publish(glance().withCount(3).withText("foo")),
+                publisher.publish(glance().withPercent(50)),
+                publisher.publish(glance().withCount(4)));
+
+        //then
+        for (CompletableFuture<PushoverResponse> future : futures) {
+            assertSame(response, future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, sent.size());
+        sent.poll();
+        Glance merged = sent.poll();
+        assertEquals("4", merged.getValue(Param.COUNT));
+        assertEquals("foo", merged.getValue(Param.TEXT));
+        assertEquals("50", merged.getValue(Param.PERCENT));
+        assertEquals("myUser", merged.getValue(Param.USER));
+    }
+
+    @Test
+    void testUnchanged() throws Exception {
+        //given
+        GlancePublisher publisher = publisher(Duration.ofMillis(50));
+        publisher.publish(glance().withCount(1).withText("foo")).get(5, TimeUnit.SECONDS);
+
+        //when
+        PushoverResponse unchanged = publisher.publish(glance().withText("foo")).get(5, TimeUnit.SECONDS);
+        PushoverResponse changed = publisher.publish(glance().withText("bar")).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertNull(unchanged);
+        assertSame(response, changed);
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void testInterval() throws Exception {
+        //given
+        GlancePublisher publisher = publisher(Duration.ofMillis(300));
+        publisher.publish(glance().withCount(1)).get(5, TimeUnit.SECONDS);
+
+        //when
+        long start = System.nanoTime();
+        publisher.publish(glance().withCount(2)).get(5, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        //then
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(200), "update was sent before the interval passed");
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void testSlots() throws Exception {
+        //given
+        GlancePublisher publisher = publisher(Duration.ofMinutes(1));
+
+        //when
+        CompletableFuture<PushoverResponse> first = publisher.publish(glance().withCount(1));
+        CompletableFuture<PushoverResponse> second = publisher.publish(glance().withUser("otherUser").withCount(1));
+        CompletableFuture<PushoverResponse> third = publisher.publish(glance().withDevice("myDevice").withCount(1));
+
+        //then
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+        assertEquals(3, sent.size());
+    }
+
+    @Test
+    void testFlush() throws Exception {
+        //given
+        GlancePublisher publisher = publisher(Duration.ofMinutes(1));
+        publisher.publish(glance().withCount(1)).get(5, TimeUnit.SECONDS);
+        CompletableFuture<PushoverResponse> pending = publisher.publish(glance().withCount(2));
+
+        //when
+        int size = publisher.size();
+        publisher.flush();
+
+        //then
+        assertEquals(1, size);
+        assertSame(response, pending.get(5, TimeUnit.SECONDS));
+        assertEquals(0, publisher.size());
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void testFailure() throws Exception {
+        //given
+        GlancePublisher publisher = GlancePublisher.create()
+                .withInterval(Duration.ofMillis(50))
+                .withSender(glance -> CompletableFuture.completedFuture(new PushoverResponse().httpStatus(400).isSuccessful(false)));
+        publisher.publish(glance().withCount(1)).get(5, TimeUnit.SECONDS);
+
+        //when
+        PushoverResponse resent = publisher.publish(glance().withCount(1)).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(400, resent.getHttpStatus());
+    }
+
+    @Test
+    void testRetry() throws Exception {
+        //given
+        CompletableFuture<PushoverResponse> failed = new CompletableFuture<>();
+        GlancePublisher publisher = GlancePublisher.create()
+                .withInterval(Duration.ofMillis(100))
+                .withSender(glance -> {
+                    sent.add(glance);
+                    return sent.size() == 1 ? failed : CompletableFuture.completedFuture(response);
+                });
+        CompletableFuture<PushoverResponse> first = publisher.publish(glance().withCount(1).withText("foo"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sent.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        //when
+        CompletableFuture<PushoverResponse> second = publisher.publish(glance().withCount(2));
+        failed.complete(new PushoverResponse().httpStatus(503).isSuccessful(false));
+
+        //then
+        assertEquals(503, first.get(5, TimeUnit.SECONDS).getHttpStatus());
+        assertSame(response, second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, sent.size());
+        sent.poll();
+        Glance retried = sent.poll();
+        assertEquals("2", retried.getValue(Param.COUNT));
+        assertEquals("foo", retried.getValue(Param.TEXT));
+    }
+
+    private GlancePublisher publisher(Duration interval) {
+        return GlancePublisher.create()
+                .withInterval(interval)
+                .withSender(glance -> {
+                    sent.add(glance);
+                    return CompletableFuture.completedFuture(response);
+                });
+    }
+
+    private static Glance glance() {
+        return JPushover.glanceAPI()
+                .withToken("myToken")
+                .withUser("myUser");
+    }
+}
@@ -0,0 +1,112 @@
+package jpushover.services;
+
+import de.svenkubiak.jpushover.exceptions.JPushoverException;
+import de.svenkubiak.jpushover.http.PushoverMessage;
+import de.svenkubiak.jpushover.services.MessageStore;
+import de.svenkubiak.jpushover.utils.JsonReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageStoreTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppend() throws JPushoverException {
+        //given
+        try (MessageStore messageStore = MessageStore.create(directory).open()) {
+            //when
+            boolean appended = messageStore.append(message(1, "foo"));
+            boolean duplicate = messageStore.append(message(1, "bar"));
+
+            //then
+            assertTrue(appended);
+            assertFalse(duplicate);
+            assertEquals(1, messageStore.size());
+            assertEquals("foo", messageStore.get(1).orElseThrow().getMessage());
+            assertTrue(messageStore.get(2).isEmpty());
+        }
+    }
+
+    @Test
+    void testForEachAfter() throws JPushoverException {
+        //given
+        List<Long> ids = new ArrayList<>();
+        try (MessageStore messageStore = MessageStore.create(directory).open()) {
+            messageStore.append(message(3, "baz"));
+            messageStore.append(message(1, "foo"));
+            messageStore.append(message(2, "bar"));
+
+            //when
+            messageStore.forEachAfter(1, pushoverMessage -> ids.add(pushoverMessage.getId()));
+
+            //then
+            assertEquals(List.of(2L, 3L), ids);
+            assertEquals(3, messageStore.getHighestId());
+        }
+    }
+
+    @Test
+    void testReopen() throws JPushoverException {
+        //given
+        try (MessageStore messageStore = MessageStore.create(directory).withFsync(true).open()) {
+            messageStore.append(message(1, "foo"));
+            messageStore.append(message(2, "bar"));
+        }
+
+        //when
+        try (MessageStore messageStore = MessageStore.create(directory).open()) {
+            //then
+            assertEquals(2, messageStore.size());
+            assertEquals("bar", messageStore.get(2).orElseThrow().getMessage());
+            assertFalse(messageStore.append(message(2, "bar")));
+        }
+    }
+
+    @Test
+    void testTornTail() throws JPushoverException, IOException {
+        //given
+        try (MessageStore messageStore = MessageStore.create(directory).open()) {
+            messageStore.append(message(1, "foo"));
+        }
+        Path log = directory.resolve("messages.log");
+        long length = Files.size(log);
+        Files.write(log, new byte[] {0, 0, 0, 42, 0, 0}, StandardOpenOption.APPEND);
+
+        //when
+        try (MessageStore messageStore = MessageStore.create(directory).open()) {
+            messageStore.append(message(2, "bar"));
+
+            //then
+            assertEquals(2, messageStore.size());
+            assertEquals("foo", messageStore.get(1).orElseThrow().getMessage());
+            assertEquals("bar", messageStore.get(2).orElseThrow().getMessage());
+        }
+        assertTrue(Files.size(log) > length);
+    }
+
+    @Test
+    void testNotOpen() {
+        //given
+        MessageStore messageStore = MessageStore.create(directory);
+
+        //then
+        assertThrows(JPushoverException.class, () -> messageStore.append(message(1, "foo")));
+    }
+
+    private static PushoverMessage message(long id, String message) {
+        return PushoverMessage.of(JsonReader.of("{\"id\":" + id + ",\"message\":\"" + message + "\",\"app\":\"JPushover\",\"date\":1700000000}"));
+    }
+}
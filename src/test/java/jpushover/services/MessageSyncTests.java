@@ -0,0 +1,153 @@
+package jpushover.services;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.http.BaseUrlTransport;
+import de.svenkubiak.jpushover.http.PushoverMessage;
+import de.svenkubiak.jpushover.http.Transports;
+import de.svenkubiak.jpushover.services.MessageStore;
+import de.svenkubiak.jpushover.services.MessageSync;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageSyncTests {
+    private static final List<String> FETCHES = new CopyOnWriteArrayList<>();
+    private static final List<String> ACKS = new CopyOnWriteArrayList<>();
+    private static volatile String pending = "{\"messages\":[],\"status\":1}";
+    private static HttpServer server;
+    private final List<Long> received = new CopyOnWriteArrayList<>();
+    private MessageStore messageStore;
+    private MessageSync messageSync;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            var body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String response = "{\"status\":1,\"request\":\"foo\"}";
+            if ("POST".equals(exchange.getRequestMethod())) {
+                ACKS.add(exchange.getRequestURI().getPath() + "?" + body);
+            } else {
+                FETCHES.add(exchange.getRequestURI().getQuery());
+                response = pending;
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+        Transports.setDefault(BaseUrlTransport.create("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @AfterAll
+    static void stop() {
+        Transports.reset();
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FETCHES.clear();
+        ACKS.clear();
+        messageStore = MessageStore.create(directory).open();
+        messageSync = MessageSync.create("mySecret", "myDevice", messageStore, pushoverMessage -> received.add(pushoverMessage.getId()))
+                .withAckDelay(Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageStore.close();
+    }
+
+    @Test
+    void testSync() throws Exception {
+        //given
+        pending = "{\"messages\":[{\"id\":1,\"message\":\"foo\"},{\"id\":2,\"message\":\"bar\"}],\"status\":1}";
+
+        //when
+        int first = messageSync.sync().get(5, TimeUnit.SECONDS);
+        pending = "{\"messages\":[{\"id\":1,\"message\":\"foo\"},{\"id\":2,\"message\":\"bar\"},{\"id\":3,\"message\":\"baz\"}],\"status\":1}";
+        int second = messageSync.sync().get(5, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(2, first);
+        assertEquals(1, second);
+        assertEquals(List.of(1L, 2L, 3L), received);
+        assertEquals(3, messageStore.size());
+        assertEquals("secret=mySecret&device_id=myDevice", FETCHES.getFirst());
+    }
+
+    @Test
+    void testDebouncedAck() throws Exception {
+        //given
+        pending = "{\"messages\":[{\"id\":5,\"message\":\"foo\"}],\"status\":1}";
+        messageSync.sync().get(5, TimeUnit.SECONDS);
+        pending = "{\"messages\":[{\"id\":5,\"message\":\"foo\"},{\"id\":6,\"message\":\"bar\"}],\"status\":1}";
+        messageSync.sync().get(5, TimeUnit.SECONDS);
+
+        //when
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (messageSync.getAcknowledgedId() < 6 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(300);
+
+        //then
+        assertEquals(6, messageSync.getAcknowledgedId());
+        assertEquals(List.of("/1/devices/myDevice/update_highest_message.json?secret=mySecret&message=6"), ACKS);
+        assertNull(messageSync.flush().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCoalesce() throws Exception {
+        //given
+        pending = "{\"messages\":[{\"id\":1,\"message\":\"foo\"}],\"status\":1}";
+
+        //when
+        var first = messageSync.sync();
+        var second = messageSync.sync();
+        var third = messageSync.sync();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(FETCHES.size() <= 2);
+        assertEquals(List.of(1L), received);
+    }
+
+    @Test
+    void testFlush() throws Exception {
+        //given
+        pending = "{\"messages\":[{\"id\":9,\"message\":\"foo\"}],\"status\":1}";
+        messageSync.withAckDelay(Duration.ofMinutes(1)).sync().get(5, TimeUnit.SECONDS);
+
+        //when
+        var response = messageSync.flush().get(5, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(response.isSuccessful());
+        assertEquals(9, messageSync.getAcknowledgedId());
+        assertEquals(1, ACKS.size());
+    }
+}
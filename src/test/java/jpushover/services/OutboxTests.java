@@ -0,0 +1,181 @@
+package jpushover.services;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.services.Outbox;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxTests {
+    private static final Queue<String> REQUESTS = new ConcurrentLinkedQueue<>();
+    private static final CountDownLatch SENDING = new CountDownLatch(1);
+    private static final CountDownLatch RELEASE = new CountDownLatch(1);
+    private static HttpServer server;
+    private static String url;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            REQUESTS.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            var path = exchange.getRequestURI().getPath();
+            if (path.endsWith("slow.json")) {
+                SENDING.countDown();
+                try {
+                    RELEASE.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] response = "{\"status\":1,\"request\":\"foo\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(path.endsWith("invalid.json") ? 400 : 200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/1/messages.json";
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void testNotOpen() {
+        //given
+        Outbox outbox = Outbox.create(directory);
+
+        //when
+        Exception exception = assertThrows(Exception.class, () -> {
+            outbox.append(new Outbox.Entry(url, "myToken", new byte[0], null, 0));
+        });
+
+        //then
+        assertTrue(exception.getMessage().contains("Outbox is not open"));
+    }
+
+    @Test
+    void testReplayAfterRestart() throws Exception {
+        //given
+        byte[] json = "{\"token\":\"myToken\",\"user\":\"myUser\"}".getBytes(StandardCharsets.UTF_8);
+        try (Outbox outbox = Outbox.create(directory).open()) {
+            outbox.append(new Outbox.Entry(url, "myToken", json, null, 0));
+            long acknowledged = outbox.append(new Outbox.Entry(url, "myToken", json, null, 0));
+            outbox.acknowledge(acknowledged);
+        }
+
+        //when
+        List<PushoverResponse> responses;
+        int pending;
+        try (Outbox outbox = Outbox.create(directory).open()) {
+            responses = outbox.replay();
+            pending = outbox.size();
+        }
+
+        //then
+        assertEquals(1, responses.size());
+        assertTrue(responses.get(0).isSuccessful());
+        assertEquals(0, pending);
+        assertTrue(REQUESTS.contains("{\"token\":\"myToken\",\"user\":\"myUser\"}"));
+    }
+
+    @Test
+    void testClientErrorIsAcknowledged() throws Exception {
+        //given
+        byte[] json = "{\"token\":\"myToken\"}".getBytes(StandardCharsets.UTF_8);
+
+        //when
+        try (Outbox outbox = Outbox.create(directory).open()) {
+            PushoverResponse response = outbox.push(url.replace("messages.json", "invalid.json"), "myToken", json, null, 0);
+
+            //then
+            assertEquals(400, response.getHttpStatus());
+            assertEquals(0, outbox.size());
+        }
+    }
+
+    @Test
+    void testPushAsync() throws Exception {
+        //given
+        byte[] json = "{\"token\":\"myToken\",\"user\":\"async\"}".getBytes(StandardCharsets.UTF_8);
+
+        //when
+        try (Outbox outbox = Outbox.create(directory).open()) {
+            PushoverResponse response = outbox.pushAsync(url, "myToken", json, null, 0).get(5, TimeUnit.SECONDS);
+
+            //then
+            assertTrue(response.isSuccessful());
+            assertEquals(0, outbox.size());
+            assertTrue(REQUESTS.contains("{\"token\":\"myToken\",\"user\":\"async\"}"));
+        }
+    }
+
+    @Test
+    void testReplaySkipsInFlight() throws Exception {
+        //given
+        byte[] json = "{\"token\":\"myToken\",\"user\":\"slow\"}".getBytes(StandardCharsets.UTF_8);
+        try (Outbox outbox = Outbox.create(directory).open()) {
+            CompletableFuture<PushoverResponse> inFlight = outbox.pushAsync(url.replace("messages.json", "slow.json"), "myToken", json, null, 0);
+            assertTrue(SENDING.await(5, TimeUnit.SECONDS));
+
+            //when
+            List<PushoverResponse> responses = outbox.replay();
+            RELEASE.countDown();
+
+            //then
+            assertEquals(0, responses.size());
+            assertTrue(inFlight.get(5, TimeUnit.SECONDS).isSuccessful());
+            assertEquals(0, outbox.size());
+            assertEquals(1, REQUESTS.stream().filter(request -> request.contains("slow")).count());
+        }
+    }
+
+    @Test
+    void testCompaction() throws Exception {
+        //given
+        byte[] json = "x".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        //when
+        try (Outbox outbox = Outbox.create(directory).withSegmentSize(256).open()) {
+            for (int i = 0; i < 10; i++) {
+                long id = outbox.append(new Outbox.Entry(url, "myToken", json, "proxy", 8080));
+                outbox.acknowledge(id);
+            }
+            long id = outbox.append(new Outbox.Entry(url, "myToken", json, "proxy", 8080));
+            Map<Long, Outbox.Entry> pending = outbox.pending();
+
+            //then
+            assertEquals(1, pending.size());
+            assertEquals("proxy", pending.get(id).getProxyHost());
+            assertEquals(8080, pending.get(id).getProxyPort());
+            try (var files = Files.list(directory)) {
+                assertEquals(1, files.count());
+            }
+        }
+    }
+}
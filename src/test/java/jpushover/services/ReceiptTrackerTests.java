@@ -0,0 +1,203 @@
+package jpushover.services;
+
+import com.sun.net.httpserver.HttpServer;
+import de.svenkubiak.jpushover.JPushover;
+import de.svenkubiak.jpushover.apis.Message;
+import de.svenkubiak.jpushover.enums.Priority;
+import de.svenkubiak.jpushover.http.BaseUrlTransport;
+import de.svenkubiak.jpushover.http.PushoverResponse;
+import de.svenkubiak.jpushover.http.Receipt;
+import de.svenkubiak.jpushover.http.Transports;
+import de.svenkubiak.jpushover.listener.ReceiptListener;
+import de.svenkubiak.jpushover.services.ReceiptTracker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiptTrackerTests {
+    private static final String PENDING = "{\"status\":1,\"acknowledged\":0,\"last_delivered_at\":1700000000,\"expired\":0,\"called_back\":0}";
+    private static final Map<String, String> RECEIPTS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> POLLS = new ConcurrentHashMap<>();
+    private static final List<String> CANCELLED = new CopyOnWriteArrayList<>();
+    private static HttpServer server;
+    private ReceiptTracker receiptTracker;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            var path = exchange.getRequestURI().getPath();
+            var status = 200;
+            String response = "{\"status\":1,\"request\":\"foo\"}";
+            if ("POST".equals(exchange.getRequestMethod())) {
+                CANCELLED.add(path);
+            } else {
+                var receipt = path.substring("/1/receipts/".length(), path.length() - ".json".length());
+                POLLS.computeIfAbsent(receipt, key -> new AtomicInteger()).incrementAndGet();
+                response = RECEIPTS.get(receipt);
+                if (response == null) {
+                    status = 400;
+                    response = "{\"receipt\":\"not found\",\"status\":0,\"errors\":[\"receipt not found; may be invalid or expired\"]}";
+                }
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+        Transports.setDefault(BaseUrlTransport.create("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @AfterAll
+    static void stop() {
+        Transports.reset();
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        receiptTracker = ReceiptTracker.create()
+                .withMinInterval(Duration.ofMillis(20))
+                .withMaxInterval(Duration.ofMillis(100));
+    }
+
+    @Test
+    void testAcknowledged() throws Exception {
+        //given
+        RECEIPTS.put("acknowledged", PENDING);
+        CompletableFuture<Receipt> acknowledged = new CompletableFuture<>();
+
+        //when
+        receiptTracker.track("trackerToken", "acknowledged", new ReceiptListener() {
+            @Override
+            public void onAcknowledged(Receipt receipt) {
+                acknowledged.complete(receipt);
+            }
+        });
+        await(() -> POLLS.containsKey("acknowledged") && POLLS.get("acknowledged").get() >= 2);
+        RECEIPTS.put("acknowledged", "{\"status\":1,\"acknowledged\":1,\"acknowledged_at\":1700000100,\"acknowledged_by\":\"uQiRzpo4DXghDmr9QzzfQu27cmVRsG\",\"acknowledged_by_device\":\"iphone\",\"expired\":0,\"called_back\":0}");
+        Receipt receipt = acknowledged.get(5, TimeUnit.SECONDS);
+
+        //then
+        assertEquals("acknowledged", receipt.getReceipt());
+        assertEquals("iphone", receipt.getAcknowledgedByDevice());
+        assertEquals(1700000100, receipt.getAcknowledgedAt());
+        await(() -> !receiptTracker.isTracked("acknowledged"));
+    }
+
+    @Test
+    void testExpired() throws Exception {
+        //given
+        RECEIPTS.put("expired", "{\"status\":1,\"acknowledged\":0,\"expired\":1,\"expires_at\":1700003600,\"called_back\":0}");
+        CompletableFuture<Receipt> expired = new CompletableFuture<>();
+
+        //when
+        receiptTracker.track("trackerToken", "expired", new ReceiptListener() {
+            @Override
+            public void onExpired(Receipt receipt) {
+                expired.complete(receipt);
+            }
+        });
+
+        //then
+        assertTrue(expired.get(5, TimeUnit.SECONDS).isExpired());
+        await(() -> receiptTracker.size() == 0);
+    }
+
+    @Test
+    void testCalledBack() throws Exception {
+        //given
+        RECEIPTS.put("calledBack", PENDING);
+        CompletableFuture<Receipt> calledBack = new CompletableFuture<>();
+        Message message = JPushover.messageAPI()
+                .withToken("trackerToken")
+                .withPriority(Priority.EMERGENCY)
+                .withCallback("https://example.com/callback");
+
+        //when
+        receiptTracker.track(message, PushoverResponse.create().response("{\"status\":1,\"receipt\":\"calledBack\"}"), new ReceiptListener() {
+            @Override
+            public void onCalledBack(Receipt receipt) {
+                calledBack.complete(receipt);
+            }
+        });
+        RECEIPTS.put("calledBack", "{\"status\":1,\"acknowledged\":1,\"expired\":0,\"called_back\":0}");
+        await(() -> POLLS.containsKey("calledBack") && POLLS.get("calledBack").get() >= 2);
+        boolean trackedAfterAcknowledgement = receiptTracker.isTracked("calledBack");
+        RECEIPTS.put("calledBack", "{\"status\":1,\"acknowledged\":1,\"expired\":0,\"called_back\":1,\"called_back_at\":1700000200}");
+
+        //then
+        assertEquals(1700000200, calledBack.get(5, TimeUnit.SECONDS).getCalledBackAt());
+        assertTrue(trackedAfterAcknowledgement);
+    }
+
+    @Test
+    void testFailure() throws Exception {
+        //given
+        CompletableFuture<PushoverResponse> failure = new CompletableFuture<>();
+
+        //when
+        receiptTracker.track("trackerToken", "unknown", new ReceiptListener() {
+            @Override
+            public void onFailure(String receipt, PushoverResponse pushoverResponse) {
+                failure.complete(pushoverResponse);
+            }
+        });
+
+        //then
+        assertEquals(400, failure.get(5, TimeUnit.SECONDS).getHttpStatus());
+        assertFalse(receiptTracker.isTracked("unknown"));
+    }
+
+    @Test
+    void testCancelByTag() throws Exception {
+        //given
+        RECEIPTS.put("tagged", PENDING);
+        RECEIPTS.put("untagged", PENDING);
+        Message message = JPushover.messageAPI()
+                .withToken("trackerToken")
+                .withPriority(Priority.EMERGENCY)
+                .withTags("database", "outage");
+        receiptTracker.track(message, PushoverResponse.create().response("{\"status\":1,\"receipt\":\"tagged\"}"), new ReceiptListener() { });
+        receiptTracker.track("trackerToken", "untagged", new ReceiptListener() { });
+
+        //when
+        PushoverResponse pushoverResponse = receiptTracker.cancelByTag("trackerToken", "outage").get(5, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(pushoverResponse.isSuccessful());
+        assertTrue(CANCELLED.contains("/1/receipts/cancel_by_tag/outage.json"));
+        assertFalse(receiptTracker.isTracked("tagged"));
+        assertTrue(receiptTracker.isTracked("untagged"));
+        receiptTracker.cancel("trackerToken", "untagged").get(5, TimeUnit.SECONDS);
+        assertTrue(CANCELLED.contains("/1/receipts/untagged/cancel.json"));
+        assertEquals(0, receiptTracker.size());
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+}
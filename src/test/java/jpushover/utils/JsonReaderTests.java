@@ -0,0 +1,89 @@
+package jpushover.utils;
+
+import de.svenkubiak.jpushover.utils.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JsonReaderTests {
+
+    @Test
+    void testGetString() {
+        //given
+        JsonReader jsonReader = JsonReader.of("{\"nested\":{\"request\":\"inner\",\"list\":[1,{\"a\":\"}\"}]},\"request\" : \"5042853c-402d-4a18-abcb-168734a801de\"}");
+
+        //when
+        String request = jsonReader.getString("request");
+
+        //then
+        assertEquals("5042853c-402d-4a18-abcb-168734a801de", request);
+    }
+
+    @Test
+    void testGetStringWithEscapes() {
+        //given
+        JsonReader jsonReader = JsonReader.of("{\"message\":\"a \\\"quoted\\\" line\\nwith \\u00fc\",\"t\\u0069tle\":\"foo\"}");
+
+        //then
+        assertEquals("a \"quoted\" line\nwith \u00fc", jsonReader.getString("message"));
+        assertEquals("foo", jsonReader.getString("title"));
+    }
+
+    @Test
+    void testGetLong() {
+        //given
+        JsonReader jsonReader = JsonReader.of("{\"request\":\"foo\",\"status\":1,\"id\":-42}");
+
+        //then
+        assertEquals(1, jsonReader.getLong("status", 0));
+        assertEquals(-42, jsonReader.getLong("id", 0));
+        assertEquals(7, jsonReader.getLong("request", 7));
+        assertEquals(7, jsonReader.getLong("missing", 7));
+    }
+
+    @Test
+    void testGetStrings() {
+        //given
+        JsonReader jsonReader = JsonReader.of("{\"status\":0,\"errors\":[\"user identifier is invalid\", \"message cannot be blank\"],\"devices\":[]}");
+
+        //then
+        assertEquals(List.of("user identifier is invalid", "message cannot be blank"), jsonReader.getStrings("errors"));
+        assertEquals(List.of(), jsonReader.getStrings("devices"));
+        assertEquals(List.of(), jsonReader.getStrings("status"));
+    }
+
+    @Test
+    void testForEach() {
+        //given
+        JsonReader jsonReader = JsonReader.of("{\"messages\":[{\"id\":1,\"message\":\"foo\"}, 7, {\"id\":2,\"message\":\"b]r\"}],\"status\":1}");
+        List<String> messages = new ArrayList<>();
+
+        //when
+        int count = jsonReader.forEach("messages", element -> messages.add(element.getLong("id", 0) + ":" + element.getString("message")));
+
+        //then
+        assertEquals(2, count);
+        assertEquals(List.of("1:foo", "2:b]r"), messages);
+        assertEquals(1, jsonReader.getLong("status", 0));
+        assertEquals(0, JsonReader.of("{\"messages\":[]}").forEach("messages", element -> messages.add("empty")));
+        assertEquals(-1, jsonReader.forEach("status", element -> messages.add("status")));
+        assertEquals(-1, JsonReader.of("{\"messages\":[{\"id\":1").forEach("messages", element -> messages.add("malformed")));
+        assertEquals(2, messages.size());
+    }
+
+    @Test
+    void testMalformed() {
+        //given
+        JsonReader jsonReader = JsonReader.of("<html>Bad Gateway</html>");
+
+        //then
+        assertNull(jsonReader.getString("request"));
+        assertEquals(0, jsonReader.getLong("status", 0));
+        assertEquals(List.of(), JsonReader.of("{\"errors\":[\"foo\"").getStrings("errors"));
+        assertNull(JsonReader.of("{\"request\":\"foo").getString("request"));
+    }
+}
@@ -0,0 +1,119 @@
+package jpushover.utils;
+
+import de.svenkubiak.jpushover.utils.JsonStreamReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonStreamReaderTests {
+
+    @Test
+    void testForEach() throws IOException {
+        //given
+        String json = "{\"status\":1, \"user\":{\"name\":\"a}\"}, \"tags\":[\"x\",[1,2]], \"messages\":[{\"id\":1,\"message\":\"f\\\"o}o\"}, 7, {\"id\":2,\"message\":\"bär\"}],\"request\":\"foo\"}";
+        List<String> messages = new ArrayList<>();
+
+        //when
+        int count = JsonStreamReader.of(stream(json)).forEach("messages", element -> messages.add(element.getLong("id", 0) + ":" + element.getString("message")));
+
+        //then
+        assertEquals(2, count);
+        assertEquals(List.of("1:f\"o}o", "2:bär"), messages);
+    }
+
+    @Test
+    void testSingleBytes() throws IOException {
+        //given
+        byte[] json = "{\"messages\":[{\"id\":1,\"message\":\"bär 🎉\"}]}".getBytes(StandardCharsets.UTF_8);
+        List<String> messages = new ArrayList<>();
+        InputStream trickle = new ByteArrayInputStream(json) {
+            @Override
+            public synchronized int read(byte[] bytes, int offset, int length) {
+                return super.read(bytes, offset, Math.min(length, 1));
+            }
+        };
+
+        //when
+        int count = JsonStreamReader.of(trickle).forEach("messages", element -> messages.add(element.getString("message")));
+
+        //then
+        assertEquals(1, count);
+        assertEquals(List.of("bär 🎉"), messages);
+    }
+
+    @Test
+    void testBacklog() throws IOException {
+        //given
+        int total = 100_000;
+        AtomicLong sum = new AtomicLong();
+
+        //when
+        int count = JsonStreamReader.of(backlog(total)).forEach("messages", element -> sum.addAndGet(element.getLong("id", 0)));
+
+        //then
+        assertEquals(total, count);
+        assertEquals((long) total * (total + 1) / 2, sum.get());
+    }
+
+    @Test
+    void testMissing() throws IOException {
+        //then
+        assertEquals(-1, JsonStreamReader.of(stream("{\"status\":1}")).forEach("messages", element -> { }));
+        assertEquals(-1, JsonStreamReader.of(stream("{}")).forEach("messages", element -> { }));
+        assertEquals(-1, JsonStreamReader.of(stream("{\"messages\":1}")).forEach("messages", element -> { }));
+        assertEquals(0, JsonStreamReader.of(stream("{\"messages\":[ ]}")).forEach("messages", element -> { }));
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        //then
+        assertEquals(-1, JsonStreamReader.of(stream("<html>Bad Gateway</html>")).forEach("messages", element -> { }));
+        assertEquals(-1, JsonStreamReader.of(stream("{\"messages\":[{\"id\":1")).forEach("messages", element -> { }));
+        assertEquals(-1, JsonStreamReader.of(stream("{\"messages\":[{\"id\":1}")).forEach("messages", element -> { }));
+    }
+
+    @Test
+    void testElementTooLarge() {
+        //given
+        String json = "{\"messages\":[{\"message\":\"" + "a".repeat(1 << 17) + "\"}]}";
+
+        //then
+        assertThrows(IOException.class, () -> JsonStreamReader.of(stream(json)).forEach("messages", element -> { }));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream backlog(int total) {
+        return new InputStream() {
+            private byte[] chunk = "{\"messages\":[".getBytes(StandardCharsets.UTF_8);
+            private int position;
+            private int id;
+
+            @Override
+            public int read() {
+                if (position == chunk.length) {
+                    if (id > total) {
+                        return -1;
+                    }
+                    id++;
+                    String next = id > total ? "],\"status\":1}" : (id > 1 ? "," : "") + "{\"id\":" + id + ",\"message\":\"message " + id + "\"}";
+                    chunk = next.getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+
+                return chunk[position++] & 0xff;
+            }
+        };
+    }
+}
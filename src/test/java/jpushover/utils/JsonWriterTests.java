@@ -0,0 +1,128 @@
+package jpushover.utils;
+
+import de.svenkubiak.jpushover.utils.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class JsonWriterTests {
+
+    @Test
+    void testObject() {
+        //when
+        String json = toString(JsonWriter.get()
+                .beginObject()
+                .field("token", "foo")
+                .field("user", "bar")
+                .endObject()
+                .toByteArray());
+
+        //then
+        assertEquals("{\"token\":\"foo\",\"user\":\"bar\"}", json);
+    }
+
+    @Test
+    void testEmptyObject() {
+        //when
+        String json = toString(JsonWriter.get().beginObject().endObject().toByteArray());
+
+        //then
+        assertEquals("{}", json);
+    }
+
+    @Test
+    void testEscaping() {
+        //given
+        String value = "<a href=\"url\">C:\\path</a>\n\t\r\b\f\u0001";
+
+        //when
+        String json = toString(JsonWriter.get().beginObject().field("message", value).endObject().toByteArray());
+
+        //then
+        assertEquals("{\"message\":\"<a href=\\\"url\\\">C:\\\\path</a>\\n\\t\\r\\b\\f\\u0001\"}", json);
+    }
+
+    @Test
+    void testUnicode() {
+        //given
+        String value = "Grüße € \uD83D\uDE80";
+
+        //when
+        byte[] json = JsonWriter.get().beginObject().field("message", value).endObject().toByteArray();
+
+        //then
+        assertEquals("{\"message\":\"" + value + "\"}", toString(json));
+    }
+
+    @Test
+    void testLoneSurrogate() {
+        //when
+        String json = toString(JsonWriter.get().beginObject().field("message", "a\uD83Db").endObject().toByteArray());
+
+        //then
+        assertEquals("{\"message\":\"a\\ud83db\"}", json);
+    }
+
+    @Test
+    void testFields() {
+        //given
+        byte[] shared = JsonWriter.get().field("message", "foo").field("token", "bar").toByteArray();
+
+        //when
+        String json = toString(JsonWriter.get().beginObject().fields(shared).field("user", "baz").endObject().toByteArray());
+
+        //then
+        assertEquals("{\"message\":\"foo\",\"token\":\"bar\",\"user\":\"baz\"}", json);
+    }
+
+    @Test
+    void testNumberField() {
+        //when
+        String json = toString(JsonWriter.get().beginObject().field("id", 42L).field("date", -1L).field("title", "foo").endObject().toByteArray());
+
+        //then
+        assertEquals("{\"id\":42,\"date\":-1,\"title\":\"foo\"}", json);
+    }
+
+    @Test
+    void testCreate() {
+        //given
+        JsonWriter jsonWriter = JsonWriter.create();
+        jsonWriter.beginObject().field("title", "foo").endObject();
+
+        //when
+        String json = toString(jsonWriter.reset().beginObject().field("user", "bar").endObject().toByteArray());
+
+        //then
+        assertNotSame(JsonWriter.get(), jsonWriter);
+        assertEquals("{\"user\":\"bar\"}", json);
+    }
+
+    @Test
+    void testVirtualThread() throws InterruptedException {
+        //given
+        AtomicReference<String> json = new AtomicReference<>();
+        AtomicBoolean reused = new AtomicBoolean(true);
+
+        //when
+        Thread.ofVirtual().start(() -> {
+            JsonWriter jsonWriter = JsonWriter.get();
+            json.set(toString(jsonWriter.beginObject().field("user", "foo").endObject().toByteArray()));
+            reused.set(jsonWriter == JsonWriter.get());
+        }).join();
+
+        //then
+        assertEquals("{\"user\":\"foo\"}", json.get());
+        assertFalse(reused.get());
+    }
+
+    private static String toString(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}